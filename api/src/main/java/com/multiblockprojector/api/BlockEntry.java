@@ -4,13 +4,14 @@ import net.minecraft.world.level.block.state.BlockState;
 
 /**
  * Represents a block requirement at a position in a multiblock structure.
- * Sealed to {@link SingleBlock} (exact block) and {@link BlockGroup} (any of several blocks).
+ * Sealed to {@link SingleBlock} (exact block), {@link BlockGroup} (any of several blocks),
+ * {@link TagEntry} (any block in a tag) and {@link AirEntry} (empty).
  */
-public sealed interface BlockEntry permits SingleBlock, BlockGroup, AirEntry {
+public sealed interface BlockEntry permits SingleBlock, BlockGroup, TagEntry, AirEntry {
     /**
      * Returns the block state to display at the given game tick.
      * For {@link SingleBlock}, always returns the same state.
-     * For {@link BlockGroup}, cycles through options.
+     * For {@link BlockGroup} and {@link TagEntry}, cycles through options.
      */
     BlockState displayState(long tick);
 
@@ -1,18 +1,56 @@
 package com.multiblockprojector.api;
 
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
 import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.List;
+import java.util.Set;
 
 /**
  * A block entry that accepts any of several block types.
  * Cycles through options in the preview renderer.
+ * <p>
+ * The accepted blocks are collected into an identity set when the group is created, so
+ * {@link #matches} is a single lookup however many options there are.
  *
- * <p>Note: equality is identity-based on block states.
- * Do not rely on {@code equals()} for deduplication.</p>
+ * <p>Groups are values: two groups are equal when their labels and option lists are equal, and
+ * the hash code is computed once, so equal groups share one palette slot when structures are
+ * packed. Whole structures from different sources are compared by {@link StructureFingerprint}.</p>
  */
-public record BlockGroup(Component label, List<BlockState> options) implements BlockEntry {
+public final class BlockGroup implements BlockEntry {
+
+    private final Component label;
+    private final List<BlockState> options;
+    private final Set<Block> blocks;
+    private final int hash;
+
+    public BlockGroup(Component label, List<BlockState> options) {
+        this.label = label;
+        this.options = List.copyOf(options);
+        ReferenceOpenHashSet<Block> accepted = new ReferenceOpenHashSet<>(this.options.size());
+        for (BlockState option : this.options) {
+            accepted.add(option.getBlock());
+        }
+        this.blocks = ReferenceSets.unmodifiable(accepted);
+        this.hash = 31 * label.hashCode() + this.options.hashCode();
+    }
+
+    public Component label() {
+        return label;
+    }
+
+    public List<BlockState> options() {
+        return options;
+    }
+
+    /** The distinct blocks of all options. */
+    public Set<Block> blocks() {
+        return blocks;
+    }
+
     @Override
     public BlockState displayState(long tick) {
         return options.get((int) ((tick / 20) % options.size()));
@@ -20,6 +58,23 @@ public record BlockGroup(Component label, List<BlockState> options) implements B
 
     @Override
     public boolean matches(BlockState placed) {
-        return options.stream().anyMatch(o -> placed.is(o.getBlock()));
+        return blocks.contains(placed.getBlock());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj instanceof BlockGroup other && hash == other.hash
+            && label.equals(other.label) && options.equals(other.options);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "BlockGroup[label=" + label + ", options=" + options + "]";
     }
 }
@@ -0,0 +1,94 @@
+package com.multiblockprojector.api;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only {@link Map} view over a {@link StructureGrid}.
+ * Lookups index straight into the packed cells; iteration walks the cells in
+ * layer order and creates each position lazily.
+ */
+final class GridBlockMap extends AbstractMap<BlockPos, BlockEntry> {
+
+    private final StructureGrid grid;
+    private Set<Map.Entry<BlockPos, BlockEntry>> entrySet;
+
+    GridBlockMap(StructureGrid grid) {
+        this.grid = grid;
+    }
+
+    StructureGrid grid() {
+        return grid;
+    }
+
+    @Override
+    public int size() {
+        return grid.blockCount();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public BlockEntry get(Object key) {
+        if (!(key instanceof BlockPos pos)) return null;
+        return grid.get(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    @Override
+    public Set<Map.Entry<BlockPos, BlockEntry>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<BlockPos, BlockEntry>> iterator() {
+                    return new CellIterator();
+                }
+
+                @Override
+                public int size() {
+                    return grid.blockCount();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private final class CellIterator implements Iterator<Map.Entry<BlockPos, BlockEntry>> {
+        private int next = advance(0);
+
+        private int advance(int from) {
+            int volume = grid.volume();
+            while (from < volume && grid.paletteIndexAt(from) == StructureGrid.EMPTY) {
+                from++;
+            }
+            return from;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < grid.volume();
+        }
+
+        @Override
+        public Map.Entry<BlockPos, BlockEntry> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int index = next;
+            next = advance(index + 1);
+
+            int sizeX = grid.sizeX();
+            int sizeZ = grid.sizeZ();
+            int x = index % sizeX;
+            int z = (index / sizeX) % sizeZ;
+            int y = index / (sizeX * sizeZ);
+            return Map.entry(new BlockPos(x, y, z), grid.palette().get(grid.paletteIndexAt(index)));
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.multiblockprojector.api;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.state.BlockState;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Reader and writer for the compact {@code .mbp} structure format.
+ *
+ * <h2>Layout</h2>
+ * All integers are unsigned LEB128 varints unless noted.
+ * <pre>
+ * magic      "MBP" + version byte (1)
+ * size       sizeX, sizeY, sizeZ
+ * palette    count, then per entry a type byte:
+ *              1 = single block: state string
+ *              2 = block group:  label string, option count, option state strings
+ *              3 = block tag:    label string, tag id string, fallback state string
+ * flags      byte; bit 0 = air bitmap present
+ * layers     for y in [0, sizeY): runs of (length, value) covering sizeX * sizeZ cells
+ *            in (z, x) order; value 0 = no block, value n = palette entry n - 1
+ * air        if flagged: the air bitmap over every cell with value 0, in layer order,
+ *            stored as alternating run lengths starting with a run of clear bits
+ * </pre>
+ * Strings are a varint byte length followed by UTF-8. Block states use the command syntax
+ * ({@code minecraft:oak_stairs[facing=north]}).
+ * <p>
+ * Runs never cross a layer boundary, so a reader can stop after any layer. Uniform shells
+ * such as tanks and boilers collapse to a handful of runs per layer.
+ */
+public final class MbpFormat {
+
+    /** File extension for structures stored in this format. */
+    public static final String EXTENSION = ".mbp";
+
+    private static final byte[] MAGIC = { 'M', 'B', 'P' };
+    private static final int VERSION = 1;
+
+    private static final int TYPE_BLOCK = 1;
+    private static final int TYPE_GROUP = 2;
+    private static final int TYPE_TAG = 3;
+    private static final int FLAG_AIR = 1;
+
+    /** Upper bounds on counts read from a stream, checked before anything is allocated for them. */
+    private static final int MAX_PALETTE = 65536;
+    private static final int MAX_GROUP_OPTIONS = 4096;
+
+    private static final AirEntry AIR = new AirEntry();
+
+    private MbpFormat() {}
+
+    // ---- Writing ----
+
+    /** Encodes a structure to a byte array. */
+    public static byte[] toBytes(MultiblockStructure structure) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            write(structure, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // cannot happen for an in-memory stream
+        }
+        return out.toByteArray();
+    }
+
+    /** Writes a structure to a stream. The stream is not closed. */
+    public static void write(MultiblockStructure structure, OutputStream out) throws IOException {
+        StructureGrid grid = StructureGrid.of(structure);
+        Writer writer = new Writer(out);
+
+        out.write(MAGIC);
+        out.write(VERSION);
+        writer.varint(grid.sizeX());
+        writer.varint(grid.sizeY());
+        writer.varint(grid.sizeZ());
+
+        // Palette without air; air is carried by the bitmap
+        List<BlockEntry> palette = grid.palette();
+        int[] codes = new int[palette.size()];
+        int written = 0;
+        boolean hasAir = false;
+        for (int i = 0; i < palette.size(); i++) {
+            if (palette.get(i) instanceof AirEntry) {
+                hasAir = true;
+            } else {
+                written++;
+                codes[i] = written;
+            }
+        }
+        writer.varint(written);
+        for (BlockEntry entry : palette) {
+            switch (entry) {
+                case AirEntry air -> {}
+                case SingleBlock single -> {
+                    out.write(TYPE_BLOCK);
+                    writer.string(BlockStateParser.serialize(single.state()));
+                }
+                case BlockGroup group -> {
+                    out.write(TYPE_GROUP);
+                    writer.string(group.label().getString());
+                    writer.varint(group.options().size());
+                    for (BlockState option : group.options()) {
+                        writer.string(BlockStateParser.serialize(option));
+                    }
+                }
+                case TagEntry tag -> {
+                    out.write(TYPE_TAG);
+                    writer.string(tag.label().getString());
+                    writer.string(tag.tag().location().toString());
+                    writer.string(BlockStateParser.serialize(tag.fallback()));
+                }
+            }
+        }
+        out.write(hasAir ? FLAG_AIR : 0);
+
+        // Block layers
+        int layerSize = grid.sizeX() * grid.sizeZ();
+        for (int y = 0; y < grid.sizeY(); y++) {
+            int start = y * layerSize;
+            int end = start + layerSize;
+            int i = start;
+            while (i < end) {
+                int value = code(grid, codes, i);
+                int run = 1;
+                while (i + run < end && code(grid, codes, i + run) == value) run++;
+                writer.varint(run);
+                writer.varint(value);
+                i += run;
+            }
+        }
+
+        // Air bitmap over cells with no block
+        if (hasAir) {
+            boolean current = false;
+            int run = 0;
+            for (int i = 0; i < grid.volume(); i++) {
+                int cell = grid.paletteIndexAt(i);
+                if (cell != StructureGrid.EMPTY && !(palette.get(cell) instanceof AirEntry)) continue;
+                boolean air = cell != StructureGrid.EMPTY;
+                if (air != current) {
+                    writer.varint(run);
+                    current = air;
+                    run = 0;
+                }
+                run++;
+            }
+            if (run > 0) writer.varint(run);
+        }
+    }
+
+    private static int code(StructureGrid grid, int[] codes, int index) {
+        int cell = grid.paletteIndexAt(index);
+        return cell == StructureGrid.EMPTY ? 0 : codes[cell];
+    }
+
+    // ---- Reading ----
+
+    /** Decodes a structure from a byte array. */
+    public static MultiblockStructure fromBytes(byte[] data) throws IOException {
+        return read(new ByteArrayInputStream(data));
+    }
+
+    /** Reads a structure from a stream. The returned structure is backed by a {@link StructureGrid}. */
+    public static MultiblockStructure read(InputStream in) throws IOException {
+        return readGrid(in).toStructure();
+    }
+
+    /** Reads only the dimensions from the header of a stream. */
+    public static BlockPos readSize(InputStream in) throws IOException {
+        Reader reader = readHeader(in);
+        return new BlockPos(reader.varint(), reader.varint(), reader.varint());
+    }
+
+    /**
+     * Reads the packed grid from a stream. Block states that no longer exist (e.g. from a
+     * removed mod) are dropped from the structure rather than failing the whole read.
+     */
+    public static StructureGrid readGrid(InputStream in) throws IOException {
+        return readGrid(in, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads the packed grid from a stream, rejecting structures whose bounding box holds more
+     * than {@code maxVolume} cells before anything is allocated. Use this for untrusted input.
+     */
+    public static StructureGrid readGrid(InputStream in, int maxVolume) throws IOException {
+        Reader reader = readHeader(in);
+        int sizeX = reader.varint();
+        int sizeY = reader.varint();
+        int sizeZ = reader.varint();
+        long volume = (long) sizeX * sizeY * sizeZ;
+        if (sizeX < 0 || sizeY < 0 || sizeZ < 0 || volume > maxVolume) {
+            throw new IOException("Structure too large: " + sizeX + "x" + sizeY + "x" + sizeZ);
+        }
+        StructureGrid.Builder builder = StructureGrid.builder(sizeX, sizeY, sizeZ);
+
+        // codes[n] = grid palette id for file value n (0 = no block)
+        int paletteSize = reader.varint();
+        if (paletteSize < 0 || paletteSize > Math.min(volume, MAX_PALETTE)) {
+            throw new IOException("Corrupt .mbp palette size " + paletteSize);
+        }
+        int[] codes = new int[paletteSize + 1];
+        codes[0] = StructureGrid.EMPTY;
+        for (int i = 1; i <= paletteSize; i++) {
+            BlockEntry entry = readEntry(reader);
+            codes[i] = entry == null ? StructureGrid.EMPTY : builder.paletteId(entry);
+        }
+        boolean hasAir = (reader.read() & FLAG_AIR) != 0;
+
+        // Cells written as "no block"; unknown states are dropped too but must not take air
+        BitSet open = new BitSet(builder.volume());
+        int layerSize = sizeX * sizeZ;
+        for (int y = 0; y < sizeY; y++) {
+            int i = y * layerSize;
+            int end = i + layerSize;
+            while (i < end) {
+                int run = reader.varint();
+                int value = reader.varint();
+                if (run <= 0 || run > end - i || value < 0 || value > paletteSize) throw new IOException("Corrupt .mbp layer " + y);
+                int id = codes[value];
+                if (value == 0) {
+                    open.set(i, i + run);
+                } else if (id != StructureGrid.EMPTY) {
+                    for (int j = 0; j < run; j++) builder.setIndex(i + j, id);
+                }
+                i += run;
+            }
+        }
+
+        if (hasAir) {
+            int airId = builder.paletteId(AIR);
+            boolean air = false;
+            int i = open.nextSetBit(0);
+            while (i >= 0) {
+                int run = reader.varint();
+                for (; run > 0 && i >= 0; run--, i = open.nextSetBit(i + 1)) {
+                    if (air) builder.setIndex(i, airId);
+                }
+                air = !air;
+            }
+        }
+        return builder.build();
+    }
+
+    private static Reader readHeader(InputStream in) throws IOException {
+        Reader reader = new Reader(in instanceof BufferedInputStream || in instanceof ByteArrayInputStream
+            ? in : new BufferedInputStream(in));
+        for (byte b : MAGIC) {
+            if (reader.read() != b) throw new IOException("Not an .mbp structure");
+        }
+        int version = reader.read();
+        if (version != VERSION) throw new IOException("Unsupported .mbp version " + version);
+        return reader;
+    }
+
+    @Nullable
+    private static BlockEntry readEntry(Reader reader) throws IOException {
+        int type = reader.read();
+        switch (type) {
+            case TYPE_BLOCK -> {
+                BlockState state = parseState(reader.string());
+                return state == null ? null : new SingleBlock(state);
+            }
+            case TYPE_GROUP -> {
+                Component label = Component.literal(reader.string());
+                int count = reader.varint();
+                if (count < 0 || count > MAX_GROUP_OPTIONS) throw new IOException("Corrupt .mbp group size " + count);
+                List<BlockState> options = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    BlockState state = parseState(reader.string());
+                    if (state != null) options.add(state);
+                }
+                return options.isEmpty() ? null : new BlockGroup(label, List.copyOf(options));
+            }
+            case TYPE_TAG -> {
+                Component label = Component.literal(reader.string());
+                ResourceLocation id = ResourceLocation.tryParse(reader.string());
+                BlockState fallback = parseState(reader.string());
+                return id == null || fallback == null ? null
+                    : new TagEntry(TagKey.create(Registries.BLOCK, id), label, fallback);
+            }
+            default -> throw new IOException("Unknown .mbp palette entry type " + type);
+        }
+    }
+
+    @Nullable
+    private static BlockState parseState(String text) {
+        try {
+            return BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), text, false).blockState();
+        } catch (CommandSyntaxException e) {
+            return null;
+        }
+    }
+
+    // ---- Varint streams ----
+
+    private static final class Writer {
+        private final OutputStream out;
+
+        Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        void varint(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.write(value);
+        }
+
+        void string(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static final class Reader {
+        private final InputStream in;
+
+        Reader(InputStream in) {
+            this.in = in;
+        }
+
+        int read() throws IOException {
+            int b = in.read();
+            if (b < 0) throw new EOFException();
+            return b;
+        }
+
+        int varint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = read();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Varint too long");
+        }
+
+        String string() throws IOException {
+            int length = varint();
+            if (length < 0 || length > 32767) throw new IOException("String too long: " + length);
+            return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
+    }
+}
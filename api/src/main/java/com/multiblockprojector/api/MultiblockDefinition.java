@@ -6,6 +6,7 @@ import net.minecraft.world.level.Level;
 
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Registry value type for multiblock definitions.
@@ -16,20 +17,48 @@ import java.util.List;
  * @param category     Category for organization
  * @param variants     Size variants; single-element list for fixed-size multiblocks
  * @param structureProvider  Lazy structure generator
+ * @param sizeRange    Sizes buildable besides the presets, or null if only the presets are
  */
 public record MultiblockDefinition(
     Component displayName,
     String modId,
     MultiblockCategory category,
     List<SizeVariant> variants,
-    StructureProvider structureProvider
+    StructureProvider structureProvider,
+    @Nullable SizeRange sizeRange
 ) {
+    public MultiblockDefinition(Component displayName, String modId, MultiblockCategory category,
+                                List<SizeVariant> variants, StructureProvider structureProvider) {
+        this(displayName, modId, category, variants, structureProvider, null);
+    }
+
     /**
      * A size variant for variable-size multiblocks.
+     * Dimensions are {@link BlockPos#ZERO} when the size is only known from the structure;
+     * see {@link #hasKnownSize()}. Such variants may carry a resolver that builds the structure
+     * once and remembers its size, so {@link #size()} still reports it.
+     *
+     * @param sizeResolver memoised size of the structure, or null; only used when the size is unknown
      */
-    public record SizeVariant(Component label, BlockPos dimensions, boolean isDefault) {
+    public record SizeVariant(Component label, BlockPos dimensions, boolean isDefault,
+                              @Nullable Supplier<BlockPos> sizeResolver) {
+        public SizeVariant(Component label, BlockPos dimensions, boolean isDefault) {
+            this(label, dimensions, isDefault, null);
+        }
+
+        /** Whether the dimensions are declared, rather than left to the structure's bounds. */
+        public boolean hasKnownSize() {
+            return !dimensions.equals(BlockPos.ZERO);
+        }
+
+        /** The declared dimensions, or the structure's size when they are left to it and can be resolved. */
+        public BlockPos size() {
+            return hasKnownSize() || sizeResolver == null ? dimensions : sizeResolver.get();
+        }
+
         public String getSizeString() {
-            return dimensions.getX() + "x" + dimensions.getY() + "x" + dimensions.getZ();
+            BlockPos size = size();
+            return size.getX() + "x" + size.getY() + "x" + size.getZ();
         }
 
         public Component getFullDisplayName() {
@@ -63,6 +92,41 @@ public record MultiblockDefinition(
         return new MultiblockDefinition(name, modId, category, List.of(single), provider);
     }
 
+    /**
+     * Convenience factory for single-size multiblocks whose size is taken from the structure
+     * when it is first needed, so registering them does not require building it. The variant is
+     * labelled with the multiblock's name.
+     */
+    public static MultiblockDefinition fixed(
+        Component name, String modId, MultiblockCategory category, StructureProvider provider
+    ) {
+        var single = new SizeVariant(name, BlockPos.ZERO, true, new LazySize(provider, name));
+        return new MultiblockDefinition(name, modId, category, List.of(single), provider);
+    }
+
+    /** Builds a fixed structure once to learn its size. */
+    private static final class LazySize implements Supplier<BlockPos> {
+        private final StructureProvider provider;
+        private final Component name;
+        @Nullable
+        private volatile BlockPos size;
+
+        LazySize(StructureProvider provider, Component name) {
+            this.provider = provider;
+            this.name = name;
+        }
+
+        @Override
+        public BlockPos get() {
+            BlockPos resolved = size;
+            if (resolved == null) {
+                resolved = provider.create(new SizeVariant(name, BlockPos.ZERO, true), null).size();
+                size = resolved;
+            }
+            return resolved;
+        }
+    }
+
     /**
      * Returns the default size variant (first one marked as default, or the first variant).
      */
@@ -74,9 +138,21 @@ public record MultiblockDefinition(
     }
 
     /**
-     * Whether this definition has multiple size variants.
+     * Whether this definition has multiple size variants or a size range.
      */
     public boolean isVariableSize() {
-        return variants.size() > 1;
+        return variants.size() > 1 || sizeRange != null;
+    }
+
+    /**
+     * Returns the variant with the given dimensions: the matching preset if there is one,
+     * otherwise a variant from the size range. Null if neither allows the size.
+     */
+    @Nullable
+    public SizeVariant variantFor(BlockPos dimensions) {
+        for (SizeVariant variant : variants) {
+            if (variant.size().equals(dimensions)) return variant;
+        }
+        return sizeRange != null && sizeRange.contains(dimensions) ? sizeRange.variant(dimensions) : null;
     }
 }
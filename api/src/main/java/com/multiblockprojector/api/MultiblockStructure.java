@@ -17,6 +17,26 @@ public record MultiblockStructure(Map<BlockPos, BlockEntry> blocks, BlockPos siz
         this(Map.copyOf(blocks), computeBounds(blocks));
     }
 
+    /**
+     * Whether iterating {@link #blocks()} yields positions in layer order (Y ascending), as
+     * {@link StructureGrid} and {@link ProceduralStructure} views do.
+     */
+    public boolean isLayerOrdered() {
+        return blocks instanceof GridBlockMap || blocks instanceof ProceduralBlockMap;
+    }
+
+    /**
+     * Hash of the structure's content, for keying caches that should be shared by identical
+     * structures from different sources. Free for grid-backed structures and computed once for
+     * procedural ones; plain maps are packed on every call, so callers should keep the result.
+     */
+    public StructureFingerprint fingerprint() {
+        if (blocks instanceof ProceduralBlockMap procedural) {
+            return procedural.structure().fingerprint();
+        }
+        return StructureGrid.of(this).fingerprint();
+    }
+
     private static BlockPos computeBounds(Map<BlockPos, BlockEntry> blocks) {
         int maxX = 0, maxY = 0, maxZ = 0;
         for (BlockPos pos : blocks.keySet()) {
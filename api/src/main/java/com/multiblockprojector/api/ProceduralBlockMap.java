@@ -0,0 +1,106 @@
+package com.multiblockprojector.api;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only {@link Map} view over a {@link ProceduralStructure}.
+ * Lookups call the structure's function; iteration walks the bounds in
+ * layer order and evaluates each cell lazily.
+ */
+final class ProceduralBlockMap extends AbstractMap<BlockPos, BlockEntry> {
+
+    private final ProceduralStructure structure;
+    private Set<Map.Entry<BlockPos, BlockEntry>> entrySet;
+
+    ProceduralBlockMap(ProceduralStructure structure) {
+        this.structure = structure;
+    }
+
+    ProceduralStructure structure() {
+        return structure;
+    }
+
+    @Override
+    public int size() {
+        return structure.blockCount();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return !new CellIterator().hasNext();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public BlockEntry get(Object key) {
+        if (!(key instanceof BlockPos pos)) return null;
+        return structure.get(pos.getX(), pos.getY(), pos.getZ());
+    }
+
+    @Override
+    public Set<Map.Entry<BlockPos, BlockEntry>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<BlockPos, BlockEntry>> iterator() {
+                    return new CellIterator();
+                }
+
+                @Override
+                public int size() {
+                    return structure.blockCount();
+                }
+            };
+        }
+        return entrySet;
+    }
+
+    private final class CellIterator implements Iterator<Map.Entry<BlockPos, BlockEntry>> {
+        private int index = -1;
+        private BlockEntry nextEntry;
+
+        CellIterator() {
+            advance();
+        }
+
+        private void advance() {
+            int volume = structure.volume();
+            int sizeX = structure.sizeX();
+            int sizeZ = structure.sizeZ();
+            nextEntry = null;
+            while (nextEntry == null && ++index < volume) {
+                int x = index % sizeX;
+                int z = (index / sizeX) % sizeZ;
+                int y = index / (sizeX * sizeZ);
+                nextEntry = structure.get(x, y, z);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextEntry != null;
+        }
+
+        @Override
+        public Map.Entry<BlockPos, BlockEntry> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            int sizeX = structure.sizeX();
+            int sizeZ = structure.sizeZ();
+            Map.Entry<BlockPos, BlockEntry> entry = Map.entry(
+                new BlockPos(index % sizeX, index / (sizeX * sizeZ), (index / sizeX) % sizeZ), nextEntry);
+            advance();
+            return entry;
+        }
+    }
+}
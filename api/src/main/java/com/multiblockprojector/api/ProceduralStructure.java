@@ -0,0 +1,215 @@
+package com.multiblockprojector.api;
+
+import net.minecraft.core.BlockPos;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A block layout described by a function of the position instead of stored cells.
+ * <p>
+ * Suited to parametric shapes (shells, frames, filled boxes) whose entry at a position is
+ * cheap to compute: nothing is stored per cell, so memory does not grow with the volume.
+ * Layers can be hinted as uniformly filled so consumers skip the function for them.
+ * <p>
+ * A procedural structure is exposed as a {@link MultiblockStructure} via {@link #toStructure()};
+ * lookups call the function and iteration evaluates cells in layer order (Y, then Z, then X),
+ * the same order as {@link StructureGrid}. The function may be called from several threads at
+ * once and must be side-effect free.
+ */
+public final class ProceduralStructure {
+
+    /** Computes the entry at a position inside the bounds. */
+    @FunctionalInterface
+    public interface CellFunction {
+        /** The entry at the position, or null if the position is not part of the structure. */
+        @Nullable
+        BlockEntry at(int x, int y, int z);
+    }
+
+    /** Receives the cells of a layer; returning true stops the walk. */
+    @FunctionalInterface
+    public interface CellVisitor {
+        boolean visit(int x, int y, int z, BlockEntry entry);
+    }
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final CellFunction function;
+    /** Entry filling each whole layer, or null where the function decides. */
+    private final BlockEntry[] layerFills;
+    private volatile int blockCount = -1;
+    private volatile StructureFingerprint fingerprint;
+
+    private ProceduralStructure(int sizeX, int sizeY, int sizeZ, CellFunction function, BlockEntry[] layerFills) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.function = function;
+        this.layerFills = layerFills;
+    }
+
+    /** Creates a builder for a structure with the given bounds. */
+    public static Builder builder(int sizeX, int sizeY, int sizeZ, CellFunction function) {
+        return new Builder(sizeX, sizeY, sizeZ, function);
+    }
+
+    /**
+     * Returns the procedural structure behind the given structure, or null if its blocks are
+     * not computed by one.
+     */
+    @Nullable
+    public static ProceduralStructure of(MultiblockStructure structure) {
+        return structure.blocks() instanceof ProceduralBlockMap map ? map.structure() : null;
+    }
+
+    /** Wraps this structure. The block map is a read-only view that evaluates cells on access. */
+    public MultiblockStructure toStructure() {
+        return new MultiblockStructure(new ProceduralBlockMap(this), size());
+    }
+
+    public BlockPos size() {
+        return new BlockPos(sizeX, sizeY, sizeZ);
+    }
+
+    public int sizeX() {
+        return sizeX;
+    }
+
+    public int sizeY() {
+        return sizeY;
+    }
+
+    public int sizeZ() {
+        return sizeZ;
+    }
+
+    public int volume() {
+        return sizeX * sizeY * sizeZ;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < sizeX && y < sizeY && z < sizeZ;
+    }
+
+    /** The entry at a position, or null if the position is outside the bounds or empty. */
+    @Nullable
+    public BlockEntry get(int x, int y, int z) {
+        if (!contains(x, y, z)) return null;
+        BlockEntry fill = layerFills[y];
+        return fill != null ? fill : function.at(x, y, z);
+    }
+
+    /**
+     * Walks the cells of one layer in Z, then X order.
+     *
+     * @return true if the visitor stopped the walk
+     */
+    public boolean visitLayer(int y, CellVisitor visitor) {
+        if (y < 0 || y >= sizeY) return false;
+        BlockEntry fill = layerFills[y];
+        for (int z = 0; z < sizeZ; z++) {
+            for (int x = 0; x < sizeX; x++) {
+                BlockEntry entry = fill != null ? fill : function.at(x, y, z);
+                if (entry != null && visitor.visit(x, y, z, entry)) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Number of cells in one layer that are part of the structure. */
+    public int layerBlockCount(int y) {
+        if (y < 0 || y >= sizeY) return 0;
+        if (layerFills[y] != null) return sizeX * sizeZ;
+        int[] count = { 0 };
+        visitLayer(y, (x, ly, z, entry) -> {
+            count[0]++;
+            return false;
+        });
+        return count[0];
+    }
+
+    /** Number of cells that are part of the structure. Counted once, layers in parallel. */
+    public int blockCount() {
+        int count = blockCount;
+        if (count < 0) {
+            count = IntStream.range(0, sizeY).parallel().map(this::layerBlockCount).sum();
+            blockCount = count;
+        }
+        return count;
+    }
+
+    /** Content hash of the structure, equal to that of its {@link #toGrid() grid}. Computed once. */
+    public StructureFingerprint fingerprint() {
+        StructureFingerprint result = fingerprint;
+        if (result == null) {
+            result = toGrid().fingerprint();
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates every cell into a packed grid, for consumers that need random access to all of
+     * them at once. Layers are evaluated in parallel.
+     */
+    public StructureGrid toGrid() {
+        BlockEntry[][] layers = new BlockEntry[sizeY][];
+        IntStream.range(0, sizeY).parallel().forEach(y -> {
+            BlockEntry[] cells = new BlockEntry[sizeX * sizeZ];
+            visitLayer(y, (x, ly, z, entry) -> {
+                cells[z * sizeX + x] = entry;
+                return false;
+            });
+            layers[y] = cells;
+        });
+
+        StructureGrid.Builder builder = StructureGrid.builder(sizeX, sizeY, sizeZ);
+        for (int y = 0; y < sizeY; y++) {
+            BlockEntry[] cells = layers[y];
+            int base = builder.index(0, y, 0);
+            for (int i = 0; i < cells.length; i++) {
+                if (cells[i] != null) builder.setIndex(base + i, builder.paletteId(cells[i]));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Builds a {@link ProceduralStructure}. Layer fills are hints: a filled layer holds its entry
+     * in every cell and the function is not called for it.
+     */
+    public static final class Builder {
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        private final CellFunction function;
+        private final BlockEntry[] layerFills;
+
+        private Builder(int sizeX, int sizeY, int sizeZ, CellFunction function) {
+            if (sizeX < 0 || sizeY < 0 || sizeZ < 0) {
+                throw new IllegalArgumentException("Negative structure size: " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
+            if ((long) sizeX * sizeY * sizeZ > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Structure too large: " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.function = function;
+            this.layerFills = new BlockEntry[sizeY];
+        }
+
+        /** Marks the inclusive layer range as entirely filled with one entry, clamped to the bounds. */
+        public Builder fillLayers(int minY, int maxY, BlockEntry entry) {
+            Arrays.fill(layerFills, Math.max(0, minY), Math.max(Math.max(0, minY), Math.min(sizeY, maxY + 1)), entry);
+            return this;
+        }
+
+        public ProceduralStructure build() {
+            return new ProceduralStructure(sizeX, sizeY, sizeZ, function, layerFills.clone());
+        }
+    }
+}
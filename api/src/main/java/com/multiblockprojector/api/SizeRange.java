@@ -0,0 +1,105 @@
+package com.multiblockprojector.api;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+
+import javax.annotation.Nullable;
+
+/**
+ * The sizes a variable-size multiblock can be built at, described per axis instead of as a
+ * list of presets. Variants for sizes in the range are created on demand by {@link #variant}.
+ *
+ * @param x          allowed widths
+ * @param y          allowed heights
+ * @param z          allowed depths
+ * @param constraint extra rule across axes (e.g. width equals depth)
+ */
+public record SizeRange(Axis x, Axis y, Axis z, Constraint constraint) {
+
+    /**
+     * Allowed values along one axis: {@code min}, {@code min + step}, ... up to {@code max}.
+     */
+    public record Axis(int min, int max, int step) {
+        public Axis {
+            if (min < 1 || max < min || step < 1) {
+                throw new IllegalArgumentException("Invalid axis range " + min + ".." + max + " step " + step);
+            }
+        }
+
+        public static Axis of(int min, int max) {
+            return new Axis(min, max, 1);
+        }
+
+        public static Axis fixed(int value) {
+            return new Axis(value, value, 1);
+        }
+
+        public boolean accepts(int value) {
+            return value >= min && value <= max && (value - min) % step == 0;
+        }
+    }
+
+    /**
+     * A rule the dimensions must satisfy besides each axis accepting its value.
+     */
+    @FunctionalInterface
+    public interface Constraint {
+        Constraint NONE = (x, y, z) -> true;
+
+        boolean test(int x, int y, int z);
+    }
+
+    public static SizeRange of(Axis x, Axis y, Axis z) {
+        return new SizeRange(x, y, z, Constraint.NONE);
+    }
+
+    public SizeRange withConstraint(Constraint constraint) {
+        return new SizeRange(x, y, z, constraint);
+    }
+
+    /**
+     * Whether a multiblock can be built with these dimensions.
+     */
+    public boolean contains(BlockPos size) {
+        return x.accepts(size.getX()) && y.accepts(size.getY()) && z.accepts(size.getZ())
+            && constraint.test(size.getX(), size.getY(), size.getZ());
+    }
+
+    /**
+     * A variant for dimensions in this range, labelled with its size.
+     */
+    public MultiblockDefinition.SizeVariant variant(BlockPos size) {
+        if (!contains(size)) {
+            throw new IllegalArgumentException("Size " + size.toShortString() + " is outside " + this);
+        }
+        return new MultiblockDefinition.SizeVariant(
+            Component.literal(size.getX() + "x" + size.getY() + "x" + size.getZ()), size, false);
+    }
+
+    /**
+     * The nearest valid size reached by stepping the selected axes in one direction, or null if
+     * there is none. Selected axes that reach their limit stay there while the others keep going.
+     *
+     * @param direction 1 to grow, -1 to shrink
+     */
+    @Nullable
+    public BlockPos step(BlockPos from, boolean stepX, boolean stepY, boolean stepZ, int direction) {
+        int cx = from.getX(), cy = from.getY(), cz = from.getZ();
+        while (true) {
+            int nx = stepX ? next(x, cx, direction) : cx;
+            int ny = stepY ? next(y, cy, direction) : cy;
+            int nz = stepZ ? next(z, cz, direction) : cz;
+            if (nx == cx && ny == cy && nz == cz) return null;
+            cx = nx;
+            cy = ny;
+            cz = nz;
+            BlockPos candidate = new BlockPos(cx, cy, cz);
+            if (contains(candidate)) return candidate;
+        }
+    }
+
+    private static int next(Axis axis, int value, int direction) {
+        int stepped = value + direction * axis.step();
+        return stepped < axis.min() || stepped > axis.max() ? value : stepped;
+    }
+}
@@ -0,0 +1,173 @@
+package com.multiblockprojector.api;
+
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.contents.PlainTextContents;
+import net.minecraft.network.chat.contents.TranslatableContents;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * A 128-bit hash of a structure's content: its size and the entry of every cell, described by
+ * block states, labels and tag ids rather than object identity. Labels are hashed by translation
+ * key and literal text, so the fingerprint does not depend on the client's language.
+ * <p>
+ * Structures with the same fingerprint show, require and build the same blocks wherever they
+ * came from (a file in two schematic folders, a repeated size variant, another projection of
+ * the same definition), so caches of meshes, thumbnails, material lists and uploads can key on
+ * it and share entries. The hash does not depend on palette order and is stable across
+ * sessions; it is not cryptographic.
+ *
+ * @param high upper 64 bits
+ * @param low  lower 64 bits
+ */
+public record StructureFingerprint(long high, long low) {
+
+    /** Stands for a cell that is not part of the structure. */
+    private static final long EMPTY_CELL = 0x6A09E667F3BCC908L;
+
+    /** Parses the 32 hex digits produced by {@link #toString()}. */
+    public static StructureFingerprint parse(String hex) {
+        if (hex.length() != 32) throw new IllegalArgumentException("Not a structure fingerprint: " + hex);
+        return new StructureFingerprint(Long.parseUnsignedLong(hex, 0, 16, 16), Long.parseUnsignedLong(hex, 16, 32, 16));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+
+    /**
+     * Fingerprints packed cells. Cells are hashed as runs of equal content, so uniform shells
+     * cost little more than their run count.
+     */
+    static StructureFingerprint of(int sizeX, int sizeY, int sizeZ, List<BlockEntry> palette, int[] cells) {
+        long[] entryHashes = new long[palette.size()];
+        for (int i = 0; i < entryHashes.length; i++) {
+            entryHashes[i] = entryHash(palette.get(i));
+        }
+
+        Hasher hasher = new Hasher();
+        hasher.put(sizeX);
+        hasher.put(sizeY);
+        hasher.put(sizeZ);
+        int i = 0;
+        while (i < cells.length) {
+            long value = cells[i] == StructureGrid.EMPTY ? EMPTY_CELL : entryHashes[cells[i]];
+            int run = 1;
+            while (i + run < cells.length
+                    && (cells[i + run] == StructureGrid.EMPTY ? EMPTY_CELL : entryHashes[cells[i + run]]) == value) {
+                run++;
+            }
+            hasher.put(value);
+            hasher.put(run);
+            i += run;
+        }
+        return hasher.finish();
+    }
+
+    /** A 64-bit hash of what an entry requires and shows. */
+    private static long entryHash(BlockEntry entry) {
+        Hasher hasher = new Hasher();
+        switch (entry) {
+            case AirEntry air -> hasher.put("air");
+            case SingleBlock single -> {
+                hasher.put("block");
+                hasher.put(BlockStateParser.serialize(single.state()));
+            }
+            case BlockGroup group -> {
+                hasher.put("group");
+                putLabel(hasher, group.label());
+                hasher.put(group.options().size());
+                for (BlockState option : group.options()) {
+                    hasher.put(BlockStateParser.serialize(option));
+                }
+            }
+            case TagEntry tag -> {
+                hasher.put("tag");
+                putLabel(hasher, tag.label());
+                hasher.put(tag.tag().location().toString());
+                hasher.put(BlockStateParser.serialize(tag.fallback()));
+            }
+        }
+        StructureFingerprint hash = hasher.finish();
+        return hash.high() ^ hash.low();
+    }
+
+    /** Hashes a label by its untranslated contents: translation keys and arguments, literal text and siblings. */
+    private static void putLabel(Hasher hasher, Component label) {
+        switch (label.getContents()) {
+            case TranslatableContents translatable -> {
+                hasher.put(translatable.getKey());
+                Object[] args = translatable.getArgs();
+                hasher.put(args.length);
+                for (Object arg : args) {
+                    if (arg instanceof Component component) {
+                        putLabel(hasher, component);
+                    } else {
+                        hasher.put(String.valueOf(arg));
+                    }
+                }
+            }
+            case PlainTextContents plain -> hasher.put(plain.text());
+            default -> hasher.put(label.getContents().toString());
+        }
+        hasher.put(label.getSiblings().size());
+        for (Component sibling : label.getSiblings()) {
+            putLabel(hasher, sibling);
+        }
+    }
+
+    // ---- Hashing ----
+
+    /** Two 64-bit lanes fed with MurmurHash3-style mixing. */
+    private static final class Hasher {
+        private long h1 = 0x9E3779B97F4A7C15L;
+        private long h2 = 0xC2B2AE3D27D4EB4FL;
+        private long length;
+
+        void put(long value) {
+            long k = mix(value);
+            h1 = Long.rotateLeft(h1 ^ k, 27) * 0x87C37B91114253D5L + h2;
+            h2 = Long.rotateLeft(h2 ^ mix(k + 0x4CF5AD432745937FL), 31) * 0x4CF5AD432745937FL + h1;
+            length++;
+        }
+
+        void put(String text) {
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            put(bytes.length);
+            long word = 0;
+            for (int i = 0; i < bytes.length; i++) {
+                word = word << 8 | (bytes[i] & 0xFF);
+                if ((i & 7) == 7) {
+                    put(word);
+                    word = 0;
+                }
+            }
+            if ((bytes.length & 7) != 0) put(word);
+        }
+
+        StructureFingerprint finish() {
+            long a = h1 ^ length;
+            long b = h2 ^ length;
+            a += b;
+            b += a;
+            a = mix(a);
+            b = mix(b);
+            a += b;
+            b += a;
+            return new StructureFingerprint(a, b);
+        }
+
+        private static long mix(long k) {
+            k ^= k >>> 33;
+            k *= 0xFF51AFD7ED558CCDL;
+            k ^= k >>> 33;
+            k *= 0xC4CEB9FE1A85EC53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.multiblockprojector.api;
+
+import net.minecraft.core.BlockPos;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A dense, palette-indexed block layout.
+ * <p>
+ * Cells are stored as palette indices in layer order (Y, then Z, then X), which is
+ * the same order Sponge schematics, Litematica regions and the projector's build
+ * animation use. Cells that are not part of the structure hold {@link #EMPTY}.
+ * <p>
+ * A grid can be exposed as a {@link MultiblockStructure} via {@link #toStructure()}
+ * without allocating a position/entry pair per cell; lookups and iteration are
+ * served directly from the packed array.
+ * <p>
+ * Block counts are taken when the grid is built; its {@link StructureFingerprint} is computed
+ * on first request and cached.
+ */
+public final class StructureGrid {
+
+    /** Palette index for cells that are not part of the structure. */
+    public static final int EMPTY = -1;
+
+    private final int sizeX;
+    private final int sizeY;
+    private final int sizeZ;
+    private final List<BlockEntry> palette;
+    private final int[] cells;
+    private final int blockCount;
+    private final int nonAirCount;
+    private volatile StructureFingerprint fingerprint;
+
+    private StructureGrid(int sizeX, int sizeY, int sizeZ, List<BlockEntry> palette, int[] cells) {
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.palette = palette;
+        this.cells = cells;
+
+        int blocks = 0, nonAir = 0;
+        for (int cell : cells) {
+            if (cell == EMPTY) continue;
+            blocks++;
+            if (!(palette.get(cell) instanceof AirEntry)) nonAir++;
+        }
+        this.blockCount = blocks;
+        this.nonAirCount = nonAir;
+    }
+
+    /** Creates a builder for a grid of the given dimensions. */
+    public static Builder builder(int sizeX, int sizeY, int sizeZ) {
+        return new Builder(sizeX, sizeY, sizeZ);
+    }
+
+    /**
+     * Returns the grid backing the given structure, packing it first if the structure
+     * was built from a plain map or is procedural.
+     */
+    public static StructureGrid of(MultiblockStructure structure) {
+        if (structure.blocks() instanceof GridBlockMap gridMap) {
+            return gridMap.grid();
+        }
+        if (structure.blocks() instanceof ProceduralBlockMap proceduralMap) {
+            return proceduralMap.structure().toGrid();
+        }
+        BlockPos size = structure.size();
+        Builder builder = builder(size.getX(), size.getY(), size.getZ());
+        structure.blocks().forEach((pos, entry) -> builder.set(pos.getX(), pos.getY(), pos.getZ(), entry));
+        return builder.build();
+    }
+
+    /** Wraps this grid as a structure. The block map is a read-only view over the packed cells. */
+    public MultiblockStructure toStructure() {
+        return new MultiblockStructure(new GridBlockMap(this), size());
+    }
+
+    public BlockPos size() {
+        return new BlockPos(sizeX, sizeY, sizeZ);
+    }
+
+    public int sizeX() {
+        return sizeX;
+    }
+
+    public int sizeY() {
+        return sizeY;
+    }
+
+    public int sizeZ() {
+        return sizeZ;
+    }
+
+    /** Total number of cells in the bounding box, including empty ones. */
+    public int volume() {
+        return cells.length;
+    }
+
+    /** Number of cells that are part of the structure (air entries included). */
+    public int blockCount() {
+        return blockCount;
+    }
+
+    /** Number of cells holding something other than an {@link AirEntry}. */
+    public int nonAirCount() {
+        return nonAirCount;
+    }
+
+    /** Hash of the grid's content, equal for grids holding the same entries in the same cells. Computed once. */
+    public StructureFingerprint fingerprint() {
+        StructureFingerprint result = fingerprint;
+        if (result == null) {
+            result = StructureFingerprint.of(sizeX, sizeY, sizeZ, palette, cells);
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    /** The distinct entries referenced by this grid, in first-use order. */
+    public List<BlockEntry> palette() {
+        return palette;
+    }
+
+    public boolean contains(int x, int y, int z) {
+        return x >= 0 && y >= 0 && z >= 0 && x < sizeX && y < sizeY && z < sizeZ;
+    }
+
+    /** Linear cell index for a position. The position must be inside the grid. */
+    public int index(int x, int y, int z) {
+        return (y * sizeZ + z) * sizeX + x;
+    }
+
+    /** Palette index stored at a linear cell index, or {@link #EMPTY}. */
+    public int paletteIndexAt(int index) {
+        return cells[index];
+    }
+
+    /** The entry at a position, or null if the position is outside the grid or empty. */
+    @Nullable
+    public BlockEntry get(int x, int y, int z) {
+        if (!contains(x, y, z)) return null;
+        int cell = cells[index(x, y, z)];
+        return cell == EMPTY ? null : palette.get(cell);
+    }
+
+    /**
+     * Builds a {@link StructureGrid}. Entries are deduplicated into the palette on insertion,
+     * so callers that decode palette-indexed formats should register each palette entry once via
+     * {@link #paletteId(BlockEntry)} and then write raw indices with {@link #setIndex(int, int)}.
+     */
+    public static final class Builder {
+        private final int sizeX;
+        private final int sizeY;
+        private final int sizeZ;
+        /** Handed to the grid by {@link #build()}, after which the builder is unusable. */
+        @Nullable
+        private int[] cells;
+        private final List<BlockEntry> palette = new ArrayList<>();
+        private final Map<BlockEntry, Integer> paletteIds = new HashMap<>();
+
+        private Builder(int sizeX, int sizeY, int sizeZ) {
+            if (sizeX < 0 || sizeY < 0 || sizeZ < 0) {
+                throw new IllegalArgumentException("Negative grid size: " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
+            long volume = (long) sizeX * sizeY * sizeZ;
+            if (volume > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Grid too large: " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.cells = new int[(int) volume];
+            Arrays.fill(cells, EMPTY);
+        }
+
+        /** Returns the palette index for an entry, adding it to the palette if needed. */
+        public int paletteId(BlockEntry entry) {
+            Integer id = paletteIds.get(entry);
+            if (id == null) {
+                id = palette.size();
+                palette.add(entry);
+                paletteIds.put(entry, id);
+            }
+            return id;
+        }
+
+        public int volume() {
+            return cells().length;
+        }
+
+        /** Linear cell index for a position, in the same order as {@link StructureGrid#index}. */
+        public int index(int x, int y, int z) {
+            return (y * sizeZ + z) * sizeX + x;
+        }
+
+        /** Sets a position to the given entry. Positions outside the grid are ignored. */
+        public Builder set(int x, int y, int z, BlockEntry entry) {
+            if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) return this;
+            cells()[(y * sizeZ + z) * sizeX + x] = paletteId(entry);
+            return this;
+        }
+
+        /** Marks a position as not part of the structure. */
+        public Builder clear(int x, int y, int z) {
+            if (x < 0 || y < 0 || z < 0 || x >= sizeX || y >= sizeY || z >= sizeZ) return this;
+            cells()[(y * sizeZ + z) * sizeX + x] = EMPTY;
+            return this;
+        }
+
+        /**
+         * Writes a raw palette index at a linear cell index (see {@link StructureGrid#index}).
+         * The index must come from {@link #paletteId(BlockEntry)} or be {@link #EMPTY}.
+         */
+        public Builder setIndex(int cellIndex, int paletteIndex) {
+            cells()[cellIndex] = paletteIndex;
+            return this;
+        }
+
+        /** Fills the inclusive box between the two corners, clamped to the grid. */
+        public Builder fill(int minX, int minY, int minZ, int maxX, int maxY, int maxZ, BlockEntry entry) {
+            int[] cells = cells();
+            int id = paletteId(entry);
+            int x0 = Math.max(0, minX), x1 = Math.min(sizeX - 1, maxX);
+            int z0 = Math.max(0, minZ), z1 = Math.min(sizeZ - 1, maxZ);
+            int y0 = Math.max(0, minY), y1 = Math.min(sizeY - 1, maxY);
+            if (x0 > x1) return this;
+            for (int y = y0; y <= y1; y++) {
+                for (int z = z0; z <= z1; z++) {
+                    int row = (y * sizeZ + z) * sizeX;
+                    Arrays.fill(cells, row + x0, row + x1 + 1, id);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * Creates the grid. The cell array is handed over rather than copied, so the builder
+         * cannot be used afterwards.
+         *
+         * @throws IllegalStateException if the grid was already built
+         */
+        public StructureGrid build() {
+            int[] built = cells();
+            cells = null;
+            return new StructureGrid(sizeX, sizeY, sizeZ,
+                Collections.unmodifiableList(new ArrayList<>(palette)), built);
+        }
+
+        private int[] cells() {
+            int[] current = cells;
+            if (current == null) throw new IllegalStateException("Grid already built");
+            return current;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.multiblockprojector.api;
+
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceSets;
+import net.minecraft.core.Holder;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A block entry that accepts any block in a block tag, e.g. {@code #minecraft:beacon_base_blocks}.
+ * Cycles through the tag's blocks in the preview renderer.
+ * <p>
+ * The tag is resolved on first use into a block set and a display list, which are kept until
+ * tags are reloaded; the mod calls {@link #invalidateAll()} when that happens. Blocks added to
+ * the tag by datapacks are therefore accepted without code changes.
+ * <p>
+ * Tags are only bound once a world's data is loaded or synced. Until then, and if the tag is
+ * missing or empty, the entry stands for its fallback block alone.
+ */
+public final class TagEntry implements BlockEntry {
+
+    /** Bumped on every tag reload; resolutions from an older generation are stale. */
+    private static volatile int generation;
+
+    private final TagKey<Block> tag;
+    private final Component label;
+    private final BlockState fallback;
+    private volatile Resolved resolved;
+
+    /** The blocks of the tag as of one tag generation. */
+    private record Resolved(int generation, Set<Block> blocks, List<BlockState> displayStates) {}
+
+    public TagEntry(TagKey<Block> tag, Component label, BlockState fallback) {
+        this.tag = tag;
+        this.label = label;
+        this.fallback = fallback;
+    }
+
+    /** Creates an entry labelled with the tag id. */
+    public static TagEntry of(TagKey<Block> tag, BlockState fallback) {
+        return new TagEntry(tag, Component.literal("#" + tag.location()), fallback);
+    }
+
+    /**
+     * Drops the resolved blocks of every tag entry. Called when block tags are reloaded or
+     * synced; entries resolve again on next use.
+     */
+    public static void invalidateAll() {
+        generation++;
+    }
+
+    public TagKey<Block> tag() {
+        return tag;
+    }
+
+    public Component label() {
+        return label;
+    }
+
+    /** The block shown and accepted while the tag has no blocks. */
+    public BlockState fallback() {
+        return fallback;
+    }
+
+    /** The blocks currently in the tag. */
+    public Set<Block> blocks() {
+        return resolve().blocks();
+    }
+
+    /** Default states of the blocks currently in the tag, in tag order. */
+    public List<BlockState> options() {
+        return resolve().displayStates();
+    }
+
+    @Override
+    public BlockState displayState(long tick) {
+        List<BlockState> states = resolve().displayStates();
+        return states.get((int) ((tick / 20) % states.size()));
+    }
+
+    @Override
+    public boolean matches(BlockState placed) {
+        return resolve().blocks().contains(placed.getBlock());
+    }
+
+    private Resolved resolve() {
+        int current = generation;
+        Resolved cached = resolved;
+        if (cached != null && cached.generation() == current) return cached;
+
+        ReferenceOpenHashSet<Block> blocks = new ReferenceOpenHashSet<>();
+        List<BlockState> states = new ArrayList<>();
+        BuiltInRegistries.BLOCK.getTag(tag).ifPresent(holders -> {
+            for (Holder<Block> holder : holders) {
+                if (blocks.add(holder.value())) {
+                    states.add(holder.value().defaultBlockState());
+                }
+            }
+        });
+        if (blocks.isEmpty()) {
+            blocks.add(fallback.getBlock());
+            states.add(fallback);
+        }
+        cached = new Resolved(current, ReferenceSets.unmodifiable(blocks), List.copyOf(states));
+        resolved = cached;
+        return cached;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj instanceof TagEntry other && tag.equals(other.tag) && label.equals(other.label)
+            && fallback == other.fallback;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * tag.hashCode() + label.hashCode()) + fallback.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TagEntry[tag=" + tag.location() + ", label=" + label + ", fallback=" + fallback + "]";
+    }
+}
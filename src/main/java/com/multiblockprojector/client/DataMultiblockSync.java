@@ -0,0 +1,78 @@
+package com.multiblockprojector.client;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.MbpFormat;
+import com.multiblockprojector.api.MultiblockCategory;
+import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.common.network.MessageDataMultiblocks;
+import com.multiblockprojector.common.registry.MultiblockCatalog;
+import com.multiblockprojector.common.schematic.SchematicPayload;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client copy of the server's data-driven multiblocks, published to the {@link MultiblockCatalog}
+ * so they can be browsed and projected on a dedicated server.
+ * <p>
+ * On an integrated server the catalog is shared with the server, which already published the
+ * definitions, so batches are ignored. Otherwise structures are decoded on a background thread;
+ * batches and logouts are applied in arrival order.
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID, value = Dist.CLIENT)
+public final class DataMultiblockSync {
+
+    /** Only touched by tasks on {@link #pending}, which run one after another. */
+    private static final Map<ResourceLocation, MultiblockDefinition> DEFINITIONS = new HashMap<>();
+    private static CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+    private DataMultiblockSync() {}
+
+    public static void onBatch(boolean replace, List<MessageDataMultiblocks.Entry> entries) {
+        if (Minecraft.getInstance().isLocalServer()) return;
+        pending = pending.thenRunAsync(() -> {
+            if (replace) DEFINITIONS.clear();
+            for (MessageDataMultiblocks.Entry entry : entries) {
+                MultiblockDefinition definition = decode(entry);
+                if (definition != null) DEFINITIONS.put(entry.id(), definition);
+            }
+            MultiblockCatalog.publishData(Map.copyOf(DEFINITIONS));
+        }, Util.backgroundExecutor());
+    }
+
+    @Nullable
+    private static MultiblockDefinition decode(MessageDataMultiblocks.Entry entry) {
+        try {
+            MultiblockStructure structure = MbpFormat.readGrid(
+                new ByteArrayInputStream(entry.structure()), SchematicPayload.MAX_VOLUME).toStructure();
+            return MultiblockDefinition.fixed(entry.name(), entry.modId(),
+                new MultiblockCategory(entry.categoryId(), entry.categoryName()), structure.size(),
+                (variant, level) -> structure);
+        } catch (IOException | RuntimeException e) {
+            UniversalProjector.LOGGER.warn("Discarding synced multiblock {}: {}", entry.id(), e.getMessage());
+            return null;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLogout(ClientPlayerNetworkEvent.LoggingOut event) {
+        if (Minecraft.getInstance().isLocalServer()) return;
+        pending = pending.thenRunAsync(() -> {
+            DEFINITIONS.clear();
+            MultiblockCatalog.publishData(Map.of());
+        }, Util.backgroundExecutor());
+    }
+}
@@ -2,6 +2,7 @@ package com.multiblockprojector.client;
 
 import com.multiblockprojector.UniversalProjector;
 import com.multiblockprojector.client.BlockValidationManager;
+import com.multiblockprojector.client.schematic.RegionCapture;
 import com.multiblockprojector.common.items.AbstractProjectorItem;
 import com.multiblockprojector.common.items.BatteryFabricatorItem;
 import com.multiblockprojector.common.items.CreativeProjectorItem;
@@ -97,7 +98,15 @@ public class ProjectorClientHandler {
 
         Settings settings = AbstractProjectorItem.getSettings(held);
 
-        if (settings.getMode() == Settings.Mode.PROJECTION && settings.getMultiblock() != null) {
+        if (settings.getMode() == Settings.Mode.NOTHING_SELECTED) {
+            // Sneak + left click on a block → mark a capture corner
+            if (event.getAction() == 1 && event.getButton() == 0 && player.isShiftKeyDown()
+                && mc.hitResult instanceof BlockHitResult hit && hit.getType() == HitResult.Type.BLOCK) {
+                RegionCapture.markCorner(hit.getBlockPos());
+                player.swing(InteractionHand.MAIN_HAND, true);
+                event.setCanceled(true);
+            }
+        } else if (settings.getMode() == Settings.Mode.PROJECTION && settings.getMultiblock() != null) {
             if (event.getAction() == 1) { // Mouse button press
                 if (event.getButton() == 0) { // Left click → rotate
                     if (lastAimPos != null) {
@@ -0,0 +1,72 @@
+package com.multiblockprojector.client;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.common.network.MessageStockRequest;
+import com.multiblockprojector.common.network.MessageStockSnapshot;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.level.block.Block;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Client copy of the server's stock snapshot: per-block counts of the player's inventory plus
+ * the linked chest, kept current by applying the deltas the server sends.
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID, value = Dist.CLIENT)
+public final class StockTracker {
+
+    private static final Map<Block, Integer> STOCK = new HashMap<>();
+    private static boolean received;
+    private static int version;
+
+    private StockTracker() {}
+
+    /**
+     * Asks the server for a snapshot.
+     *
+     * @param full whether to ask for every count rather than the changes
+     */
+    public static void request(InteractionHand hand, boolean full) {
+        MessageStockRequest.sendToServer(hand, full);
+    }
+
+    /** The counts from the server, or null if no snapshot has arrived this session. */
+    @Nullable
+    public static Map<Block, Integer> available() {
+        return received ? Collections.unmodifiableMap(STOCK) : null;
+    }
+
+    /** Changes whenever a snapshot is applied. */
+    public static int version() {
+        return version;
+    }
+
+    public static void onSnapshot(boolean full, List<MessageStockSnapshot.Entry> entries) {
+        if (full) STOCK.clear();
+        for (MessageStockSnapshot.Entry entry : entries) {
+            Block block = BuiltInRegistries.BLOCK.byId(entry.blockId());
+            if (entry.count() <= 0) {
+                STOCK.remove(block);
+            } else {
+                STOCK.put(block, entry.count());
+            }
+        }
+        received |= full;
+        version++;
+    }
+
+    @SubscribeEvent
+    public static void onLogout(ClientPlayerNetworkEvent.LoggingOut event) {
+        STOCK.clear();
+        received = false;
+    }
+}
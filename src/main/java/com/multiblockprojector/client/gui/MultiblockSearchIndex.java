@@ -0,0 +1,385 @@
+package com.multiblockprojector.client.gui;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.AirEntry;
+import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.api.BlockGroup;
+import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.api.SingleBlock;
+import com.multiblockprojector.api.TagEntry;
+import com.multiblockprojector.client.schematic.SchematicEntry;
+import com.multiblockprojector.client.schematic.SchematicIndex;
+import com.multiblockprojector.common.registry.MultiblockCatalog;
+import com.multiblockprojector.common.registry.MultiblockIndex;
+import com.multiblockprojector.common.registry.MultiblockMetadata;
+import com.multiblockprojector.common.registry.MultiblockMetadata.VariantMetadata;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Search index over every multiblock and schematic definition shown in the projector GUI.
+ * <p>
+ * Display names, mod ids and categories are folded into one lower-case text per definition
+ * and indexed by every 1-, 2- and 3-character gram, so a query term is narrowed to a handful of
+ * candidates by intersecting posting lists before any string comparison. Tabs are bit sets over
+ * the same name-ordered entries, so "All" needs no merged list.
+ * <p>
+ * A query is whitespace-separated terms, all of which must match:
+ * <ul>
+ *   <li>plain text: substring of the name, mod id or category</li>
+ *   <li>{@code block:<text>}: contains a block whose id contains the text</li>
+ *   <li>{@code w}, {@code h}, {@code d} or {@code size} (largest side) compared with
+ *       {@code < <= = >= >} to a number, e.g. {@code h<=10}; a variable-size definition matches
+ *       if one of its variants satisfies every size term</li>
+ *   <li>{@code blocks} compared the same way to the number of non-air blocks, e.g.
+ *       {@code blocks<500}; only definitions with precomputed {@link MultiblockMetadata} match</li>
+ * </ul>
+ * Size terms use the variant dimensions. Block contents are collected once per definition on a
+ * background thread and shared across index rebuilds, so queries never call a structure provider.
+ */
+public final class MultiblockSearchIndex {
+
+    private static final int MAX_GRAM = 3;
+    private static final Pattern SIZE_TERM = Pattern.compile("(size|blocks|w|h|d)(<=|>=|<|>|=)(\\d+)");
+    private static final String BLOCK_PREFIX = "block:";
+
+    private static MultiblockSearchIndex INSTANCE;
+    private static MultiblockCatalog indexedCatalog;
+
+    /** Block ids per content key (registry id, or schematic file and stamp); filled in the background. */
+    private static final Map<String, Set<String>> CONTENTS = new ConcurrentHashMap<>();
+    private static volatile int contentVersion;
+
+    private final List<MultiblockDefinition> entries;
+    private final String[] texts;
+    private final String[] contentKeys;
+    /** Dimensions of every variant, per entry. */
+    private final BlockPos[][] dimensions;
+    private final Map<String, int[]> grams;
+    private final Map<String, BitSet> byTab;
+    private final BitSet all;
+
+    /** Block id to entries containing it, rebuilt when {@link #contentVersion} moves. */
+    private Map<String, BitSet> byBlock = Map.of();
+    private int byBlockVersion = -1;
+
+    private MultiblockSearchIndex(List<MultiblockDefinition> entries, String[] texts, String[] contentKeys,
+                                  BlockPos[][] dimensions, Map<String, int[]> grams, Map<String, BitSet> byTab) {
+        this.entries = entries;
+        this.texts = texts;
+        this.contentKeys = contentKeys;
+        this.dimensions = dimensions;
+        this.grams = grams;
+        this.byTab = byTab;
+        this.all = new BitSet(entries.size());
+        this.all.set(0, entries.size());
+    }
+
+    /**
+     * Returns the index for the current {@link MultiblockCatalog} snapshot, rebuilding it when a
+     * new snapshot was published, and starts collecting block contents for new definitions.
+     */
+    public static MultiblockSearchIndex get() {
+        MultiblockCatalog catalog = MultiblockCatalog.get();
+        if (INSTANCE == null || indexedCatalog != catalog) {
+            INSTANCE = build(catalog);
+            indexedCatalog = catalog;
+            INSTANCE.indexContentsInBackground();
+        }
+        return INSTANCE;
+    }
+
+    /** Changes whenever more block contents become available; block filters should be re-run. */
+    public static int contentVersion() {
+        return contentVersion;
+    }
+
+    /** Whether a query uses a term that depends on block contents. */
+    public static boolean usesContents(String query) {
+        return query.toLowerCase(Locale.ROOT).contains(BLOCK_PREFIX);
+    }
+
+    // ---- Querying ----
+
+    /** Definitions of a tab (or {@link MultiblockIndex#ALL_TAB}) matching a query, in name order. */
+    public List<MultiblockDefinition> search(String tabId, String query) {
+        BitSet result = (BitSet) (MultiblockIndex.ALL_TAB.equals(tabId) ? all : byTab.getOrDefault(tabId, new BitSet())).clone();
+
+        List<int[]> sizeTerms = new ArrayList<>();
+        for (String term : query.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            if (result.isEmpty()) break;
+            if (term.isEmpty()) continue;
+
+            Matcher size = SIZE_TERM.matcher(term);
+            if (size.matches()) {
+                sizeTerms.add(new int[] { axis(size.group(1)), operator(size.group(2)), parse(size.group(3)) });
+            } else if (term.startsWith(BLOCK_PREFIX)) {
+                result.and(blockMatches(term.substring(BLOCK_PREFIX.length())));
+            } else {
+                result.and(textMatches(term));
+            }
+        }
+        if (!sizeTerms.isEmpty()) {
+            for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+                if (!anyVariantFits(i, sizeTerms)) result.clear(i);
+            }
+        }
+
+        List<MultiblockDefinition> matches = new ArrayList<>(result.cardinality());
+        for (int i = result.nextSetBit(0); i >= 0; i = result.nextSetBit(i + 1)) {
+            matches.add(entries.get(i));
+        }
+        return matches;
+    }
+
+    private BitSet textMatches(String term) {
+        BitSet candidates = null;
+        if (term.length() <= MAX_GRAM) {
+            candidates = postings(term);
+        } else {
+            for (int i = 0; i + MAX_GRAM <= term.length(); i++) {
+                BitSet gram = postings(term.substring(i, i + MAX_GRAM));
+                if (candidates == null) candidates = gram;
+                else candidates.and(gram);
+                if (candidates.isEmpty()) return candidates;
+            }
+        }
+        // Grams can all occur without the whole term occurring
+        if (term.length() > MAX_GRAM) {
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (!texts[i].contains(term)) candidates.clear(i);
+            }
+        }
+        return candidates;
+    }
+
+    private BitSet postings(String gram) {
+        BitSet bits = new BitSet(entries.size());
+        int[] list = grams.get(gram);
+        if (list != null) {
+            for (int entry : list) bits.set(entry);
+        }
+        return bits;
+    }
+
+    private BitSet blockMatches(String text) {
+        if (byBlockVersion != contentVersion) {
+            byBlockVersion = contentVersion;
+            byBlock = indexBlocks();
+        }
+        BitSet matches = new BitSet(entries.size());
+        for (var entry : byBlock.entrySet()) {
+            if (entry.getKey().contains(text)) matches.or(entry.getValue());
+        }
+        return matches;
+    }
+
+    private Map<String, BitSet> indexBlocks() {
+        Map<String, BitSet> index = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Set<String> blocks = CONTENTS.get(contentKeys[i]);
+            if (blocks == null) continue;
+            for (String block : blocks) {
+                index.computeIfAbsent(block, b -> new BitSet(entries.size())).set(i);
+            }
+        }
+        return index;
+    }
+
+    private boolean anyVariantFits(int entry, List<int[]> sizeTerms) {
+        BlockPos[] variants = dimensions[entry];
+        for (int v = 0; v < variants.length; v++) {
+            BlockPos size = variants[v];
+            if (size.equals(BlockPos.ZERO)) {
+                // Size comes from the structure; known once its metadata is
+                VariantMetadata metadata = MultiblockMetadata.get(entries.get(entry), v);
+                if (metadata == null) continue;
+                size = metadata.bounds();
+            }
+            boolean fits = true;
+            for (int[] term : sizeTerms) {
+                int value;
+                if (term[0] == 4) {
+                    VariantMetadata metadata = MultiblockMetadata.get(entries.get(entry), v);
+                    if (metadata == null) {
+                        fits = false;
+                        break;
+                    }
+                    value = metadata.nonAirCount();
+                } else {
+                    value = switch (term[0]) {
+                        case 0 -> size.getX();
+                        case 1 -> size.getY();
+                        case 2 -> size.getZ();
+                        default -> Math.max(size.getX(), Math.max(size.getY(), size.getZ()));
+                    };
+                }
+                int cmp = Integer.compare(value, term[2]);
+                fits = switch (term[1]) {
+                    case 0 -> cmp < 0;
+                    case 1 -> cmp <= 0;
+                    case 2 -> cmp == 0;
+                    case 3 -> cmp >= 0;
+                    default -> cmp > 0;
+                };
+                if (!fits) break;
+            }
+            if (fits) return true;
+        }
+        return false;
+    }
+
+    private static int axis(String name) {
+        return switch (name) {
+            case "w" -> 0;
+            case "h" -> 1;
+            case "d" -> 2;
+            case "blocks" -> 4;
+            default -> 3;
+        };
+    }
+
+    private static int operator(String op) {
+        return switch (op) {
+            case "<" -> 0;
+            case "<=" -> 1;
+            case "=" -> 2;
+            case ">=" -> 3;
+            default -> 4;
+        };
+    }
+
+    private static int parse(String number) {
+        try {
+            return Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    // ---- Building ----
+
+    private static MultiblockSearchIndex build(MultiblockCatalog catalog) {
+        List<MultiblockDefinition> entries = catalog.all();
+        SchematicIndex schematics = SchematicIndex.get();
+
+        int count = entries.size();
+        String[] texts = new String[count];
+        String[] contentKeys = new String[count];
+        BlockPos[][] dimensions = new BlockPos[count][];
+        Map<String, List<Integer>> gramLists = new HashMap<>();
+        Map<String, BitSet> byTab = new HashMap<>();
+
+        for (int i = 0; i < count; i++) {
+            MultiblockDefinition definition = entries.get(i);
+            String text = (definition.displayName().getString() + "\n" + definition.modId() + "\n"
+                + definition.category().displayName().getString()).toLowerCase(Locale.ROOT);
+            texts[i] = text;
+            contentKeys[i] = contentKey(definition, catalog, schematics);
+            dimensions[i] = definition.variants().stream()
+                .map(MultiblockDefinition.SizeVariant::dimensions)
+                .toArray(BlockPos[]::new);
+            byTab.computeIfAbsent(definition.modId(), tab -> new BitSet(count)).set(i);
+
+            for (int length = 1; length <= MAX_GRAM; length++) {
+                for (int start = 0; start + length <= text.length(); start++) {
+                    List<Integer> list = gramLists.computeIfAbsent(text.substring(start, start + length), g -> new ArrayList<>());
+                    // Entries are visited in order, so a repeated gram only needs the last element checked
+                    if (list.isEmpty() || list.get(list.size() - 1) != i) list.add(i);
+                }
+            }
+        }
+
+        Map<String, int[]> grams = new HashMap<>(gramLists.size() * 2);
+        gramLists.forEach((gram, list) -> grams.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+        return new MultiblockSearchIndex(entries, texts, contentKeys, dimensions, grams, byTab);
+    }
+
+    /**
+     * Stable key for a definition's block contents: the registry id, or the schematic file with
+     * its modification time and length so edited files are indexed again.
+     */
+    private static String contentKey(MultiblockDefinition definition, MultiblockCatalog catalog, SchematicIndex schematics) {
+        ResourceLocation id = catalog.idOf(definition);
+        if (id != null && catalog.isSchematic(definition)) {
+            SchematicEntry entry = schematics.getEntryById(id);
+            if (entry != null) {
+                try {
+                    return "schematic:" + entry.filePath() + ":" + Files.getLastModifiedTime(entry.filePath()).toMillis()
+                        + ":" + Files.size(entry.filePath());
+                } catch (IOException e) {
+                    return "schematic:" + entry.filePath();
+                }
+            }
+        }
+        return id != null ? id.toString() : "definition:" + System.identityHashCode(definition);
+    }
+
+    /** Collects the block ids of every definition not yet in {@link #CONTENTS}, one at a time. */
+    private void indexContentsInBackground() {
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (!CONTENTS.containsKey(contentKeys[i])) missing.add(i);
+        }
+        if (missing.isEmpty()) return;
+
+        Util.backgroundExecutor().execute(() -> {
+            int indexed = 0;
+            for (int i : missing) {
+                if (INSTANCE != this) return; // superseded by a newer index
+                String key = contentKeys[i];
+                if (CONTENTS.containsKey(key)) continue;
+                MultiblockDefinition definition = entries.get(i);
+                try {
+                    // Providers are required to be thread-safe and not to touch the level
+                    MultiblockStructure structure = definition.structureProvider().create(definition.getDefaultVariant(), null);
+                    CONTENTS.put(key, blockIds(structure));
+                } catch (RuntimeException e) {
+                    UniversalProjector.LOGGER.warn("Failed to index blocks of {}", definition.displayName().getString(), e);
+                    CONTENTS.put(key, Set.of());
+                }
+                if (++indexed % 32 == 0) contentVersion++;
+            }
+            contentVersion++;
+        });
+    }
+
+    private static Set<String> blockIds(MultiblockStructure structure) {
+        Set<BlockEntry> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        Set<String> ids = new HashSet<>();
+        for (BlockEntry entry : structure.blocks().values()) {
+            if (!seen.add(entry)) continue;
+            switch (entry) {
+                case AirEntry air -> {}
+                case SingleBlock single -> ids.add(blockId(single.state().getBlock()));
+                case BlockGroup group -> group.blocks().forEach(block -> ids.add(blockId(block)));
+                case TagEntry tag -> tag.blocks().forEach(block -> ids.add(blockId(block)));
+            }
+        }
+        return Set.copyOf(ids);
+    }
+
+    private static String blockId(Block block) {
+        return BuiltInRegistries.BLOCK.getKey(block).toString();
+    }
+}
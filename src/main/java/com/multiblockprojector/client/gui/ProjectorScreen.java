@@ -2,27 +2,42 @@ package com.multiblockprojector.client.gui;
 
 import com.multiblockprojector.api.MultiblockDefinition;
 import com.multiblockprojector.api.MultiblockDefinition.SizeVariant;
+import com.multiblockprojector.api.SizeRange;
 import com.multiblockprojector.common.items.AbstractProjectorItem;
 import com.multiblockprojector.common.items.BatteryFabricatorItem;
 import com.multiblockprojector.common.items.FabricatorItem;
+import com.multiblockprojector.client.render.ThumbnailCache;
 import com.multiblockprojector.common.network.MessageProjectorSync;
 import com.multiblockprojector.common.projector.Settings;
+import com.multiblockprojector.client.schematic.RegionCapture;
+import com.multiblockprojector.client.schematic.SchematicCache;
+import com.multiblockprojector.client.schematic.SchematicEntry;
 import com.multiblockprojector.client.schematic.SchematicIndex;
+import com.multiblockprojector.client.schematic.SchematicUploader;
+import com.multiblockprojector.common.registry.MultiblockCatalog;
 import com.multiblockprojector.common.registry.MultiblockIndex;
 import com.multiblockprojector.common.registry.MultiblockIndex.TabEntry;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.AbstractSelectionList;
+import net.minecraft.client.gui.components.AbstractSliderButton;
 import net.minecraft.client.gui.components.Button;
+import net.minecraft.client.gui.components.EditBox;
+import net.minecraft.client.gui.components.Tooltip;
 import net.minecraft.client.gui.narration.NarrationElementOutput;
 import net.minecraft.client.gui.screens.Screen;
+import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.InteractionHand;
 import net.minecraft.world.item.ItemStack;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 /**
@@ -39,12 +54,18 @@ public class ProjectorScreen extends Screen {
 
     private List<MultiblockDefinition> filteredMultiblocks;
     private String selectedTab;
+    /** Search box text, kept across widget rebuilds and tab switches. */
+    private String searchQuery = "";
+    private int filteredContentVersion;
 
     // Layout constants
     private static final int MARGIN = 10;
     private static final int TAB_SELECTOR_Y = 10;
     private static final int TAB_SELECTOR_HEIGHT = 20;
     private static final int ENTRY_HEIGHT = 20;
+    private static final int SEARCH_HEIGHT = 16;
+    private static final int PREVIEW_MARGIN = 20;
+    private static final int PREVIEW_BOTTOM_RESERVED = 80;
 
     // Layout (computed in init())
     private int leftPanelWidth;
@@ -53,6 +74,7 @@ public class ProjectorScreen extends Screen {
     // Widgets
     private MultiblockListWidget multiblockList;
     private Button modSelectorButton;
+    private EditBox searchBox;
     private Button sizeDecreaseButton;
     private Button sizeIncreaseButton;
 
@@ -62,12 +84,13 @@ public class ProjectorScreen extends Screen {
     private MultiblockDefinition selectedMultiblock;
     private boolean selectedIsSchematic = false;
     private ResourceLocation selectedSchematicId = null;
-    private int currentSizePresetIndex = 0;
+    private SizeVariant currentVariant;
     private boolean isDragging = false;
     private int selectButtonY;
     private int requirementsPanelHeight;
     private Button clipboardButton;
     private int clipboardCooldown = 0;
+    private BuildSlider buildSlider;
 
     public ProjectorScreen(ItemStack projectorStack, InteractionHand hand) {
         super(Component.translatable("gui.multiblockprojector.projector"));
@@ -77,15 +100,12 @@ public class ProjectorScreen extends Screen {
         this.previewRenderer = new SimpleMultiblockPreviewRenderer();
         this.isFabricator = projectorStack.getItem() instanceof FabricatorItem
             || projectorStack.getItem() instanceof BatteryFabricatorItem;
-        this.requirementsPanel = new RequirementsPanel(Minecraft.getInstance().font);
-
-        var index = MultiblockIndex.get();
-        var tabs = index.getTabs();
-        SchematicIndex.rescan();
-        var schematicIndex = SchematicIndex.get();
-        var allTabs = new java.util.ArrayList<>(tabs);
-        allTabs.addAll(schematicIndex.getTabs());
-        if (lastSelectedTab != null && allTabs.stream().anyMatch(t -> t.modId().equals(lastSelectedTab))) {
+        this.requirementsPanel = new RequirementsPanel(Minecraft.getInstance().font, hand);
+
+        SchematicIndex.rescan(); // publishes a fresh catalog snapshot
+        var catalog = MultiblockCatalog.get();
+        var tabs = MultiblockIndex.get().getTabs();
+        if (lastSelectedTab != null && catalog.tabs().stream().anyMatch(t -> t.modId().equals(lastSelectedTab))) {
             this.selectedTab = lastSelectedTab;
         } else {
             this.selectedTab = tabs.size() > 1 ? tabs.get(1).modId() : MultiblockIndex.ALL_TAB;
@@ -94,17 +114,8 @@ public class ProjectorScreen extends Screen {
     }
 
     private void updateFilteredMultiblocks() {
-        var schematicIndex = SchematicIndex.get();
-        if (MultiblockIndex.ALL_TAB.equals(selectedTab)) {
-            var merged = new java.util.ArrayList<>(MultiblockIndex.get().getForTab(selectedTab));
-            merged.addAll(schematicIndex.getAll());
-            merged.sort(java.util.Comparator.comparing(d -> d.displayName().getString(), String.CASE_INSENSITIVE_ORDER));
-            filteredMultiblocks = merged;
-        } else if (schematicIndex.hasTab(selectedTab)) {
-            filteredMultiblocks = schematicIndex.getForTab(selectedTab);
-        } else {
-            filteredMultiblocks = MultiblockIndex.get().getForTab(selectedTab);
-        }
+        filteredMultiblocks = MultiblockSearchIndex.get().search(selectedTab, searchQuery);
+        filteredContentVersion = MultiblockSearchIndex.contentVersion();
     }
 
     private void selectTab(String tabId) {
@@ -138,8 +149,18 @@ public class ProjectorScreen extends Screen {
         ).bounds(MARGIN, TAB_SELECTOR_Y, leftPanelWidth - MARGIN * 2, TAB_SELECTOR_HEIGHT).build();
         this.addRenderableWidget(modSelectorButton);
 
+        // --- Search box ---
+        int searchY = TAB_SELECTOR_Y + TAB_SELECTOR_HEIGHT + 4;
+        searchBox = new EditBox(this.font, MARGIN, searchY, leftPanelWidth - MARGIN * 2, SEARCH_HEIGHT,
+            Component.literal("Search"));
+        searchBox.setHint(Component.literal("Search (block:casing, h<=10, blocks<500, ...)"));
+        searchBox.setMaxLength(256);
+        searchBox.setValue(searchQuery);
+        searchBox.setResponder(this::onSearchChanged);
+        this.addRenderableWidget(searchBox);
+
         // --- Calculate dynamic list area ---
-        listStartY = TAB_SELECTOR_Y + TAB_SELECTOR_HEIGHT + 4;
+        listStartY = searchY + SEARCH_HEIGHT + 4;
         selectButtonY = this.height - 30;
         requirementsPanelHeight = isFabricator ? 140 : 140 - RequirementsPanel.getStatusLinesHeight();
         int listHeight = selectButtonY - listStartY - 6 - requirementsPanelHeight;
@@ -161,6 +182,8 @@ public class ProjectorScreen extends Screen {
 
         var reqListWidget = requirementsPanel.createListWidget(MARGIN, reqWidth, reqListY, reqListHeight);
         this.addRenderableWidget(reqListWidget);
+        // removed() stops the computation when a sub-screen opens; pick it up again on return
+        requirementsPanel.resume();
 
         // "Add to Clipboard" button — only if Create is installed
         if (net.neoforged.fml.ModList.get().isLoaded("create")) {
@@ -190,14 +213,14 @@ public class ProjectorScreen extends Screen {
 
         sizeDecreaseButton = Button.builder(
             Component.literal("-"),
-            btn -> decreaseSizePreset()
+            btn -> stepSize(-1)
         ).bounds(rightPanelCenterX - totalWidth / 2, sizeButtonY, sizeButtonWidth, 20).build();
         sizeDecreaseButton.visible = selectedMultiblock != null && selectedMultiblock.isVariableSize();
         this.addRenderableWidget(sizeDecreaseButton);
 
         sizeIncreaseButton = Button.builder(
             Component.literal("+"),
-            btn -> increaseSizePreset()
+            btn -> stepSize(1)
         ).bounds(rightPanelCenterX + totalWidth / 2 - sizeButtonWidth, sizeButtonY, sizeButtonWidth, 20).build();
         sizeIncreaseButton.visible = selectedMultiblock != null && selectedMultiblock.isVariableSize();
         this.addRenderableWidget(sizeIncreaseButton);
@@ -205,6 +228,51 @@ public class ProjectorScreen extends Screen {
         if (selectedMultiblock != null && selectedMultiblock.isVariableSize()) {
             updateSizeButtons(selectedMultiblock);
         }
+
+        // --- Layer limit and build scrub sliders under the preview ---
+        int layerCount = previewRenderer.getLayerCount();
+        if (selectedMultiblock != null && layerCount > 0) {
+            int previewX = leftPanelWidth + PREVIEW_MARGIN;
+            int previewWidth = (this.width - leftPanelWidth) - PREVIEW_MARGIN * 2;
+            int sliderWidth = (previewWidth - 4) / 2;
+            int sliderY = this.height - PREVIEW_BOTTOM_RESERVED + 10;
+            this.addRenderableWidget(new LayerSlider(previewX, sliderY, sliderWidth, layerCount));
+            buildSlider = new BuildSlider(previewX + previewWidth - sliderWidth, sliderY, sliderWidth);
+            this.addRenderableWidget(buildSlider);
+        } else {
+            buildSlider = null;
+        }
+
+        // --- Capture button, once a region has been marked ---
+        BlockPos captureSize = RegionCapture.size();
+        if (captureSize != null) {
+            int captureWidth = 160;
+            Button captureButton = Button.builder(
+                Component.literal("Capture " + captureSize.getX() + "x" + captureSize.getY() + "x" + captureSize.getZ()),
+                btn -> {
+                    btn.active = false;
+                    RegionCapture.capture(this::onRegionCaptured);
+                }
+            ).bounds(rightPanelCenterX - captureWidth / 2, this.height - 22, captureWidth, 16).build();
+            captureButton.active = RegionCapture.canCapture();
+            this.addRenderableWidget(captureButton);
+        }
+    }
+
+    private void onRegionCaptured(SchematicEntry entry) {
+        if (this.minecraft.screen != this) return;
+        selectTab(entry.tabId());
+        MultiblockDefinition definition = MultiblockCatalog.get().schematic(entry.id());
+        if (definition != null) {
+            selectMultiblockForPreview(definition);
+        }
+    }
+
+    private void onSearchChanged(String query) {
+        if (query.equals(searchQuery)) return;
+        searchQuery = query;
+        updateFilteredMultiblocks();
+        refreshListEntries();
     }
 
     private void openModSelector() {
@@ -216,47 +284,48 @@ public class ProjectorScreen extends Screen {
     }
 
     private String getSelectedTabDisplayName() {
-        var registryTabs = MultiblockIndex.get().getTabs();
-        for (var tab : registryTabs) {
-            if (tab.modId().equals(selectedTab)) return tab.displayName();
-        }
-        var schematicTabs = SchematicIndex.get().getTabs();
-        for (var tab : schematicTabs) {
-            if (tab.modId().equals(selectedTab)) return tab.displayName();
-        }
-        return "All";
+        return MultiblockCatalog.get().tabDisplayName(selectedTab);
     }
 
-    private void decreaseSizePreset() {
-        if (selectedMultiblock != null && selectedMultiblock.isVariableSize()) {
-            if (currentSizePresetIndex > 0) {
-                currentSizePresetIndex--;
-                updateSizeButtons(selectedMultiblock);
-                updatePreviewWithSize(selectedMultiblock);
-            }
+    /**
+     * Steps to the next size: through the size range when the multiblock has one (every axis,
+     * or only the height while shift is held), otherwise through the presets.
+     */
+    private void stepSize(int direction) {
+        if (selectedMultiblock == null || !selectedMultiblock.isVariableSize()) return;
+        SizeVariant next = nextVariant(selectedMultiblock, direction, hasShiftDown());
+        if (next != null) {
+            currentVariant = next;
+            updateSizeButtons(selectedMultiblock);
+            updatePreviewWithSize(selectedMultiblock);
+            rebuildWidgets(); // Layer slider range follows the variant height
         }
     }
 
-    private void increaseSizePreset() {
-        if (selectedMultiblock != null && selectedMultiblock.isVariableSize()) {
-            if (currentSizePresetIndex < selectedMultiblock.variants().size() - 1) {
-                currentSizePresetIndex++;
-                updateSizeButtons(selectedMultiblock);
-                updatePreviewWithSize(selectedMultiblock);
-            }
+    @Nullable
+    private SizeVariant nextVariant(MultiblockDefinition multiblock, int direction, boolean heightOnly) {
+        SizeRange range = multiblock.sizeRange();
+        if (range != null) {
+            BlockPos size = range.step(currentVariant.dimensions(), !heightOnly, true, !heightOnly, direction);
+            return size != null ? multiblock.variantFor(size) : null;
         }
+        int index = multiblock.variants().indexOf(currentVariant) + direction;
+        return index >= 0 && index < multiblock.variants().size() ? multiblock.variants().get(index) : null;
     }
 
     private void updateSizeButtons(MultiblockDefinition multiblock) {
-        int maxIndex = multiblock.variants().size() - 1;
-        sizeDecreaseButton.active = currentSizePresetIndex > 0;
-        sizeIncreaseButton.active = currentSizePresetIndex < maxIndex;
+        sizeDecreaseButton.active = nextVariant(multiblock, -1, false) != null;
+        sizeIncreaseButton.active = nextVariant(multiblock, 1, false) != null;
+        Tooltip tooltip = multiblock.sizeRange() != null
+            ? Tooltip.create(Component.translatable("gui.multiblockprojector.size.height_only"))
+            : null;
+        sizeDecreaseButton.setTooltip(tooltip);
+        sizeIncreaseButton.setTooltip(tooltip);
     }
 
     private void updatePreviewWithSize(MultiblockDefinition multiblock) {
-        var variant = multiblock.variants().get(currentSizePresetIndex);
-        previewRenderer.setMultiblock(multiblock, variant);
-        requirementsPanel.update(multiblock, currentSizePresetIndex, projectorStack);
+        previewRenderer.setMultiblock(multiblock, currentVariant);
+        requirementsPanel.update(multiblock, currentVariant, projectorStack);
         requirementsPanel.refreshEntries();
         updateClipboardButtonState();
     }
@@ -267,18 +336,34 @@ public class ProjectorScreen extends Screen {
         }
     }
 
+    /**
+     * Starts decoding a schematic in the background so that selecting it
+     * (preview, requirements, projection) hits the shared cache.
+     */
+    private static void prefetchSchematic(MultiblockDefinition multiblock) {
+        var catalog = MultiblockCatalog.get();
+        if (!catalog.isSchematic(multiblock)) return;
+        var entry = SchematicIndex.get().getEntryById(catalog.idOf(multiblock));
+        if (entry != null) {
+            SchematicCache.prefetch(entry.filePath());
+        }
+    }
+
     private void selectMultiblockForPreview(MultiblockDefinition multiblock) {
         this.selectedMultiblock = multiblock;
         this.previewRenderer.resetZoom();
-        var schematicIndex = SchematicIndex.get();
-        this.selectedIsSchematic = schematicIndex.hasTab(multiblock.modId());
-        this.selectedSchematicId = selectedIsSchematic ? schematicIndex.getSchematicId(multiblock) : null;
+        var catalog = MultiblockCatalog.get();
+        this.selectedIsSchematic = catalog.isSchematic(multiblock);
+        this.selectedSchematicId = selectedIsSchematic ? catalog.idOf(multiblock) : null;
+        if (selectedIsSchematic) {
+            prefetchSchematic(multiblock);
+        }
 
         if (multiblock.isVariableSize()) {
-            this.currentSizePresetIndex = multiblock.variants().size() / 2;
+            this.currentVariant = multiblock.variants().get(multiblock.variants().size() / 2);
             updatePreviewWithSize(multiblock);
         } else {
-            this.currentSizePresetIndex = 0;
+            this.currentVariant = multiblock.getDefaultVariant();
             this.previewRenderer.setMultiblock(multiblock);
         }
 
@@ -289,7 +374,7 @@ public class ProjectorScreen extends Screen {
             updateSizeButtons(multiblock);
         }
 
-        requirementsPanel.update(multiblock, currentSizePresetIndex, projectorStack);
+        requirementsPanel.update(multiblock, currentVariant, projectorStack);
         rebuildWidgets(); // Rebuild to adjust list height
     }
 
@@ -300,6 +385,7 @@ public class ProjectorScreen extends Screen {
             var entry = SchematicIndex.get().getEntryById(selectedSchematicId);
             if (entry != null) {
                 settings.setSchematic(entry);
+                SchematicUploader.upload(entry).thenAccept(hash -> applySchematicHash(hand, entry.id(), hash));
             } else {
                 return;
             }
@@ -307,7 +393,9 @@ public class ProjectorScreen extends Screen {
             settings.setMultiblock(multiblock);
         }
         settings.setMode(Settings.Mode.PROJECTION);
-        settings.setSizePresetIndex(currentSizePresetIndex);
+        int presetIndex = multiblock.variants().indexOf(currentVariant);
+        settings.setSizePresetIndex(Math.max(presetIndex, 0));
+        settings.setCustomSize(presetIndex < 0 && multiblock.isVariableSize() ? currentVariant.dimensions() : null);
         settings.applyTo(projectorStack);
 
         MessageProjectorSync.sendToServer(settings, hand);
@@ -317,8 +405,7 @@ public class ProjectorScreen extends Screen {
         if (minecraft.player != null) {
             Component sizeInfo = Component.empty();
             if (multiblock.isVariableSize()) {
-                var variant = multiblock.variants().get(currentSizePresetIndex);
-                sizeInfo = Component.literal(" (" + variant.getSizeString() + ")");
+                sizeInfo = Component.literal(" (" + currentVariant.getSizeString() + ")");
             }
             minecraft.player.displayClientMessage(
                 Component.translatable("gui.multiblockprojector.selected", multiblock.displayName()).append(sizeInfo),
@@ -327,6 +414,22 @@ public class ProjectorScreen extends Screen {
         }
     }
 
+    /**
+     * Stores the content hash of an uploaded schematic on the projector once encoding finishes,
+     * if the projector still has that schematic selected, and syncs it to the server.
+     */
+    private static void applySchematicHash(InteractionHand hand, ResourceLocation schematicId, @Nullable String hash) {
+        Minecraft mc = Minecraft.getInstance();
+        if (hash == null || mc.player == null) return;
+        ItemStack stack = mc.player.getItemInHand(hand);
+        if (!(stack.getItem() instanceof AbstractProjectorItem)) return;
+        Settings current = AbstractProjectorItem.getSettings(stack);
+        if (current.getSource() != Settings.Source.SCHEMATIC || !schematicId.equals(current.getMultiblockId())) return;
+        current.setSchematicHash(hash);
+        current.applyTo(stack);
+        MessageProjectorSync.sendToServer(current, hand);
+    }
+
     @Override
     public void render(@Nonnull GuiGraphics guiGraphics, int mouseX, int mouseY, float partialTick) {
         // Draw panel backgrounds
@@ -363,24 +466,32 @@ public class ProjectorScreen extends Screen {
 
         // Render all widgets (mod selector button, multiblock list, select button, req list)
         super.render(guiGraphics, mouseX, mouseY, partialTick);
+        // Thumbnails of entries drawn above are loaded or rendered a few at a time
+        ThumbnailCache.process();
 
         // Draw vertical separator
         guiGraphics.fill(leftPanelWidth, 0, leftPanelWidth + 2, this.height, 0xFF555555);
 
+        // Block filters are answered from contents indexed in the background; pick up new ones
+        if (filteredContentVersion != MultiblockSearchIndex.contentVersion()
+            && MultiblockSearchIndex.usesContents(searchQuery)) {
+            updateFilteredMultiblocks();
+            refreshListEntries();
+        }
+
         // Draw "no multiblocks" message if tab is empty
         if (filteredMultiblocks.isEmpty() && selectedTab != null) {
-            guiGraphics.drawCenteredString(this.font,
-                Component.literal("No multiblocks from " + getSelectedTabDisplayName()),
-                leftPanelWidth / 2, listStartY + 40, 0x888888);
+            Component message = searchQuery.isBlank()
+                ? Component.literal("No multiblocks from " + getSelectedTabDisplayName())
+                : Component.literal("No matches in " + getSelectedTabDisplayName());
+            guiGraphics.drawCenteredString(this.font, message, leftPanelWidth / 2, listStartY + 40, 0x888888);
         }
 
         // Render preview in right panel
-        int previewMargin = 20;
-        int previewWidth = (this.width - leftPanelWidth) - (previewMargin * 2);
-        int bottomReserved = 80;
-        int previewHeight = this.height - previewMargin - bottomReserved;
-        int previewX = leftPanelWidth + previewMargin;
-        int previewY = previewMargin;
+        int previewWidth = (this.width - leftPanelWidth) - (PREVIEW_MARGIN * 2);
+        int previewHeight = this.height - PREVIEW_MARGIN - PREVIEW_BOTTOM_RESERVED;
+        int previewX = leftPanelWidth + PREVIEW_MARGIN;
+        int previewY = PREVIEW_MARGIN;
 
         // Draw selected multiblock name above preview
         if (selectedMultiblock != null) {
@@ -393,16 +504,15 @@ public class ProjectorScreen extends Screen {
         guiGraphics.fill(previewX - 2, previewY - 2, previewX + previewWidth + 2, previewY + previewHeight + 2, 0xFF333333);
         guiGraphics.fill(previewX, previewY, previewX + previewWidth, previewY + previewHeight, 0xFF111111);
         previewRenderer.render(guiGraphics, previewX, previewY, previewWidth, previewHeight, mouseX, mouseY, partialTick);
+        if (buildSlider != null) {
+            buildSlider.sync();
+        }
 
         // Draw size info for variable-size multiblocks
-        if (selectedMultiblock != null && selectedMultiblock.isVariableSize()) {
-            var variants = selectedMultiblock.variants();
-            if (!variants.isEmpty() && currentSizePresetIndex < variants.size()) {
-                var variant = variants.get(currentSizePresetIndex);
-                int rightPanelCenterX = leftPanelWidth + (this.width - leftPanelWidth) / 2;
-                int sizeTextY = this.height - 45 + 6;
-                guiGraphics.drawCenteredString(this.font, variant.getFullDisplayName(), rightPanelCenterX, sizeTextY, 0xFFFFFF);
-            }
+        if (selectedMultiblock != null && selectedMultiblock.isVariableSize() && currentVariant != null) {
+            int rightPanelCenterX = leftPanelWidth + (this.width - leftPanelWidth) / 2;
+            int sizeTextY = this.height - 45 + 6;
+            guiGraphics.drawCenteredString(this.font, currentVariant.getFullDisplayName(), rightPanelCenterX, sizeTextY, 0xFFFFFF);
         }
     }
 
@@ -414,6 +524,9 @@ public class ProjectorScreen extends Screen {
     @Override
     public void tick() {
         super.tick();
+        if (requirementsPanel.tick() && clipboardCooldown == 0) {
+            updateClipboardButtonState();
+        }
         if (clipboardCooldown > 0) {
             clipboardCooldown--;
             if (clipboardCooldown == 0 && clipboardButton != null) {
@@ -422,6 +535,14 @@ public class ProjectorScreen extends Screen {
         }
     }
 
+    @Override
+    public void removed() {
+        // Free the baked preview; it is rebuilt if this screen is shown again
+        previewRenderer.close();
+        requirementsPanel.cancel();
+        super.removed();
+    }
+
     @Override
     public void onClose() {
         // If the screen closes without a multiblock being selected (e.g. ESC, game quit),
@@ -555,27 +676,91 @@ public class ProjectorScreen extends Screen {
         return super.mouseReleased(mouseX, mouseY, button);
     }
 
+    // ---- Inner widgets: preview sliders ----
+
+    /** Limits the preview to the bottom N layers. Adjusting it never re-meshes the preview. */
+    private class LayerSlider extends AbstractSliderButton {
+        private final int layerCount;
+
+        LayerSlider(int x, int y, int width, int layerCount) {
+            super(x, y, width, 16, Component.empty(),
+                layerCount > 1 ? (previewRenderer.getLayerLimit() - 1) / (double) (layerCount - 1) : 1.0);
+            this.layerCount = layerCount;
+            this.active = layerCount > 1;
+            updateMessage();
+        }
+
+        private int layers() {
+            return 1 + (int) Math.round(value * (layerCount - 1));
+        }
+
+        @Override
+        protected void updateMessage() {
+            int layers = layers();
+            setMessage(Component.literal(layers >= layerCount ? "Layers: All" : "Layers: " + layers + "/" + layerCount));
+        }
+
+        @Override
+        protected void applyValue() {
+            previewRenderer.setLayerLimit(layers());
+        }
+    }
+
+    /** Scrubs through the build order. Follows the build-up animation while it plays. */
+    private class BuildSlider extends AbstractSliderButton {
+        BuildSlider(int x, int y, int width) {
+            super(x, y, width, 16, Component.empty(), previewRenderer.getBuildProgress());
+            updateMessage();
+        }
+
+        /** Mirrors the renderer's progress while the animation runs. */
+        void sync() {
+            if (!isFocused() && value != previewRenderer.getBuildProgress()) {
+                value = previewRenderer.getBuildProgress();
+                updateMessage();
+            }
+        }
+
+        @Override
+        protected void updateMessage() {
+            setMessage(Component.literal("Build: " + Math.round(value * 100) + "%"));
+        }
+
+        @Override
+        protected void applyValue() {
+            previewRenderer.setBuildProgress(value);
+        }
+    }
+
     // ---- Inner widget: Scrollable multiblock list ----
 
     private class MultiblockListWidget extends AbstractSelectionList<MultiblockListWidget.Entry> {
+        /** Last entry the mouse was over, so hover prefetch fires once per entry. */
+        private Entry lastHovered;
+        private final Map<MultiblockDefinition, Entry> rowCache = new IdentityHashMap<>();
 
         public MultiblockListWidget(Minecraft mc, int width, int height, int y, int itemHeight) {
             super(mc, width, height, y, itemHeight);
         }
 
+        /**
+         * Replaces the rows with the given definitions. Row objects are plain wrappers reused
+         * across filter changes, and only rows inside the viewport are ever drawn, so re-filtering
+         * a large catalogue per keystroke stays cheap.
+         */
         public void refreshEntries(List<MultiblockDefinition> multiblocks, MultiblockDefinition selected) {
-            this.clearEntries();
+            List<Entry> rows = new ArrayList<>(multiblocks.size());
             Entry selectedEntry = null;
             for (MultiblockDefinition mb : multiblocks) {
-                Entry entry = new Entry(mb);
-                this.addEntry(entry);
+                Entry entry = rowCache.computeIfAbsent(mb, Entry::new);
+                rows.add(entry);
                 if (mb == selected) {
                     selectedEntry = entry;
                 }
             }
-            if (selectedEntry != null) {
-                this.setSelected(selectedEntry);
-            }
+            this.replaceEntries(rows);
+            this.setSelected(selectedEntry);
+            this.setScrollAmount(this.getScrollAmount()); // clamp to the new length
         }
 
         @Override
@@ -624,9 +809,16 @@ public class ProjectorScreen extends Screen {
             public void render(@Nonnull GuiGraphics graphics, int index, int top, int left,
                               int width, int height, int mouseX, int mouseY,
                               boolean hovering, float partialTick) {
+                if (hovering && lastHovered != this) {
+                    lastHovered = this;
+                    prefetchSchematic(multiblock);
+                }
+                int iconSize = height - 4;
+                ThumbnailCache.draw(graphics, multiblock, multiblock.variants().indexOf(multiblock.getDefaultVariant()),
+                    left + 2, top + 2, iconSize);
                 int color = hovering ? 0xFFFFFF : 0xCCCCCC;
                 graphics.drawString(font, multiblock.displayName(),
-                    left + 4, top + (height - font.lineHeight) / 2, color);
+                    left + iconSize + 6, top + (height - font.lineHeight) / 2, color);
             }
 
             @Override
@@ -671,9 +863,7 @@ public class ProjectorScreen extends Screen {
             super.init();
 
             // Size the list to fit content, capped to screen
-            var tabs = MultiblockIndex.get().getTabs();
-            var allTabs = new java.util.ArrayList<>(tabs);
-            allTabs.addAll(SchematicIndex.get().getTabs());
+            var allTabs = MultiblockCatalog.get().tabs();
             int listWidth = Math.min(220, this.width - 60);
             int listItemHeight = 20;
             int contentHeight = allTabs.size() * listItemHeight;
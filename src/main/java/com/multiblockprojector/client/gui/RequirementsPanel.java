@@ -1,28 +1,41 @@
 package com.multiblockprojector.client.gui;
 
+import com.multiblockprojector.UniversalProjector;
 import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.api.MultiblockDefinition.SizeVariant;
+import com.multiblockprojector.client.StockTracker;
 import com.multiblockprojector.common.items.AbstractProjectorItem;
 import com.multiblockprojector.common.items.BatteryFabricatorItem;
 import com.multiblockprojector.common.projector.Settings;
+import com.multiblockprojector.common.registry.MultiblockMetadata;
+import com.multiblockprojector.common.registry.MultiblockMetadata.VariantMetadata;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.Font;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.AbstractSelectionList;
 import net.minecraft.client.gui.narration.NarrationElementOutput;
 import net.minecraft.core.BlockPos;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.state.BlockState;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 public class RequirementsPanel {
 
     private static final int LINE_HEIGHT = 12;
+    /** Ticks between stock refreshes, so changes to the linked chest show up while the screen is open. */
+    private static final int STOCK_POLL_TICKS = 20;
     private static final int STATUS_LINES_HEIGHT = LINE_HEIGHT * 3 + 6; // FE + energy + chest + padding
 
     private final Font font;
+    private final InteractionHand hand;
     private List<BlockRequirement> requirements = List.of();
     private int totalFENeeded = 0;
     private int availableFE = 0;
@@ -32,72 +45,173 @@ public class RequirementsPanel {
 
     private RequirementListWidget listWidget;
 
+    /** Block counts of the current variant, from which {@link #requirements} is built. */
+    private Map<Block, Integer> required = Map.of();
+    /** {@code Inventory.getTimesChanged()} when the player's blocks were last counted. */
+    private int inventoryStamp = -1;
+    /** Incremented per update; background results of older updates are dropped. */
+    private volatile int generation;
+    @Nullable
+    private CompletableFuture<VariantMetadata> pending;
+    private boolean loading = false;
+    /** Whether {@link #cancel()} stopped a computation that {@link #resume()} should restart. */
+    private boolean interrupted = false;
+    /** Arguments of the last {@link #update}, for {@link #resume()}. */
+    private MultiblockDefinition lastMultiblock;
+    private SizeVariant lastVariant;
+    private ItemStack lastStack;
+    private boolean changed = false;
+    private int stockVersion = -1;
+    private int pollTicks = 0;
+
     public record BlockRequirement(Block block, String name, int needed, int have) {}
 
-    public RequirementsPanel(Font font) {
+    /**
+     * @param hand the hand holding the projector, whose linked chest counts towards "have"
+     */
+    public RequirementsPanel(Font font, InteractionHand hand) {
         this.font = font;
+        this.hand = hand;
+        StockTracker.request(hand, true);
     }
 
-    public void update(MultiblockDefinition multiblock, int sizePresetIndex, ItemStack fabricatorStack) {
-        Settings settings = AbstractProjectorItem.getSettings(fabricatorStack);
-        isBattery = fabricatorStack.getItem() instanceof BatteryFabricatorItem;
-        linkedEnergyPos = settings.getLinkedEnergyPos();
-        linkedChestPos = settings.getLinkedChestPos();
+    /**
+     * Recomputes the requirements for a variant. Presets of registered multiblocks use their
+     * precomputed metadata directly; anything else, including sizes from a size range, is measured on a background thread while a loading row is
+     * shown, and a job still running when the next update arrives is cancelled.
+     */
+    public void update(MultiblockDefinition multiblock, SizeVariant variant, ItemStack fabricatorStack) {
+        updateBasicInfo(fabricatorStack);
+        interrupted = false;
+        lastMultiblock = multiblock;
+        lastVariant = variant;
+        lastStack = fabricatorStack;
+
+        int generation = ++this.generation;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+
+        VariantMetadata metadata = MultiblockMetadata.get(multiblock, multiblock.variants().indexOf(variant));
+        if (metadata != null) {
+            apply(metadata);
+            return;
+        }
 
-        // Get selected variant
-        var variant = multiblock.variants().get(Math.min(sizePresetIndex, multiblock.variants().size() - 1));
-        var level = Minecraft.getInstance().level;
-        var structure = multiblock.structureProvider().create(variant, level);
-
-        // Count required blocks
-        Map<Block, Integer> required = new LinkedHashMap<>();
-        int totalNonAir = 0;
-        List<Float> hardnesses = new ArrayList<>();
-
-        for (var entry : structure.blocks().entrySet()) {
-            BlockState display = entry.getValue().displayState(0);
-            if (!display.isAir()) {
-                required.merge(display.getBlock(), 1, Integer::sum);
-                totalNonAir++;
-                hardnesses.add(Math.max(display.getDestroySpeed(null, BlockPos.ZERO), 0.1f));
+        this.loading = true;
+        this.required = Map.of();
+        this.requirements = List.of();
+        this.totalFENeeded = 0;
+        refreshListEntries();
+
+        pending = CompletableFuture.supplyAsync(() -> {
+            // Skip jobs that went stale while queued behind others
+            if (generation != this.generation) throw new CancellationException();
+            return VariantMetadata.of(multiblock.structureProvider().create(variant, null));
+        }, Util.backgroundExecutor());
+        pending.whenCompleteAsync((measured, error) -> {
+            if (generation != this.generation) return;
+            pending = null;
+            loading = false;
+            if (error != null) {
+                if (!(error instanceof CancellationException || error.getCause() instanceof CancellationException)) {
+                    UniversalProjector.LOGGER.warn("Failed to compute requirements for {}", multiblock.displayName().getString(), error);
+                }
+                refreshListEntries();
+                changed = true;
+                return;
+            }
+            apply(measured);
+        }, Minecraft.getInstance());
+    }
+
+    private void apply(VariantMetadata metadata) {
+        this.loading = false;
+        this.required = metadata.materials();
+        double totalFE = 800.0 * metadata.hardnessSum() * (1.0 + 0.0008 * metadata.nonAirCount());
+        this.totalFENeeded = (int) Math.ceil(totalFE);
+        recountInventory();
+    }
+
+    /**
+     * Call once per tick. Asks the server for changed stock when the inventory changed or the
+     * poll interval passed, and recounts what the player has when new stock arrived.
+     *
+     * @return whether the requirements changed since the last call
+     */
+    public boolean tick() {
+        var player = Minecraft.getInstance().player;
+        if (player != null && !required.isEmpty()) {
+            boolean inventoryChanged = player.getInventory().getTimesChanged() != inventoryStamp;
+            if (++pollTicks >= STOCK_POLL_TICKS || inventoryChanged) {
+                pollTicks = 0;
+                inventoryStamp = player.getInventory().getTimesChanged();
+                StockTracker.request(hand, false);
+            }
+            // Until the server answers, count the local inventory
+            if (StockTracker.version() != stockVersion || (inventoryChanged && StockTracker.available() == null)) {
+                recountInventory();
             }
         }
+        boolean result = changed;
+        changed = false;
+        return result;
+    }
 
-        // Calculate FE cost
-        double totalFE = 0;
-        for (float hardness : hardnesses) {
-            totalFE += 800.0 * hardness * (1.0 + 0.0008 * totalNonAir);
+    /**
+     * Stops any background computation; call when the screen is removed. A computation stopped
+     * here is restarted by {@link #resume()}, since the screen may be shown again.
+     */
+    public void cancel() {
+        if (pending != null) interrupted = true;
+        stop();
+    }
+
+    /** Restarts a computation stopped by {@link #cancel()}; call when the screen is initialised. */
+    public void resume() {
+        if (interrupted) update(lastMultiblock, lastVariant, lastStack);
+    }
+
+    private void stop() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
         }
-        this.totalFENeeded = (int) Math.ceil(totalFE);
+        loading = false;
+    }
 
-        // Count available blocks from player inventory
-        Map<Block, Integer> available = new HashMap<>();
+    /**
+     * Rebuilds the requirement rows from the server's stock snapshot (inventory plus linked
+     * chest), or from the local inventory if no snapshot has arrived.
+     */
+    private void recountInventory() {
+        stockVersion = StockTracker.version();
+        Map<Block, Integer> available = StockTracker.available();
         var player = Minecraft.getInstance().player;
-        if (player != null) {
+        if (available == null && player != null) {
+            available = new HashMap<>();
             var inv = player.getInventory();
+            inventoryStamp = inv.getTimesChanged();
             for (int i = 0; i < inv.getContainerSize(); i++) {
                 ItemStack invStack = inv.getItem(i);
-                if (!invStack.isEmpty() && invStack.getItem() instanceof net.minecraft.world.item.BlockItem blockItem) {
+                if (!invStack.isEmpty() && invStack.getItem() instanceof BlockItem blockItem
+                    && required.containsKey(blockItem.getBlock())) {
                     available.merge(blockItem.getBlock(), invStack.getCount(), Integer::sum);
                 }
             }
         }
 
-        // Get available FE
-        if (isBattery) {
-            this.availableFE = settings.getStoredEnergy();
-        } else {
-            this.availableFE = -1;
-        }
-
-        // Build requirements list
-        List<BlockRequirement> reqs = new ArrayList<>();
+        List<BlockRequirement> reqs = new ArrayList<>(required.size());
         for (var entry : required.entrySet()) {
             String name = entry.getKey().getName().getString();
-            int have = available.getOrDefault(entry.getKey(), 0);
+            int have = available != null ? available.getOrDefault(entry.getKey(), 0) : 0;
             reqs.add(new BlockRequirement(entry.getKey(), name, entry.getValue(), have));
         }
         this.requirements = reqs;
+        this.changed = true;
+        refreshListEntries();
     }
 
     public void updateBasicInfo(ItemStack fabricatorStack) {
@@ -113,11 +227,12 @@ public class RequirementsPanel {
     }
 
     public void clear() {
+        interrupted = false;
+        stop();
+        this.required = Map.of();
         this.requirements = List.of();
         this.totalFENeeded = 0;
-        if (listWidget != null) {
-            listWidget.refreshRequirements(requirements);
-        }
+        refreshListEntries();
     }
 
     /**
@@ -133,7 +248,7 @@ public class RequirementsPanel {
 
     private void refreshListEntries() {
         if (listWidget == null) return;
-        listWidget.refreshRequirements(requirements);
+        listWidget.refreshRequirements(requirements, loading);
     }
 
     /**
@@ -216,8 +331,12 @@ public class RequirementsPanel {
             this.panelWidth = width;
         }
 
-        public void refreshRequirements(List<BlockRequirement> reqs) {
+        public void refreshRequirements(List<BlockRequirement> reqs, boolean loading) {
             this.clearEntries();
+            if (loading) {
+                this.addEntry(new LoadingEntry());
+                return;
+            }
             for (BlockRequirement req : reqs) {
                 this.addEntry(new Entry(req));
             }
@@ -288,5 +407,19 @@ public class RequirementsPanel {
                 return false; // No selection behavior
             }
         }
+
+        /** Placeholder row while requirements are computed in the background. */
+        public class LoadingEntry extends Entry {
+            LoadingEntry() {
+                super(null);
+            }
+
+            @Override
+            public void render(@Nonnull GuiGraphics graphics, int index, int top, int left,
+                              int width, int height, int mouseX, int mouseY,
+                              boolean hovering, float partialTick) {
+                graphics.drawString(font, "Calculating...", left + 4, top + 1, 0x888888);
+            }
+        }
     }
 }
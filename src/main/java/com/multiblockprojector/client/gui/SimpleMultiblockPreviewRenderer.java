@@ -3,10 +3,16 @@ package com.multiblockprojector.client.gui;
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.math.Transformation;
-import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.UniversalProjector;
 import com.multiblockprojector.api.MultiblockDefinition;
 import com.multiblockprojector.api.MultiblockDefinition.SizeVariant;
 import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.api.StructureGrid;
+import com.multiblockprojector.client.render.PreviewMesh;
+import com.multiblockprojector.client.render.VoxelPreviewMesh;
+import com.multiblockprojector.common.registry.MultiblockMetadata;
+import com.multiblockprojector.common.registry.MultiblockMetadata.VariantMetadata;
+import net.minecraft.Util;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.multiplayer.ClientLevel;
@@ -15,25 +21,60 @@ import net.minecraft.client.renderer.block.BlockRenderDispatcher;
 import net.minecraft.client.renderer.texture.OverlayTexture;
 import net.minecraft.core.BlockPos;
 import net.minecraft.util.Mth;
-import net.minecraft.world.level.block.state.BlockState;
 import net.neoforged.neoforge.client.model.data.ModelData;
 import org.joml.Quaternionf;
 
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
 public class SimpleMultiblockPreviewRenderer {
     private MultiblockDefinition multiblock;
     private MultiblockStructure structure;
     private BlockPos size;
+    /** Precomputed facts about the shown variant; null for schematics or before they are ready. */
+    @Nullable
+    private VariantMetadata metadata;
 
     private float scale = 50f;
     private float zoomMultiplier = 1.0f;
     private float rotationX = 25f;
     private float rotationY = -45f;
     private boolean canTick = true;
-    private long lastStep = -1;
-    private int blockIndex;
-    private int maxBlockIndex;
+    private long lastFrame = -1;
+    /** Fraction of the build sequence shown, advanced by the build-up animation or set by scrubbing. */
+    private double buildProgress = 1.0;
+    private boolean animating = false;
+    /** Number of Y layers shown, counted from the bottom. */
+    private int layerLimit;
     private final ClientLevel level;
 
+    /** Duration of the build-up animation when a structure is first shown. */
+    private static final long BUILD_UP_MILLIS = 2000;
+
+    /** Baked preview of the current structure; null until the next render. */
+    @Nullable
+    private PreviewMesh mesh;
+    /** BlockGroup cycle phase the mesh was built at. */
+    private long meshPhase = -1;
+
+    /** Structures with more blocks than this switch to downsampled previews when zoomed out. */
+    private static final int LOD_BLOCK_THRESHOLD = 20_000;
+    /** On-screen size, in pixels, below which a finer level of detail is not worth drawing. */
+    private static final float LOD_MIN_PIXELS = 4f;
+
+    /** Uploaded level-of-detail meshes by downsampling factor. */
+    private final Map<Integer, VoxelPreviewMesh> lods = new HashMap<>();
+    /** Level-of-detail geometry finished in the background, tagged with the structure generation. */
+    private final Queue<PendingLod> preparedLods = new ConcurrentLinkedQueue<>();
+    /** Bumped whenever the structure changes so stale background results are dropped. */
+    private volatile int lodGeneration;
+    private boolean lodsRequested;
+
+    private record PendingLod(int generation, VoxelPreviewMesh.Prepared prepared) {}
+
     public SimpleMultiblockPreviewRenderer() {
         this.level = Minecraft.getInstance().level;
     }
@@ -49,17 +90,24 @@ public class SimpleMultiblockPreviewRenderer {
      */
     public void setMultiblock(MultiblockDefinition multiblock, SizeVariant variant) {
         boolean changed = this.multiblock != multiblock;
-        boolean sizeChanged = variant != null && this.structure != null && !variant.dimensions().equals(this.size);
+        // Variants without declared dimensions only have the one size, taken from the structure
+        boolean sizeChanged = variant != null && this.structure != null && variant.hasKnownSize()
+            && !variant.dimensions().equals(this.size);
 
         if (changed || sizeChanged) {
+            discardMesh();
+            discardLods();
             this.multiblock = multiblock;
             if (multiblock != null && variant != null) {
                 try {
                     this.structure = multiblock.structureProvider().create(variant, level);
                     this.size = structure.size();
+                    this.metadata = MultiblockMetadata.get(multiblock, multiblock.variants().indexOf(variant));
                     if (!structure.blocks().isEmpty()) {
-                        this.maxBlockIndex = structure.blocks().size();
-                        this.blockIndex = maxBlockIndex;
+                        this.layerLimit = size.getY();
+                        this.buildProgress = canTick ? 0.0 : 1.0;
+                        this.animating = canTick;
+                        this.lastFrame = -1;
                         calculateScale();
                     } else {
                         this.structure = null;
@@ -73,6 +121,7 @@ public class SimpleMultiblockPreviewRenderer {
             } else {
                 this.structure = null;
                 this.size = null;
+                this.metadata = null;
             }
         }
     }
@@ -100,12 +149,11 @@ public class SimpleMultiblockPreviewRenderer {
 
         try {
             long currentTime = System.currentTimeMillis();
-            if (lastStep < 0) {
-                lastStep = currentTime;
-            } else if (canTick && currentTime - lastStep > 1000) {
-                step();
-                lastStep = currentTime;
+            if (animating && canTick && lastFrame >= 0) {
+                buildProgress = Math.min(1.0, buildProgress + (currentTime - lastFrame) / (double) BUILD_UP_MILLIS);
+                animating = buildProgress < 1.0;
             }
+            lastFrame = currentTime;
 
             int centerX = x + width / 2;
             int centerY = y + height / 2;
@@ -130,7 +178,7 @@ public class SimpleMultiblockPreviewRenderer {
                 poseStack.translate(-size.getX() / 2f, -size.getY() / 2f, -size.getZ() / 2f);
             }
 
-            renderMultiblock(graphics, poseStack);
+            renderMultiblock(graphics, poseStack, lodFactor(effectiveScale));
 
             RenderSystem.setShaderColor(1.0f, 1.0f, 1.0f, 1.0f);
             RenderSystem.disableBlend();
@@ -144,37 +192,156 @@ public class SimpleMultiblockPreviewRenderer {
         renderInfo(graphics, x, y, width, height);
     }
 
-    private void renderMultiblock(GuiGraphics graphics, PoseStack poseStack) {
-        BlockRenderDispatcher blockRenderer = Minecraft.getInstance().getBlockRenderer();
-        MultiBufferSource.BufferSource buffers = graphics.bufferSource();
+    private void renderMultiblock(GuiGraphics graphics, PoseStack poseStack, int lodFactor) {
+        if (lodFactor > 1) {
+            // Never mesh every block of a huge structure just to shrink it to sub-pixel size
+            VoxelPreviewMesh lod = nearestLod(lodFactor);
+            if (lod != null) {
+                int lastLayer = Math.min(layerLimit, (int) Math.ceil(buildProgress * size.getY())) - 1;
+                graphics.flush();
+                lod.draw(poseStack.last().pose(), lastLayer);
+            }
+            return;
+        }
 
         long tick = System.currentTimeMillis() / 50; // ~20 ticks/sec
+        long phase = tick / 20; // BlockGroup options advance every 20 ticks
 
-        int count = 0;
-        for (var entry : structure.blocks().entrySet()) {
-            if (count >= blockIndex) break;
-            BlockPos pos = entry.getKey();
-            BlockEntry blockEntry = entry.getValue();
-            BlockState state = blockEntry.displayState(tick);
+        if (mesh == null || (mesh.cycles() && phase != meshPhase)) {
+            discardMesh();
+            mesh = PreviewMesh.build(structure, tick);
+            meshPhase = phase;
+        }
 
-            if (!state.isAir()) {
-                poseStack.pushPose();
-                poseStack.translate(pos.getX(), pos.getY(), pos.getZ());
+        // Prefix of the build sequence to show: build-up/scrub position, cut at the layer limit
+        int limit = Math.min((int) Math.ceil(buildProgress * mesh.blockCount()),
+            mesh.blocksThroughLayer(layerLimit - 1));
 
-                int overlay = OverlayTexture.NO_OVERLAY;
-                ModelData modelData = ModelData.EMPTY;
+        // Draw queued GUI geometry first so the preview lands on top of it
+        graphics.flush();
+        mesh.draw(poseStack.last().pose(), limit);
 
+        if (!mesh.animated().isEmpty()) {
+            BlockRenderDispatcher blockRenderer = Minecraft.getInstance().getBlockRenderer();
+            MultiBufferSource.BufferSource buffers = graphics.bufferSource();
+            for (PreviewMesh.AnimatedBlock block : mesh.animated()) {
+                if (block.index() >= limit) break;
+                BlockPos pos = block.pos();
+                poseStack.pushPose();
+                poseStack.translate(pos.getX(), pos.getY(), pos.getZ());
                 try {
-                    blockRenderer.renderSingleBlock(state, poseStack, buffers,
-                        0xF000F0, overlay, modelData, null);
+                    blockRenderer.renderSingleBlock(block.state(), poseStack, buffers,
+                        0xF000F0, OverlayTexture.NO_OVERLAY, ModelData.EMPTY, null);
                 } catch (Exception e) {
                     // Silently ignore render errors
                 }
-
                 poseStack.popPose();
             }
-            count++;
+            graphics.flush();
+        }
+    }
+
+    private void discardMesh() {
+        if (mesh != null) {
+            mesh.close();
+            mesh = null;
+        }
+    }
+
+    /**
+     * Chooses the downsampling factor for the current zoom: 1 (full detail) for small
+     * structures, otherwise the finest level whose voxels are at least {@link #LOD_MIN_PIXELS}
+     * on screen.
+     */
+    private int lodFactor(float effectiveScale) {
+        if (structure.blocks().size() <= LOD_BLOCK_THRESHOLD) return 1;
+        float pixelsPerBlock = effectiveScale * (float) Minecraft.getInstance().getWindow().getGuiScale();
+        if (pixelsPerBlock >= LOD_MIN_PIXELS) return 1;
+        for (int factor : VoxelPreviewMesh.FACTORS) {
+            if (factor * pixelsPerBlock >= LOD_MIN_PIXELS) return factor;
         }
+        return VoxelPreviewMesh.FACTORS.get(VoxelPreviewMesh.FACTORS.size() - 1);
+    }
+
+    /**
+     * Returns the uploaded level closest to the wanted factor, preferring coarser levels.
+     * Starts preparing all levels in the background on first use.
+     */
+    @Nullable
+    private VoxelPreviewMesh nearestLod(int factor) {
+        if (!lodsRequested) {
+            lodsRequested = true;
+            requestLods();
+        }
+        PendingLod pending;
+        while ((pending = preparedLods.poll()) != null) {
+            if (pending.generation() != lodGeneration) {
+                pending.prepared().discard();
+                continue;
+            }
+            VoxelPreviewMesh uploaded = pending.prepared().upload();
+            if (uploaded != null) {
+                VoxelPreviewMesh old = lods.put(uploaded.factor(), uploaded);
+                if (old != null) old.close();
+            }
+        }
+
+        VoxelPreviewMesh best = lods.get(factor);
+        if (best != null) return best;
+        for (int candidate : VoxelPreviewMesh.FACTORS) {
+            if (candidate > factor && lods.containsKey(candidate)) return lods.get(candidate);
+        }
+        for (int i = VoxelPreviewMesh.FACTORS.size() - 1; i >= 0; i--) {
+            VoxelPreviewMesh finer = lods.get(VoxelPreviewMesh.FACTORS.get(i));
+            if (finer != null) return finer;
+        }
+        return null;
+    }
+
+    /** Prepares every level, coarsest first so something shows quickly. */
+    private void requestLods() {
+        int generation = lodGeneration;
+        MultiblockStructure source = structure;
+        Util.backgroundExecutor().execute(() -> {
+            try {
+                StructureGrid grid = StructureGrid.of(source);
+                for (int i = VoxelPreviewMesh.FACTORS.size() - 1; i >= 0; i--) {
+                    if (generation != lodGeneration) return;
+                    VoxelPreviewMesh.Prepared prepared = VoxelPreviewMesh.prepare(grid, VoxelPreviewMesh.FACTORS.get(i));
+                    if (generation != lodGeneration) {
+                        prepared.discard();
+                        return;
+                    }
+                    PendingLod pending = new PendingLod(generation, prepared);
+                    preparedLods.add(pending);
+                    // discardLods() may have drained the queue between the check and the add;
+                    // nothing would free this one then, as the render thread may never poll again
+                    if (generation != lodGeneration && preparedLods.remove(pending)) {
+                        prepared.discard();
+                        return;
+                    }
+                }
+            } catch (RuntimeException e) {
+                UniversalProjector.LOGGER.warn("Failed to build preview level of detail", e);
+            }
+        });
+    }
+
+    private void discardLods() {
+        lodGeneration++;
+        lodsRequested = false;
+        lods.values().forEach(VoxelPreviewMesh::close);
+        lods.clear();
+        PendingLod pending;
+        while ((pending = preparedLods.poll()) != null) {
+            pending.prepared().discard();
+        }
+    }
+
+    /** Releases GPU resources held for the preview. It is rebuilt on the next render. */
+    public void close() {
+        discardMesh();
+        discardLods();
     }
 
     private void renderNoPreview(GuiGraphics graphics, int x, int y, int width, int height) {
@@ -201,6 +368,11 @@ public class SimpleMultiblockPreviewRenderer {
             graphics.drawString(Minecraft.getInstance().font, sizeText,
                 x + 5, infoY + 20, 0xAAAAAA);
         }
+        if (metadata != null) {
+            String blocksText = String.format("Blocks: %d (%d types)", metadata.nonAirCount(), metadata.paletteSize());
+            graphics.drawString(Minecraft.getInstance().font, blocksText,
+                x + 5, infoY + 30, 0xAAAAAA);
+        }
     }
 
     public void onMouseScrolled(double scrollY) {
@@ -219,16 +391,33 @@ public class SimpleMultiblockPreviewRenderer {
     public void setAnimationEnabled(boolean enabled) {
         this.canTick = enabled;
         if (!enabled) {
-            lastStep = -1;
+            lastFrame = -1;
         }
     }
 
-    private void step() {
-        int start = blockIndex;
-        do {
-            if (++blockIndex > maxBlockIndex) {
-                blockIndex = 1;
-            }
-        } while (blockIndex != start);
+    /** Fraction of the build sequence currently shown, from 0 to 1. */
+    public double getBuildProgress() {
+        return buildProgress;
+    }
+
+    /** Scrubs the build sequence to the given fraction, stopping the build-up animation. */
+    public void setBuildProgress(double progress) {
+        this.buildProgress = Mth.clamp(progress, 0.0, 1.0);
+        this.animating = false;
+    }
+
+    /** Number of Y layers in the current structure, or 0 if nothing is shown. */
+    public int getLayerCount() {
+        return size != null ? size.getY() : 0;
+    }
+
+    /** Number of Y layers shown, counted from the bottom. */
+    public int getLayerLimit() {
+        return layerLimit;
+    }
+
+    /** Limits the preview to the given number of Y layers from the bottom. */
+    public void setLayerLimit(int layers) {
+        this.layerLimit = Mth.clamp(layers, 1, Math.max(1, getLayerCount()));
     }
 }
@@ -0,0 +1,287 @@
+package com.multiblockprojector.client.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.MeshData;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.api.BlockGroup;
+import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.api.TagEntry;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.color.block.BlockColors;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.neoforge.client.model.data.ModelData;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A structure tessellated once into GPU vertex buffers, one per chunk render layer.
+ * <p>
+ * Blocks are sorted by Y layer, then by the structure's iteration (build) order, and each
+ * layer's buffer holds the quads of earlier blocks first. For every block the mesh records how
+ * many quads precede the end of it, so {@link #draw(Matrix4f, int)} can draw any prefix of the
+ * build sequence (the build-up animation, scrubbing and the layer limit) as a plain index
+ * range of the same buffer, without re-meshing or touching the structure.
+ * <p>
+ * The mesh must be rebuilt when the displayed block states change (new structure, new variant,
+ * or a {@link BlockGroup} cycling to its next option, see {@link #cycles()}). Blocks rendered by
+ * a block entity renderer (chests, beds, ...) cannot be baked; they are returned by
+ * {@link #animated()} for the caller to draw the old way.
+ */
+public final class PreviewMesh implements AutoCloseable {
+
+    /** Full-bright light, matching the previous per-block GUI rendering. */
+    private static final int LIGHT = 0xF000F0;
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * One uploaded render layer. {@code quadEnds[i]} is the number of quads emitted for the
+     * first {@code i + 1} blocks of the sorted sequence.
+     */
+    private record Layer(RenderType type, VertexBuffer buffer, int[] quadEnds) {}
+
+    /** A block that has to be rendered per frame, with its position in the sorted sequence. */
+    public record AnimatedBlock(int index, BlockPos pos, BlockState state) {}
+
+    /** Accumulates one render layer while tessellating. */
+    private static final class LayerBuilder {
+        final ByteBufferBuilder allocator;
+        final BufferBuilder builder;
+        final int[] quadEnds;
+        int quads;
+
+        LayerBuilder(RenderType type, int blockCount) {
+            this.allocator = new ByteBufferBuilder(type.bufferSize());
+            this.builder = new BufferBuilder(allocator, VertexFormat.Mode.QUADS, DefaultVertexFormat.BLOCK);
+            this.quadEnds = new int[blockCount];
+        }
+    }
+
+    private final List<Layer> layers;
+    private final List<AnimatedBlock> animated;
+    private final int blockCount;
+    /** {@code layerEnds[y]} is the number of sorted blocks with a Y coordinate of at most {@code y}. */
+    private final int[] layerEnds;
+    private final boolean cycles;
+
+    private PreviewMesh(List<Layer> layers, List<AnimatedBlock> animated, int blockCount, int[] layerEnds, boolean cycles) {
+        this.layers = layers;
+        this.animated = animated;
+        this.blockCount = blockCount;
+        this.layerEnds = layerEnds;
+        this.cycles = cycles;
+    }
+
+    /**
+     * Tessellates a structure at the given tick (which selects the displayed option of each
+     * {@link BlockGroup}) and uploads it. Must be called on the render thread.
+     */
+    public static PreviewMesh build(MultiblockStructure structure, long tick) {
+        Minecraft mc = Minecraft.getInstance();
+        BlockColors colors = mc.getBlockColors();
+        RandomSource random = RandomSource.create();
+        PoseStack poseStack = new PoseStack();
+
+        // Grid-backed and procedural structures already iterate layer by layer and are walked
+        // in place; anything else gets a stable sort, keeping build order within a layer.
+        Iterable<Map.Entry<BlockPos, BlockEntry>> ordered = structure.blocks().entrySet();
+        if (!structure.isLayerOrdered()) {
+            List<Map.Entry<BlockPos, BlockEntry>> sorted = new ArrayList<>(structure.blocks().entrySet());
+            sorted.sort(Comparator.comparingInt(e -> e.getKey().getY()));
+            ordered = sorted;
+        }
+        int blockCount = structure.blocks().size();
+        int sizeY = Math.max(1, structure.size().getY());
+        int[] layerEnds = new int[sizeY];
+
+        Map<RenderType, LayerBuilder> builders = new HashMap<>();
+        List<AnimatedBlock> animated = new ArrayList<>();
+        boolean cycles = false;
+
+        try {
+            int i = 0;
+            for (var entry : ordered) {
+                if (i == blockCount) break;
+                BlockEntry blockEntry = entry.getValue();
+                if (blockEntry instanceof BlockGroup group && group.options().size() > 1
+                        || blockEntry instanceof TagEntry tag && tag.options().size() > 1) {
+                    cycles = true;
+                }
+                BlockState state = blockEntry.displayState(tick);
+                RenderShape shape = state.getRenderShape();
+                BlockPos pos = entry.getKey();
+
+                if (shape == RenderShape.ENTITYBLOCK_ANIMATED) {
+                    animated.add(new AnimatedBlock(i, pos, state));
+                } else if (shape == RenderShape.MODEL) {
+                    tessellate(mc, colors, random, poseStack, builders, blockCount, pos, state);
+                }
+
+                for (LayerBuilder layer : builders.values()) {
+                    layer.quadEnds[i] = layer.quads;
+                }
+                if (pos.getY() >= 0 && pos.getY() < sizeY) {
+                    layerEnds[pos.getY()] = i + 1;
+                }
+                i++;
+            }
+
+            // Upload in chunk layer order so blending matches the world
+            List<Layer> layers = new ArrayList<>();
+            for (RenderType type : RenderType.chunkBufferLayers()) {
+                LayerBuilder layer = builders.get(type);
+                if (layer == null) continue;
+                MeshData mesh = layer.builder.build();
+                if (mesh == null) continue;
+                VertexBuffer buffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+                buffer.bind();
+                buffer.upload(mesh);
+                layers.add(new Layer(type, buffer, layer.quadEnds));
+            }
+            VertexBuffer.unbind();
+
+            // Layers without blocks end where the layer below does
+            for (int y = 1; y < sizeY; y++) {
+                layerEnds[y] = Math.max(layerEnds[y], layerEnds[y - 1]);
+            }
+            layerEnds[sizeY - 1] = blockCount;
+
+            return new PreviewMesh(List.copyOf(layers), List.copyOf(animated), blockCount, layerEnds, cycles);
+        } finally {
+            builders.values().forEach(layer -> layer.allocator.close());
+        }
+    }
+
+    private static void tessellate(Minecraft mc, BlockColors colors, RandomSource random, PoseStack poseStack,
+                                   Map<RenderType, LayerBuilder> builders, int blockCount,
+                                   BlockPos pos, BlockState state) {
+        BakedModel model = mc.getBlockRenderer().getBlockModel(state);
+        poseStack.pushPose();
+        poseStack.translate(pos.getX(), pos.getY(), pos.getZ());
+        try {
+            random.setSeed(42L);
+            for (RenderType type : model.getRenderTypes(state, random, ModelData.EMPTY)) {
+                LayerBuilder layer = builders.computeIfAbsent(type, t -> new LayerBuilder(t, blockCount));
+                for (Direction direction : DIRECTIONS) {
+                    random.setSeed(42L);
+                    emitQuads(layer, poseStack.last(), colors, state,
+                        model.getQuads(state, direction, random, ModelData.EMPTY, type));
+                }
+                random.setSeed(42L);
+                emitQuads(layer, poseStack.last(), colors, state,
+                    model.getQuads(state, null, random, ModelData.EMPTY, type));
+            }
+        } catch (Exception e) {
+            // Skip models that fail to tessellate, as the per-block renderer did
+        } finally {
+            poseStack.popPose();
+        }
+    }
+
+    private static void emitQuads(LayerBuilder layer, PoseStack.Pose pose, BlockColors colors,
+                                  BlockState state, List<BakedQuad> quads) {
+        for (BakedQuad quad : quads) {
+            float r = 1f, g = 1f, b = 1f;
+            if (quad.isTinted()) {
+                int color = colors.getColor(state, null, null, quad.getTintIndex());
+                r = (color >> 16 & 0xFF) / 255f;
+                g = (color >> 8 & 0xFF) / 255f;
+                b = (color & 0xFF) / 255f;
+            }
+            float shade = quad.isShade() ? shade(quad.getDirection()) : 1f;
+            layer.builder.putBulkData(pose, quad, r * shade, g * shade, b * shade, 1f, LIGHT, OverlayTexture.NO_OVERLAY);
+            layer.quads++;
+        }
+    }
+
+    /** Directional face shading, as applied to terrain in the overworld. */
+    private static float shade(Direction direction) {
+        return switch (direction) {
+            case DOWN -> 0.5f;
+            case UP -> 1.0f;
+            case NORTH, SOUTH -> 0.8f;
+            case WEST, EAST -> 0.6f;
+        };
+    }
+
+    /** Whether the mesh shows a cycling {@link BlockGroup} or {@link TagEntry} and goes stale when its phase changes. */
+    public boolean cycles() {
+        return cycles;
+    }
+
+    /** Number of blocks in the sorted build sequence. */
+    public int blockCount() {
+        return blockCount;
+    }
+
+    /** Number of blocks in the sequence up to and including the given Y layer. */
+    public int blocksThroughLayer(int layer) {
+        if (layer < 0) return 0;
+        return layerEnds[Math.min(layer, layerEnds.length - 1)];
+    }
+
+    /** Blocks that were not baked and must be rendered every frame. */
+    public List<AnimatedBlock> animated() {
+        return animated;
+    }
+
+    /**
+     * Draws the first {@code blockLimit} blocks of the build sequence with the given pose on top
+     * of the current model-view matrix.
+     */
+    public void draw(Matrix4f pose, int blockLimit) {
+        int limit = Math.min(blockLimit, blockCount);
+        if (limit <= 0) return;
+
+        Matrix4f modelView = new Matrix4f(RenderSystem.getModelViewMatrix()).mul(pose);
+        VertexFormat.IndexType indexType = RenderSystem.getSequentialBuffer(VertexFormat.Mode.QUADS).type();
+        for (Layer layer : layers) {
+            int quads = layer.quadEnds[limit - 1];
+            if (quads == 0) continue;
+
+            layer.type.setupRenderState();
+            ShaderInstance shader = RenderSystem.getShader();
+            if (shader != null) {
+                layer.buffer.bind();
+                shader.setDefaultUniforms(VertexFormat.Mode.QUADS, modelView, RenderSystem.getProjectionMatrix(),
+                    Minecraft.getInstance().getWindow());
+                if (shader.CHUNK_OFFSET != null) {
+                    shader.CHUNK_OFFSET.set(0f, 0f, 0f);
+                }
+                shader.apply();
+                // Six indices per quad in the shared sequential quad index buffer
+                RenderSystem.drawElements(VertexFormat.Mode.QUADS.asGLMode, quads * 6, indexType.asGLType);
+                shader.clear();
+            }
+            layer.type.clearRenderState();
+        }
+        VertexBuffer.unbind();
+    }
+
+    /** Releases the GPU buffers. */
+    @Override
+    public void close() {
+        for (Layer layer : layers) {
+            layer.buffer.close();
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.multiblockprojector.client.render;
+
+import com.mojang.blaze3d.pipeline.RenderTarget;
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.VertexSorting;
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.api.StructureGrid;
+import com.multiblockprojector.client.schematic.SchematicCache;
+import com.multiblockprojector.client.schematic.SchematicEntry;
+import com.multiblockprojector.client.schematic.SchematicIndex;
+import com.multiblockprojector.common.registry.MultiblockCatalog;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.GuiGraphics;
+import net.minecraft.client.renderer.texture.DynamicTexture;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.fml.ModList;
+import net.neoforged.fml.loading.FMLPaths;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fStack;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Small pre-rendered pictures of multiblocks for the selection list.
+ * <p>
+ * Each (definition, variant) is rendered offscreen once, stored in a slot of a shared atlas
+ * texture and written to a PNG in {@code config/multiblockprojector/thumbnails}. The PNG is keyed
+ * by registry id, variant and the owning mod's version, or, for schematics and data-driven
+ * multiblocks, by the {@link com.multiblockprojector.api.StructureFingerprint} of the structure;
+ * and by this mod's version, since it both builds most structures and renders
+ * them. Later sessions read the picture back without generating the structure again.
+ * <p>
+ * Work is requested by {@link #draw} as list entries become visible and runs from a
+ * most-recently-requested-first queue: disk reads, structure generation and downsampling happen
+ * on background threads, and at most one offscreen render happens per frame. Requests for
+ * entries that scrolled out of view before their turn are dropped.
+ */
+public final class ThumbnailCache {
+
+    /** Edge length of one thumbnail in pixels. */
+    public static final int SIZE = 32;
+
+    private static final int ATLAS_SLOTS_PER_SIDE = 32;
+    private static final int ATLAS_SIZE = SIZE * ATLAS_SLOTS_PER_SIDE;
+    private static final int ATLAS_SLOTS = ATLAS_SLOTS_PER_SIDE * ATLAS_SLOTS_PER_SIDE;
+    private static final ResourceLocation ATLAS_ID =
+        ResourceLocation.fromNamespaceAndPath(UniversalProjector.MODID, "thumbnail_atlas");
+
+    private static final Path DISK_DIR = FMLPaths.CONFIGDIR.get().resolve("multiblockprojector").resolve("thumbnails");
+
+    /** Background jobs allowed in flight at once, so a fast scroll does not flood the executor. */
+    private static final int MAX_IN_FLIGHT = 4;
+    /** Above this many blocks, thumbnails are drawn from a downsampled voxel mesh. */
+    private static final int VOXEL_BLOCK_THRESHOLD = 512;
+
+    private enum Status { NEW, QUEUED, LOADING, READY, FAILED }
+
+    private record Target(MultiblockDefinition definition, int variant) {}
+
+    private static final class Thumb {
+        final Target target;
+        Status status = Status.NEW;
+        int slot = -1;
+        long lastSeenFrame;
+
+        Thumb(Target target) {
+            this.target = target;
+        }
+    }
+
+    /**
+     * Outcome of a background job: a picture read from disk, or what is needed to render one.
+     * Exactly one of the fields is set unless the job failed.
+     */
+    private record Result(Thumb thumb, @Nullable Path diskFile, @Nullable NativeImage image,
+                          @Nullable MultiblockStructure structure, @Nullable VoxelPreviewMesh.Prepared voxels,
+                          @Nullable BlockPos size) {
+        static Result failed(Thumb thumb) {
+            return new Result(thumb, null, null, null, null, null);
+        }
+    }
+
+    private static final Map<Target, Thumb> THUMBS = new HashMap<>();
+    /** Most recently requested first. */
+    private static final ArrayDeque<Thumb> QUEUE = new ArrayDeque<>();
+    private static final Queue<Result> COMPLETED = new ConcurrentLinkedQueue<>();
+    private static final List<Result> TO_RENDER = new ArrayList<>();
+    /** Access-ordered: iteration starts at the least recently drawn thumbnail. */
+    private static final LinkedHashMap<Thumb, Integer> SLOT_OWNERS = new LinkedHashMap<>(16, 0.75f, true);
+    private static final ArrayDeque<Integer> FREE_SLOTS = new ArrayDeque<>();
+
+    @Nullable
+    private static DynamicTexture atlas;
+    @Nullable
+    private static RenderTarget renderTarget;
+    private static long frame;
+    private static int inFlight;
+
+    private ThumbnailCache() {}
+
+    // ---- Drawing ----
+
+    /**
+     * Draws the thumbnail of a definition's variant, or requests it if it is not ready yet.
+     * Returns whether anything was drawn. Render thread only.
+     */
+    public static boolean draw(GuiGraphics graphics, MultiblockDefinition definition, int variant,
+                               int x, int y, int size) {
+        Thumb thumb = THUMBS.computeIfAbsent(new Target(definition, variant), Thumb::new);
+        thumb.lastSeenFrame = frame;
+
+        if (thumb.status == Status.NEW) {
+            thumb.status = Status.QUEUED;
+            QUEUE.addFirst(thumb);
+            return false;
+        }
+        if (thumb.status != Status.READY) return false;
+
+        SLOT_OWNERS.get(thumb); // mark as recently used
+        int u = (thumb.slot % ATLAS_SLOTS_PER_SIDE) * SIZE;
+        int v = (thumb.slot / ATLAS_SLOTS_PER_SIDE) * SIZE;
+        RenderSystem.enableBlend();
+        graphics.blit(ATLAS_ID, x, y, size, size, u, v, SIZE, SIZE, ATLAS_SIZE, ATLAS_SIZE);
+        RenderSystem.disableBlend();
+        return true;
+    }
+
+    /**
+     * Advances the queue: uploads finished pictures, renders at most one new thumbnail and
+     * starts background jobs for entries still on screen. Call once per frame, after the list
+     * has been drawn.
+     */
+    public static void process() {
+        Result result;
+        while ((result = COMPLETED.poll()) != null) {
+            inFlight--;
+            if (result.image() != null) {
+                try (NativeImage image = result.image()) {
+                    upload(result.thumb(), image);
+                }
+            } else if (result.structure() != null || result.voxels() != null) {
+                TO_RENDER.add(result);
+            } else {
+                result.thumb().status = Status.FAILED;
+            }
+        }
+
+        if (!TO_RENDER.isEmpty()) {
+            renderAndStore(TO_RENDER.remove(TO_RENDER.size() - 1));
+        }
+
+        while (inFlight < MAX_IN_FLIGHT && !QUEUE.isEmpty()) {
+            Thumb thumb = QUEUE.pollFirst();
+            if (thumb.lastSeenFrame < frame - 1) {
+                // Scrolled out of view before its turn; asked for again when it comes back
+                thumb.status = Status.NEW;
+                continue;
+            }
+            if (!submit(thumb)) {
+                thumb.status = Status.FAILED;
+            }
+        }
+        frame++;
+    }
+
+    // ---- Background jobs ----
+
+    private static boolean submit(Thumb thumb) {
+        MultiblockDefinition definition = thumb.target.definition();
+        if (thumb.target.variant() < 0 || thumb.target.variant() >= definition.variants().size()) return false;
+
+        var catalog = MultiblockCatalog.get();
+        ResourceLocation id = catalog.idOf(definition);
+        if (id == null) return false;
+        if (catalog.isSchematic(definition)) {
+            SchematicEntry entry = SchematicIndex.get().getEntryById(id);
+            if (entry == null) return false;
+            Path file = entry.filePath();
+            thumb.status = Status.LOADING;
+            inFlight++;
+            // Keyed on content, so the same build in several folders or formats shares a picture.
+            // The decoded structure is needed anyway once the schematic is previewed or projected.
+            Util.backgroundExecutor().execute(() ->
+                COMPLETED.add(resolveByContent(thumb, "schematic", () -> SchematicCache.get(file))));
+            return true;
+        }
+
+        MultiblockDefinition.SizeVariant variant = definition.variants().get(thumb.target.variant());
+        if (catalog.isData(definition)) {
+            // Datapack files change without any mod version changing, so their pictures are
+            // keyed on content too. The compiled structure is already at hand.
+            thumb.status = Status.LOADING;
+            inFlight++;
+            Util.backgroundExecutor().execute(() ->
+                COMPLETED.add(resolveByContent(thumb, "data", () -> definition.structureProvider().create(variant, null))));
+            return true;
+        }
+
+        String name = sanitize(id.getNamespace() + "." + id.getPath() + "-" + thumb.target.variant()
+            + "-" + modVersion(definition.modId()) + "-" + modVersion(UniversalProjector.MODID));
+        Path diskFile = DISK_DIR.resolve(name + ".png");
+
+        thumb.status = Status.LOADING;
+        inFlight++;
+        // Providers are required to be thread-safe and not to touch the level
+        Util.backgroundExecutor().execute(() ->
+            COMPLETED.add(resolve(thumb, diskFile, () -> definition.structureProvider().create(variant, null))));
+        return true;
+    }
+
+    private static String modVersion(String modId) {
+        return ModList.get().getModContainerById(modId)
+            .map(container -> container.getModInfo().getVersion().toString())
+            .orElse("0");
+    }
+
+    private interface StructureSource {
+        @Nullable
+        MultiblockStructure get();
+    }
+
+    /** Reads the cached picture, or generates what the render thread needs to draw it. */
+    private static Result resolve(Thumb thumb, Path diskFile, StructureSource source) {
+        try {
+            if (Files.isRegularFile(diskFile)) {
+                try (InputStream in = Files.newInputStream(diskFile)) {
+                    NativeImage image = NativeImage.read(in);
+                    if (image.getWidth() == SIZE && image.getHeight() == SIZE) {
+                        return new Result(thumb, diskFile, image, null, null, null);
+                    }
+                    image.close();
+                } catch (IOException e) {
+                    UniversalProjector.LOGGER.warn("Ignoring unreadable thumbnail {}", diskFile, e);
+                }
+            }
+
+            MultiblockStructure structure = source.get();
+            if (structure == null || structure.blocks().isEmpty()) return Result.failed(thumb);
+            if (structure.blocks().size() <= VOXEL_BLOCK_THRESHOLD) {
+                return new Result(thumb, diskFile, null, structure, null, structure.size());
+            }
+            // Aim for roughly one voxel per thumbnail pixel
+            BlockPos size = structure.size();
+            int longest = Math.max(size.getX(), Math.max(size.getY(), size.getZ()));
+            int factor = Math.max(1, (longest + SIZE - 1) / SIZE);
+            VoxelPreviewMesh.Prepared voxels = VoxelPreviewMesh.prepare(StructureGrid.of(structure), factor);
+            return new Result(thumb, diskFile, null, null, voxels, size);
+        } catch (RuntimeException e) {
+            UniversalProjector.LOGGER.warn("Failed to prepare thumbnail for {}",
+                thumb.target.definition().displayName().getString(), e);
+            return Result.failed(thumb);
+        }
+    }
+
+    /** Like {@link #resolve}, but names the picture after the structure's fingerprint. */
+    private static Result resolveByContent(Thumb thumb, String prefix, StructureSource source) {
+        MultiblockStructure structure;
+        String name;
+        try {
+            structure = source.get();
+            if (structure == null) return Result.failed(thumb);
+            name = sanitize(prefix + "-" + structure.fingerprint() + "-" + modVersion(UniversalProjector.MODID));
+        } catch (RuntimeException e) {
+            UniversalProjector.LOGGER.warn("Failed to prepare thumbnail for {}",
+                thumb.target.definition().displayName().getString(), e);
+            return Result.failed(thumb);
+        }
+        return resolve(thumb, DISK_DIR.resolve(name + ".png"), () -> structure);
+    }
+
+    private static String sanitize(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9._-]", "_");
+    }
+
+    // ---- Offscreen rendering ----
+
+    private static void renderAndStore(Result result) {
+        NativeImage image;
+        try {
+            image = renderOffscreen(result);
+        } catch (RuntimeException e) {
+            UniversalProjector.LOGGER.warn("Failed to render thumbnail for {}",
+                result.thumb().target.definition().displayName().getString(), e);
+            image = null;
+        }
+        if (image == null) {
+            result.thumb().status = Status.FAILED;
+            return;
+        }
+
+        NativeImage copy = new NativeImage(SIZE, SIZE, false);
+        copy.copyFrom(image);
+        Path diskFile = result.diskFile();
+        Util.ioPool().execute(() -> {
+            try (copy) {
+                Files.createDirectories(DISK_DIR);
+                copy.writeToFile(diskFile);
+            } catch (IOException e) {
+                UniversalProjector.LOGGER.warn("Failed to write thumbnail {}", diskFile, e);
+            }
+        });
+
+        try (image) {
+            upload(result.thumb(), image);
+        }
+    }
+
+    /** Draws the structure into the offscreen target and reads the pixels back. */
+    @Nullable
+    private static NativeImage renderOffscreen(Result result) {
+        PreviewMesh mesh = null;
+        VoxelPreviewMesh voxels = null;
+        if (result.structure() != null) {
+            mesh = PreviewMesh.build(result.structure(), 0);
+        } else if (result.voxels() != null) {
+            voxels = result.voxels().upload();
+            if (voxels == null) return null;
+        }
+        BlockPos size = result.size();
+
+        if (renderTarget == null) {
+            renderTarget = new TextureTarget(SIZE, SIZE, true, Minecraft.ON_OSX);
+        }
+        renderTarget.setClearColor(0f, 0f, 0f, 0f);
+        renderTarget.clear(Minecraft.ON_OSX);
+        renderTarget.bindWrite(true);
+
+        Matrix4f oldProjection = RenderSystem.getProjectionMatrix();
+        VertexSorting oldSorting = RenderSystem.getVertexSorting();
+        Matrix4fStack modelView = RenderSystem.getModelViewStack();
+        modelView.pushMatrix();
+        modelView.identity();
+        RenderSystem.applyModelViewMatrix();
+        // Y points down, as in the GUI, so the camera matches the default preview angle
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(-1f, 1f, 1f, -1f, -10f, 10f), VertexSorting.ORTHOGRAPHIC_Z);
+        RenderSystem.setShaderColor(1f, 1f, 1f, 1f);
+        RenderSystem.enableDepthTest();
+
+        try {
+            float scale = 1.9f / (float) Math.sqrt(
+                (double) size.getX() * size.getX() + (double) size.getY() * size.getY() + (double) size.getZ() * size.getZ());
+            Matrix4f pose = new Matrix4f()
+                .scale(scale, -scale, scale)
+                .rotateX((float) Math.toRadians(25))
+                .rotateY((float) Math.toRadians(-45))
+                .translate(-size.getX() / 2f, -size.getY() / 2f, -size.getZ() / 2f);
+            if (mesh != null) {
+                mesh.draw(pose, mesh.blockCount());
+            } else {
+                voxels.draw(pose, size.getY() - 1);
+            }
+
+            NativeImage image = new NativeImage(SIZE, SIZE, false);
+            RenderSystem.bindTexture(renderTarget.getColorTextureId());
+            image.downloadTexture(0, false);
+            image.flipY();
+            return image;
+        } finally {
+            RenderSystem.disableDepthTest();
+            modelView.popMatrix();
+            RenderSystem.applyModelViewMatrix();
+            RenderSystem.setProjectionMatrix(oldProjection, oldSorting);
+            Minecraft.getInstance().getMainRenderTarget().bindWrite(true);
+            if (mesh != null) mesh.close();
+            if (voxels != null) voxels.close();
+        }
+    }
+
+    // ---- Atlas ----
+
+    /** Copies a picture into a free (or the least recently drawn) atlas slot. */
+    private static void upload(Thumb thumb, NativeImage image) {
+        if (atlas == null) {
+            atlas = new DynamicTexture(ATLAS_SIZE, ATLAS_SIZE, true);
+            Minecraft.getInstance().getTextureManager().register(ATLAS_ID, atlas);
+            for (int slot = 0; slot < ATLAS_SLOTS; slot++) FREE_SLOTS.add(slot);
+        }
+
+        int slot;
+        if (thumb.slot >= 0) {
+            slot = thumb.slot;
+        } else if (!FREE_SLOTS.isEmpty()) {
+            slot = FREE_SLOTS.poll();
+        } else {
+            var eldest = SLOT_OWNERS.entrySet().iterator().next();
+            Thumb evicted = eldest.getKey();
+            slot = eldest.getValue();
+            SLOT_OWNERS.remove(evicted);
+            // Reloaded from disk if it is drawn again
+            evicted.slot = -1;
+            evicted.status = Status.NEW;
+        }
+
+        int x = (slot % ATLAS_SLOTS_PER_SIDE) * SIZE;
+        int y = (slot / ATLAS_SLOTS_PER_SIDE) * SIZE;
+        NativeImage pixels = atlas.getPixels();
+        image.copyRect(pixels, 0, 0, x, y, SIZE, SIZE, false, false);
+        atlas.bind();
+        pixels.upload(0, x, y, x, y, SIZE, SIZE, false, false);
+
+        thumb.slot = slot;
+        thumb.status = Status.READY;
+        SLOT_OWNERS.put(thumb, slot);
+    }
+}
@@ -0,0 +1,275 @@
+package com.multiblockprojector.client.render;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.DefaultVertexFormat;
+import com.mojang.blaze3d.vertex.MeshData;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import com.mojang.blaze3d.vertex.VertexFormat;
+import com.multiblockprojector.api.AirEntry;
+import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.api.StructureGrid;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.MapColor;
+import org.joml.Matrix4f;
+
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A level-of-detail preview: the structure downsampled into {@code factor³} voxels, each
+ * drawn as a flat-coloured box in the dominant map colour of the blocks it covers.
+ * <p>
+ * Only faces between a filled and an empty voxel are emitted, so the mesh size follows the
+ * structure's surface at the reduced resolution rather than its block count. Geometry is
+ * prepared off the render thread with {@link #prepare} and uploaded with
+ * {@link Prepared#upload()}.
+ */
+public final class VoxelPreviewMesh implements AutoCloseable {
+
+    /** Downsampling factors, finest first. */
+    public static final List<Integer> FACTORS = List.of(2, 4, 8);
+
+    /** Used for blocks without a map colour (glass, ...), so they still show up. */
+    private static final int FALLBACK_COLOR = 0x9A9A9A;
+    private static final int EMPTY = -1;
+
+    private final int factor;
+    private final VertexBuffer buffer;
+    /** {@code quadsThroughLayer[ly]} is the number of quads emitted for voxel layers {@code 0..ly}. */
+    private final int[] quadsThroughLayer;
+
+    private VoxelPreviewMesh(int factor, VertexBuffer buffer, int[] quadsThroughLayer) {
+        this.factor = factor;
+        this.buffer = buffer;
+        this.quadsThroughLayer = quadsThroughLayer;
+    }
+
+    /** Geometry built off-thread and waiting to be uploaded on the render thread. */
+    public static final class Prepared {
+        private final int factor;
+        private final ByteBufferBuilder allocator;
+        @Nullable
+        private final MeshData mesh;
+        private final int[] quadsThroughLayer;
+
+        private Prepared(int factor, ByteBufferBuilder allocator, @Nullable MeshData mesh, int[] quadsThroughLayer) {
+            this.factor = factor;
+            this.allocator = allocator;
+            this.mesh = mesh;
+            this.quadsThroughLayer = quadsThroughLayer;
+        }
+
+        public int factor() {
+            return factor;
+        }
+
+        /** Uploads the geometry. Returns null if there was nothing to draw. Render thread only. */
+        @Nullable
+        public VoxelPreviewMesh upload() {
+            try {
+                if (mesh == null) return null;
+                VertexBuffer buffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+                buffer.bind();
+                buffer.upload(mesh);
+                VertexBuffer.unbind();
+                return new VoxelPreviewMesh(factor, buffer, quadsThroughLayer);
+            } finally {
+                allocator.close();
+            }
+        }
+
+        /** Frees the geometry without uploading it. */
+        public void discard() {
+            if (mesh != null) mesh.close();
+            allocator.close();
+        }
+    }
+
+    /** Downsamples a grid by the given factor and tessellates the voxels. Safe on any thread. */
+    public static Prepared prepare(StructureGrid grid, int factor) {
+        int[] colors = voxelColors(grid, factor);
+        int lx = ceilDiv(grid.sizeX(), factor);
+        int ly = ceilDiv(grid.sizeY(), factor);
+        int lz = ceilDiv(grid.sizeZ(), factor);
+
+        ByteBufferBuilder allocator = new ByteBufferBuilder(8192);
+        BufferBuilder builder = new BufferBuilder(allocator, VertexFormat.Mode.QUADS, DefaultVertexFormat.POSITION_COLOR);
+        int[] quadsThroughLayer = new int[ly];
+        int quads = 0;
+
+        for (int y = 0; y < ly; y++) {
+            for (int z = 0; z < lz; z++) {
+                for (int x = 0; x < lx; x++) {
+                    int color = colors[(y * lz + z) * lx + x];
+                    if (color == EMPTY) continue;
+
+                    float x0 = x * factor, y0 = y * factor, z0 = z * factor;
+                    float x1 = Math.min((x + 1) * factor, grid.sizeX());
+                    float y1 = Math.min((y + 1) * factor, grid.sizeY());
+                    float z1 = Math.min((z + 1) * factor, grid.sizeZ());
+
+                    if (isEmpty(colors, lx, ly, lz, x, y - 1, z)) {
+                        quad(builder, shade(color, 0.5f), x0, y0, z0, x1, y0, z0, x1, y0, z1, x0, y0, z1);
+                        quads++;
+                    }
+                    if (isEmpty(colors, lx, ly, lz, x, y + 1, z)) {
+                        quad(builder, color | 0xFF000000, x0, y1, z0, x0, y1, z1, x1, y1, z1, x1, y1, z0);
+                        quads++;
+                    }
+                    if (isEmpty(colors, lx, ly, lz, x, y, z - 1)) {
+                        quad(builder, shade(color, 0.8f), x0, y0, z0, x0, y1, z0, x1, y1, z0, x1, y0, z0);
+                        quads++;
+                    }
+                    if (isEmpty(colors, lx, ly, lz, x, y, z + 1)) {
+                        quad(builder, shade(color, 0.8f), x0, y0, z1, x1, y0, z1, x1, y1, z1, x0, y1, z1);
+                        quads++;
+                    }
+                    if (isEmpty(colors, lx, ly, lz, x - 1, y, z)) {
+                        quad(builder, shade(color, 0.6f), x0, y0, z0, x0, y0, z1, x0, y1, z1, x0, y1, z0);
+                        quads++;
+                    }
+                    if (isEmpty(colors, lx, ly, lz, x + 1, y, z)) {
+                        quad(builder, shade(color, 0.6f), x1, y0, z0, x1, y1, z0, x1, y1, z1, x1, y0, z1);
+                        quads++;
+                    }
+                }
+            }
+            quadsThroughLayer[y] = quads;
+        }
+        return new Prepared(factor, allocator, builder.build(), quadsThroughLayer);
+    }
+
+    /**
+     * Computes the dominant map colour of every voxel, or {@link #EMPTY} for voxels that cover
+     * no visible block. Colours are resolved once per palette entry, not per block.
+     */
+    private static int[] voxelColors(StructureGrid grid, int factor) {
+        List<BlockEntry> palette = grid.palette();
+        int[] paletteColors = new int[palette.size()];
+        for (int i = 0; i < paletteColors.length; i++) {
+            paletteColors[i] = mapColor(palette.get(i));
+        }
+
+        int lx = ceilDiv(grid.sizeX(), factor);
+        int ly = ceilDiv(grid.sizeY(), factor);
+        int lz = ceilDiv(grid.sizeZ(), factor);
+        int[] colors = new int[lx * ly * lz];
+        int[] scratch = new int[factor * factor * factor];
+
+        for (int vy = 0; vy < ly; vy++) {
+            for (int vz = 0; vz < lz; vz++) {
+                for (int vx = 0; vx < lx; vx++) {
+                    int count = 0;
+                    for (int y = vy * factor; y < Math.min((vy + 1) * factor, grid.sizeY()); y++) {
+                        for (int z = vz * factor; z < Math.min((vz + 1) * factor, grid.sizeZ()); z++) {
+                            int row = grid.index(0, y, z);
+                            for (int x = vx * factor; x < Math.min((vx + 1) * factor, grid.sizeX()); x++) {
+                                int cell = grid.paletteIndexAt(row + x);
+                                if (cell == StructureGrid.EMPTY) continue;
+                                int color = paletteColors[cell];
+                                if (color != EMPTY) scratch[count++] = color;
+                            }
+                        }
+                    }
+                    colors[(vy * lz + vz) * lx + vx] = count == 0 ? EMPTY : mode(scratch, count);
+                }
+            }
+        }
+        return colors;
+    }
+
+    private static int mapColor(BlockEntry entry) {
+        if (entry instanceof AirEntry) return EMPTY;
+        BlockState state = entry.displayState(0);
+        if (state.isAir() || state.getRenderShape() == RenderShape.INVISIBLE) return EMPTY;
+        MapColor color = state.getMapColor(EmptyBlockGetter.INSTANCE, BlockPos.ZERO);
+        return color == MapColor.NONE ? FALLBACK_COLOR : color.col;
+    }
+
+    /** Most frequent value among the first {@code count} entries; sorts them in place. */
+    private static int mode(int[] values, int count) {
+        Arrays.sort(values, 0, count);
+        int best = values[0], bestRun = 0;
+        for (int i = 0; i < count; ) {
+            int j = i;
+            while (j < count && values[j] == values[i]) j++;
+            if (j - i > bestRun) {
+                bestRun = j - i;
+                best = values[i];
+            }
+            i = j;
+        }
+        return best;
+    }
+
+    private static boolean isEmpty(int[] colors, int lx, int ly, int lz, int x, int y, int z) {
+        if (x < 0 || y < 0 || z < 0 || x >= lx || y >= ly || z >= lz) return true;
+        return colors[(y * lz + z) * lx + x] == EMPTY;
+    }
+
+    private static void quad(BufferBuilder builder, int argb,
+                             float ax, float ay, float az, float bx, float by, float bz,
+                             float cx, float cy, float cz, float dx, float dy, float dz) {
+        builder.addVertex(ax, ay, az).setColor(argb);
+        builder.addVertex(bx, by, bz).setColor(argb);
+        builder.addVertex(cx, cy, cz).setColor(argb);
+        builder.addVertex(dx, dy, dz).setColor(argb);
+    }
+
+    private static int shade(int rgb, float shade) {
+        int r = (int) ((rgb >> 16 & 0xFF) * shade);
+        int g = (int) ((rgb >> 8 & 0xFF) * shade);
+        int b = (int) ((rgb & 0xFF) * shade);
+        return 0xFF000000 | r << 16 | g << 8 | b;
+    }
+
+    private static int ceilDiv(int value, int divisor) {
+        return (value + divisor - 1) / divisor;
+    }
+
+    /** The downsampling factor of this mesh. */
+    public int factor() {
+        return factor;
+    }
+
+    /**
+     * Draws the voxels up to the voxel layer containing block layer {@code lastBlockLayer},
+     * with the given pose on top of the current model-view matrix.
+     */
+    public void draw(Matrix4f pose, int lastBlockLayer) {
+        if (lastBlockLayer < 0) return;
+        int quads = quadsThroughLayer[Math.min(lastBlockLayer / factor, quadsThroughLayer.length - 1)];
+        if (quads == 0) return;
+
+        RenderType type = RenderType.debugQuads();
+        type.setupRenderState();
+        ShaderInstance shader = RenderSystem.getShader();
+        if (shader != null) {
+            buffer.bind();
+            shader.setDefaultUniforms(VertexFormat.Mode.QUADS,
+                new Matrix4f(RenderSystem.getModelViewMatrix()).mul(pose),
+                RenderSystem.getProjectionMatrix(), Minecraft.getInstance().getWindow());
+            shader.apply();
+            RenderSystem.drawElements(VertexFormat.Mode.QUADS.asGLMode, quads * 6,
+                RenderSystem.getSequentialBuffer(VertexFormat.Mode.QUADS).type().asGLType);
+            shader.clear();
+            VertexBuffer.unbind();
+        }
+        type.clearRenderState();
+    }
+
+    /** Releases the GPU buffer. */
+    @Override
+    public void close() {
+        buffer.close();
+    }
+}
@@ -0,0 +1,130 @@
+package com.multiblockprojector.client.schematic;
+
+import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.api.StructureGrid;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtUtils;
+import net.minecraft.nbt.Tag;
+import net.minecraft.nbt.visitors.FieldSelector;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads Litematica schematics ({@code .litematic}).
+ * <p>
+ * A litematic holds one or more regions. Each region stores a block state palette and a
+ * long array of bit-packed palette indices (entries may straddle two longs) in
+ * {@code (y * sizeZ + z) * sizeX + x} order. Regions are merged into one grid spanning
+ * their combined bounding box; indices are unpacked sequentially with a running bit cursor.
+ */
+public class LitematicReader {
+
+    @Nullable
+    public static BlockPos readSize(Path file) throws IOException {
+        CompoundTag root = SchematicLoader.readFields(file,
+            new FieldSelector("Metadata", CompoundTag.TYPE, "EnclosingSize"));
+        CompoundTag size = root.getCompound("Metadata").getCompound("EnclosingSize");
+        if (!size.contains("x", Tag.TAG_INT)) return null;
+        return new BlockPos(Math.abs(size.getInt("x")), Math.abs(size.getInt("y")), Math.abs(size.getInt("z")));
+    }
+
+    @Nullable
+    public static StructureGrid load(Path file) throws IOException {
+        CompoundTag root = SchematicLoader.readCompressed(file);
+        CompoundTag regions = root.getCompound("Regions");
+        if (regions.isEmpty()) return null;
+
+        // Combined bounding box of all regions. Negative region sizes extend backwards from the position.
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+        for (String name : regions.getAllKeys()) {
+            Region region = Region.read(regions.getCompound(name));
+            if (region == null) continue;
+            minX = Math.min(minX, region.originX);
+            minY = Math.min(minY, region.originY);
+            minZ = Math.min(minZ, region.originZ);
+            maxX = Math.max(maxX, region.originX + region.sizeX);
+            maxY = Math.max(maxY, region.originY + region.sizeY);
+            maxZ = Math.max(maxZ, region.originZ + region.sizeZ);
+        }
+        if (minX == Integer.MAX_VALUE) return null;
+
+        StructureGrid.Builder builder = StructureGrid.builder(maxX - minX, maxY - minY, maxZ - minZ);
+        for (String name : regions.getAllKeys()) {
+            CompoundTag regionTag = regions.getCompound(name);
+            Region region = Region.read(regionTag);
+            if (region == null) continue;
+
+            ListTag paletteTag = regionTag.getList("BlockStatePalette", Tag.TAG_COMPOUND);
+            BlockEntry[] palette = new BlockEntry[paletteTag.size()];
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = SchematicLoader.toEntry(
+                    NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), paletteTag.getCompound(i)));
+            }
+            int[] remap = SchematicLoader.remapPalette(builder, palette);
+
+            unpack(regionTag.getLongArray("BlockStates"), palette.length, remap, region,
+                region.originX - minX, region.originY - minY, region.originZ - minZ, builder);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Unpacks a region's bit-packed indices into the grid. Bit width is
+     * {@code max(2, ceil(log2(paletteSize)))}, matching Litematica's container.
+     */
+    private static void unpack(long[] packed, int paletteSize, int[] remap, Region region,
+                               int offsetX, int offsetY, int offsetZ, StructureGrid.Builder builder) {
+        if (packed.length == 0 || paletteSize == 0) return;
+        int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(paletteSize - 1));
+        long mask = (1L << bits) - 1;
+
+        int longIndex = 0;
+        int bitOffset = 0;
+        for (int y = 0; y < region.sizeY; y++) {
+            for (int z = 0; z < region.sizeZ; z++) {
+                for (int x = 0; x < region.sizeX; x++) {
+                    if (longIndex >= packed.length) return;
+
+                    long value = packed[longIndex] >>> bitOffset;
+                    int end = bitOffset + bits;
+                    if (end > 64 && longIndex + 1 < packed.length) {
+                        value |= packed[longIndex + 1] << (64 - bitOffset);
+                    }
+                    bitOffset = end;
+                    if (bitOffset >= 64) {
+                        longIndex++;
+                        bitOffset -= 64;
+                    }
+
+                    int index = (int) (value & mask);
+                    if (index < remap.length && remap[index] != StructureGrid.EMPTY) {
+                        builder.setIndex(builder.index(offsetX + x, offsetY + y, offsetZ + z), remap[index]);
+                    }
+                }
+            }
+        }
+    }
+
+    /** Region placement normalised to a minimum corner and positive size. */
+    private record Region(int originX, int originY, int originZ, int sizeX, int sizeY, int sizeZ) {
+        @Nullable
+        static Region read(CompoundTag tag) {
+            CompoundTag pos = tag.getCompound("Position");
+            CompoundTag size = tag.getCompound("Size");
+            if (!size.contains("x", Tag.TAG_INT)) return null;
+            int sx = size.getInt("x"), sy = size.getInt("y"), sz = size.getInt("z");
+            if (sx == 0 || sy == 0 || sz == 0) return null;
+            return new Region(
+                pos.getInt("x") + (sx < 0 ? sx + 1 : 0),
+                pos.getInt("y") + (sy < 0 ? sy + 1 : 0),
+                pos.getInt("z") + (sz < 0 ? sz + 1 : 0),
+                Math.abs(sx), Math.abs(sy), Math.abs(sz));
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.multiblockprojector.client.schematic;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.MbpFormat;
+import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.api.SingleBlock;
+import com.multiblockprojector.api.StructureGrid;
+import net.minecraft.ChatFormatting;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.client.renderer.LevelRenderer;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.network.chat.Component;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+import net.minecraft.world.level.chunk.PalettedContainer;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+import net.neoforged.neoforge.client.event.RenderLevelStageEvent;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * Captures a region of the client world into a {@code .mbp} schematic in the custom
+ * schematics folder.
+ * <p>
+ * Corners are marked by sneak-left-clicking blocks with an idle projector. On capture the
+ * block-state containers of every chunk section touching the region are copied on the main
+ * thread (one array copy per section, air-only sections skipped); decoding, encoding and the
+ * file write happen on a background thread, and the new file is added to
+ * {@link SchematicIndex} without a rescan.
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID, value = Dist.CLIENT)
+public final class RegionCapture {
+
+    /** Largest region that can be captured, in blocks. */
+    private static final long MAX_VOLUME = 16L * 1024 * 1024;
+
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("'capture_'yyyy-MM-dd_HH-mm-ss");
+
+    @Nullable
+    private static BlockPos firstCorner;
+    @Nullable
+    private static BlockPos secondCorner;
+    private static boolean capturing = false;
+
+    /** A copied section: its section coordinates and block states. */
+    private record SectionSnapshot(int sectionX, int sectionY, int sectionZ, PalettedContainer<BlockState> states) {}
+
+    private RegionCapture() {}
+
+    // ---- Selection ----
+
+    /**
+     * Marks a corner of the capture region. The first click sets the first corner, the second
+     * click the opposite corner; a third click starts a new selection.
+     */
+    public static void markCorner(BlockPos pos) {
+        Minecraft mc = Minecraft.getInstance();
+        if (firstCorner == null || secondCorner != null) {
+            firstCorner = pos.immutable();
+            secondCorner = null;
+            message(mc, Component.literal("Capture corner 1 set at " + pos.toShortString()), ChatFormatting.AQUA);
+        } else {
+            secondCorner = pos.immutable();
+            BlockPos size = size();
+            message(mc, Component.literal("Capture corner 2 set at " + pos.toShortString() + " ("
+                + size.getX() + "x" + size.getY() + "x" + size.getZ() + "), open the projector to capture"),
+                ChatFormatting.AQUA);
+        }
+    }
+
+    /** Whether both corners are set and no capture is running. */
+    public static boolean canCapture() {
+        return firstCorner != null && secondCorner != null && !capturing;
+    }
+
+    /** Size of the selected region, or null if it is incomplete. */
+    @Nullable
+    public static BlockPos size() {
+        if (firstCorner == null || secondCorner == null) return null;
+        return new BlockPos(
+            Math.abs(firstCorner.getX() - secondCorner.getX()) + 1,
+            Math.abs(firstCorner.getY() - secondCorner.getY()) + 1,
+            Math.abs(firstCorner.getZ() - secondCorner.getZ()) + 1
+        );
+    }
+
+    /** Clears the selected corners. */
+    public static void clearSelection() {
+        firstCorner = null;
+        secondCorner = null;
+    }
+
+    // ---- Capture ----
+
+    /**
+     * Captures the selected region. Must be called on the client thread. The callback runs on
+     * the client thread with the registered entry once the file is written, or is not called at
+     * all if the capture fails (the player is told why).
+     */
+    public static void capture(Consumer<SchematicEntry> onComplete) {
+        Minecraft mc = Minecraft.getInstance();
+        ClientLevel level = mc.level;
+        if (level == null || !canCapture()) return;
+
+        BlockPos min = min(firstCorner, secondCorner);
+        BlockPos max = max(firstCorner, secondCorner);
+        int sizeX = max.getX() - min.getX() + 1;
+        int sizeY = max.getY() - min.getY() + 1;
+        int sizeZ = max.getZ() - min.getZ() + 1;
+        if ((long) sizeX * sizeY * sizeZ > MAX_VOLUME) {
+            message(mc, Component.literal("Capture region is too large"), ChatFormatting.RED);
+            return;
+        }
+        if (min.getY() < level.getMinBuildHeight() || max.getY() >= level.getMaxBuildHeight()) {
+            message(mc, Component.literal("Capture region is outside the world height"), ChatFormatting.RED);
+            return;
+        }
+
+        List<SectionSnapshot> snapshots = snapshot(level, min, max);
+        if (snapshots == null) {
+            message(mc, Component.literal("Capture region is not fully loaded"), ChatFormatting.RED);
+            return;
+        }
+
+        Path file = SchematicIndex.customRoot().resolve(LocalDateTime.now().format(FILE_NAME) + MbpFormat.EXTENSION);
+        capturing = true;
+        message(mc, Component.literal("Capturing " + sizeX + "x" + sizeY + "x" + sizeZ + "..."), ChatFormatting.GRAY);
+
+        CompletableFuture.supplyAsync(() -> {
+            StructureGrid grid = decode(snapshots, min, sizeX, sizeY, sizeZ);
+            if (grid.nonAirCount() == 0) return null;
+            MultiblockStructure structure = grid.toStructure();
+            try {
+                write(file, structure);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return structure;
+        }, Util.backgroundExecutor()).whenCompleteAsync((structure, error) -> {
+            capturing = false;
+            if (error != null) {
+                UniversalProjector.LOGGER.warn("Failed to capture region to {}", file, error);
+                message(mc, Component.literal("Capture failed, see log"), ChatFormatting.RED);
+                return;
+            }
+            if (structure == null) {
+                message(mc, Component.literal("Capture region contains no blocks"), ChatFormatting.RED);
+                return;
+            }
+            SchematicCache.store(file, structure);
+            SchematicEntry entry = SchematicIndex.addCustomFile(file);
+            if (entry == null) return;
+            clearSelection();
+            message(mc, Component.literal("Captured as ").append(entry.displayName()), ChatFormatting.GREEN);
+            onComplete.accept(entry);
+        }, mc);
+    }
+
+    /** Copies the block states of every section overlapping the region. Null if a chunk is missing. */
+    @Nullable
+    private static List<SectionSnapshot> snapshot(ClientLevel level, BlockPos min, BlockPos max) {
+        List<SectionSnapshot> snapshots = new ArrayList<>();
+        for (int cx = SectionPos.blockToSectionCoord(min.getX()); cx <= SectionPos.blockToSectionCoord(max.getX()); cx++) {
+            for (int cz = SectionPos.blockToSectionCoord(min.getZ()); cz <= SectionPos.blockToSectionCoord(max.getZ()); cz++) {
+                LevelChunk chunk = (LevelChunk) level.getChunkSource().getChunk(cx, cz, ChunkStatus.FULL, false);
+                if (chunk == null) return null;
+                for (int sy = SectionPos.blockToSectionCoord(min.getY()); sy <= SectionPos.blockToSectionCoord(max.getY()); sy++) {
+                    LevelChunkSection section = chunk.getSection(chunk.getSectionIndexFromSectionY(sy));
+                    if (section.hasOnlyAir()) continue;
+                    snapshots.add(new SectionSnapshot(cx, sy, cz, section.getStates().copy()));
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    /** Builds the grid from section snapshots. Runs off the main thread. */
+    private static StructureGrid decode(List<SectionSnapshot> snapshots, BlockPos min, int sizeX, int sizeY, int sizeZ) {
+        StructureGrid.Builder builder = StructureGrid.builder(sizeX, sizeY, sizeZ);
+        // Block states are interned, so identity lookups avoid hashing a record per cell
+        Map<BlockState, Integer> ids = new IdentityHashMap<>();
+
+        for (SectionSnapshot snapshot : snapshots) {
+            int baseX = SectionPos.sectionToBlockCoord(snapshot.sectionX);
+            int baseY = SectionPos.sectionToBlockCoord(snapshot.sectionY);
+            int baseZ = SectionPos.sectionToBlockCoord(snapshot.sectionZ);
+            int x0 = Math.max(min.getX(), baseX), x1 = Math.min(min.getX() + sizeX, baseX + 16);
+            int y0 = Math.max(min.getY(), baseY), y1 = Math.min(min.getY() + sizeY, baseY + 16);
+            int z0 = Math.max(min.getZ(), baseZ), z1 = Math.min(min.getZ() + sizeZ, baseZ + 16);
+
+            for (int y = y0; y < y1; y++) {
+                for (int z = z0; z < z1; z++) {
+                    int row = builder.index(0, y - min.getY(), z - min.getZ()) - min.getX();
+                    for (int x = x0; x < x1; x++) {
+                        BlockState state = snapshot.states.get(x - baseX, y - baseY, z - baseZ);
+                        if (state.isAir() || state.is(Blocks.STRUCTURE_VOID)) continue;
+                        Integer id = ids.get(state);
+                        if (id == null) {
+                            id = builder.paletteId(new SingleBlock(state));
+                            ids.put(state, id);
+                        }
+                        builder.setIndex(row + x, id);
+                    }
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    private static void write(Path file, MultiblockStructure structure) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+            MbpFormat.write(structure, out);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static BlockPos min(BlockPos a, BlockPos b) {
+        return new BlockPos(Math.min(a.getX(), b.getX()), Math.min(a.getY(), b.getY()), Math.min(a.getZ(), b.getZ()));
+    }
+
+    private static BlockPos max(BlockPos a, BlockPos b) {
+        return new BlockPos(Math.max(a.getX(), b.getX()), Math.max(a.getY(), b.getY()), Math.max(a.getZ(), b.getZ()));
+    }
+
+    private static void message(Minecraft mc, Component text, ChatFormatting color) {
+        if (mc.player != null) {
+            mc.player.displayClientMessage(text.copy().withStyle(color), true);
+        }
+    }
+
+    // ---- Events ----
+
+    @SubscribeEvent
+    public static void onRenderLevel(RenderLevelStageEvent event) {
+        if (event.getStage() != RenderLevelStageEvent.Stage.AFTER_TRANSLUCENT_BLOCKS) return;
+        if (firstCorner == null) return;
+
+        BlockPos other = secondCorner != null ? secondCorner : firstCorner;
+        AABB box = new AABB(Vec3.atLowerCornerOf(min(firstCorner, other)),
+            Vec3.atLowerCornerOf(max(firstCorner, other).offset(1, 1, 1)));
+        Vec3 camera = event.getCamera().getPosition();
+
+        PoseStack poseStack = event.getPoseStack();
+        MultiBufferSource.BufferSource bufferSource = Minecraft.getInstance().renderBuffers().bufferSource();
+        poseStack.pushPose();
+        poseStack.translate(-camera.x, -camera.y, -camera.z);
+        LevelRenderer.renderLineBox(poseStack, bufferSource.getBuffer(RenderType.lines()), box,
+            0.3f, 0.8f, 1.0f, 1.0f);
+        poseStack.popPose();
+        bufferSource.endBatch(RenderType.lines());
+    }
+
+    @SubscribeEvent
+    public static void onLogout(ClientPlayerNetworkEvent.LoggingOut event) {
+        clearSelection();
+    }
+}
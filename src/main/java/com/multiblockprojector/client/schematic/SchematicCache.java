@@ -0,0 +1,278 @@
+package com.multiblockprojector.client.schematic;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.MbpFormat;
+import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.api.StructureFingerprint;
+import com.multiblockprojector.common.schematic.SchematicPayload;
+import net.minecraft.Util;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.neoforged.fml.loading.FMLPaths;
+
+import javax.annotation.Nullable;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client-side cache of decoded schematic structures.
+ * <p>
+ * Entries are keyed by file path and validated against the file's modification time and
+ * length on every lookup, so edited files are reloaded automatically. The cache is an LRU
+ * bounded by the total number of blocks held, not by entry count, so one huge build can
+ * evict many small ones but never pushes memory past the budget.
+ * <p>
+ * Structures are compared by {@link StructureFingerprint} when they are loaded, and a file whose
+ * content matches a cached one shares that structure instead of holding a second copy.
+ * <p>
+ * {@link #prefetch(Path)} starts a background load; a subsequent {@link #get(Path)} for the
+ * same file joins the in-flight load instead of reading the file a second time. Preview,
+ * requirements and projection all go through {@link #get(Path)} and share one decoded copy.
+ * <p>
+ * Decoded {@code .nbt}, {@code .schem} and {@code .litematic} files are also written to
+ * {@code config/multiblockprojector/cache} as {@code .mbp}, so later sessions skip the NBT
+ * parse. Disk entries are keyed by the SHA-256 of the path, modification time, length and the block registry
+ * size, so editing the file or adding mods that fill in missing blocks forces a fresh decode.
+ */
+public final class SchematicCache {
+
+    /** Total block budget across all cached structures (roughly 100-200 MB of packed cells). */
+    private static final long MAX_TOTAL_BLOCKS = 24_000_000L;
+
+    private static final Path DISK_CACHE_DIR = FMLPaths.CONFIGDIR.get().resolve("multiblockprojector").resolve("cache");
+
+    private static final Object LOCK = new Object();
+    /** Access-ordered: iteration starts at the least recently used entry. */
+    private static final LinkedHashMap<Path, Cached> ENTRIES = new LinkedHashMap<>(16, 0.75f, true);
+    private static final Map<Path, Pending> PENDING = new HashMap<>();
+    private static long totalBlocks = 0;
+
+    private SchematicCache() {}
+
+    private record Stamp(long modified, long length) {
+        @Nullable
+        static Stamp of(Path file) {
+            try {
+                return new Stamp(Files.getLastModifiedTime(file).toMillis(), Files.size(file));
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    /** @param fingerprint content hash of the structure, or null if it was not computed */
+    private record Cached(MultiblockStructure structure, Stamp stamp, long weight,
+                          @Nullable StructureFingerprint fingerprint) {}
+
+    private record Pending(CompletableFuture<MultiblockStructure> future, Stamp stamp) {}
+
+    /**
+     * Returns the decoded structure for a schematic file, loading it if it is not cached or
+     * the file changed since it was cached. Returns null if the file cannot be loaded.
+     */
+    @Nullable
+    public static MultiblockStructure get(Path file) {
+        Stamp stamp = Stamp.of(file);
+        if (stamp == null) {
+            invalidate(file);
+            return null;
+        }
+
+        CompletableFuture<MultiblockStructure> future;
+        boolean owner = false;
+        synchronized (LOCK) {
+            Cached cached = ENTRIES.get(file);
+            if (cached != null) {
+                if (cached.stamp.equals(stamp)) return cached.structure;
+                remove(file);
+            }
+
+            Pending pending = PENDING.get(file);
+            if (pending != null && pending.stamp.equals(stamp)) {
+                future = pending.future;
+            } else {
+                future = new CompletableFuture<>();
+                PENDING.put(file, new Pending(future, stamp));
+                owner = true;
+            }
+        }
+
+        if (owner) {
+            complete(file, stamp, future);
+        }
+        return future.join();
+    }
+
+    /**
+     * Starts loading a schematic in the background if it is not already cached or loading.
+     * Cheap to call repeatedly; intended for hover and selection in the GUI.
+     */
+    public static void prefetch(Path file) {
+        Stamp stamp = Stamp.of(file);
+        if (stamp == null) return;
+
+        CompletableFuture<MultiblockStructure> future;
+        synchronized (LOCK) {
+            Cached cached = ENTRIES.get(file);
+            if (cached != null && cached.stamp.equals(stamp)) return;
+            Pending pending = PENDING.get(file);
+            if (pending != null && pending.stamp.equals(stamp)) return;
+
+            future = new CompletableFuture<>();
+            PENDING.put(file, new Pending(future, stamp));
+        }
+
+        Util.backgroundExecutor().execute(() -> complete(file, stamp, future));
+    }
+
+    /**
+     * Caches a structure that was just written to a file, so the first lookup does not read it
+     * back. Does nothing if the file cannot be stat'ed.
+     */
+    public static void store(Path file, MultiblockStructure structure) {
+        Stamp stamp = Stamp.of(file);
+        if (stamp == null) return;
+        synchronized (LOCK) {
+            put(file, new Cached(structure, stamp, Math.max(1, structure.blocks().size()), null));
+        }
+    }
+
+    /** Drops a cached structure, e.g. after the file was deleted or rewritten. */
+    public static void invalidate(Path file) {
+        synchronized (LOCK) {
+            remove(file);
+        }
+    }
+
+    /** Drops all cached structures. */
+    public static void clear() {
+        synchronized (LOCK) {
+            ENTRIES.clear();
+            totalBlocks = 0;
+        }
+    }
+
+    // ---- Loading ----
+
+    /**
+     * Loads the file and completes the pending future. The future is always completed, with null
+     * if loading failed, so waiters never block on a load that died with an {@link Error}.
+     */
+    private static void complete(Path file, Stamp stamp, CompletableFuture<MultiblockStructure> future) {
+        MultiblockStructure structure = null;
+        StructureFingerprint fingerprint = null;
+        try {
+            structure = load(file, stamp);
+            if (structure != null) fingerprint = structure.fingerprint();
+        } catch (RuntimeException e) {
+            UniversalProjector.LOGGER.warn("Failed to load schematic {}", file, e);
+        } finally {
+            synchronized (LOCK) {
+                Pending pending = PENDING.get(file);
+                if (pending != null && pending.future == future) {
+                    PENDING.remove(file);
+                }
+                if (structure != null) {
+                    if (fingerprint != null) structure = shared(structure, fingerprint);
+                    put(file, new Cached(structure, stamp, Math.max(1, structure.blocks().size()), fingerprint));
+                }
+            }
+            future.complete(structure);
+        }
+    }
+
+    @Nullable
+    private static MultiblockStructure load(Path file, Stamp stamp) {
+        if (SchematicFormat.fromPath(file) == SchematicFormat.MBP) {
+            return SchematicLoader.load(file);
+        }
+
+        Path diskFile = diskCacheFile(file, stamp);
+        if (Files.isRegularFile(diskFile)) {
+            try (InputStream in = Files.newInputStream(diskFile)) {
+                return MbpFormat.read(in);
+            } catch (IOException | RuntimeException e) {
+                UniversalProjector.LOGGER.debug("Discarding unreadable schematic cache {}", diskFile, e);
+            }
+        }
+
+        MultiblockStructure structure = SchematicLoader.load(file);
+        if (structure != null) {
+            Util.ioPool().execute(() -> writeDiskCache(diskFile, structure));
+        }
+        return structure;
+    }
+
+    private static Path diskCacheFile(Path file, Stamp stamp) {
+        // A strong digest, since stale entries are deleted by this prefix
+        String key = SchematicPayload.hash(
+            file.toAbsolutePath().normalize().toString().getBytes(StandardCharsets.UTF_8));
+        return DISK_CACHE_DIR.resolve(key + "-" + Long.toHexString(stamp.modified) + "-"
+            + Long.toHexString(stamp.length) + "-" + BuiltInRegistries.BLOCK.size() + MbpFormat.EXTENSION);
+    }
+
+    private static void writeDiskCache(Path diskFile, MultiblockStructure structure) {
+        try {
+            Files.createDirectories(DISK_CACHE_DIR);
+            // Drop stale entries for the same source file
+            String prefix = diskFile.getFileName().toString();
+            prefix = prefix.substring(0, prefix.indexOf('-') + 1);
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(DISK_CACHE_DIR, prefix + "*")) {
+                for (Path old : stale) Files.deleteIfExists(old);
+            }
+            Path temp = diskFile.resolveSibling(diskFile.getFileName() + ".tmp");
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                MbpFormat.write(structure, out);
+            }
+            Files.move(temp, diskFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            UniversalProjector.LOGGER.debug("Failed to write schematic cache {}", diskFile, e);
+        }
+    }
+
+    /**
+     * Returns an already cached structure with the same content, so the same build in several
+     * folders or formats is held once. Each entry still counts its full weight against the budget.
+     */
+    private static MultiblockStructure shared(MultiblockStructure structure, StructureFingerprint fingerprint) {
+        for (Cached cached : ENTRIES.values()) {
+            if (fingerprint.equals(cached.fingerprint)) return cached.structure;
+        }
+        return structure;
+    }
+
+    private static void put(Path file, Cached cached) {
+        remove(file);
+        // A single structure larger than the whole budget is returned but not retained
+        if (cached.weight > MAX_TOTAL_BLOCKS) return;
+
+        ENTRIES.put(file, cached);
+        totalBlocks += cached.weight;
+
+        Iterator<Cached> eldest = ENTRIES.values().iterator();
+        while (totalBlocks > MAX_TOTAL_BLOCKS && eldest.hasNext()) {
+            Cached evicted = eldest.next();
+            if (evicted == cached) break;
+            totalBlocks -= evicted.weight;
+            eldest.remove();
+        }
+    }
+
+    private static void remove(Path file) {
+        Cached removed = ENTRIES.remove(file);
+        if (removed != null) {
+            totalBlocks -= removed.weight;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.multiblockprojector.client.schematic;
 
 import com.multiblockprojector.api.MultiblockCategory;
 import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.common.schematic.SchematicStore;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
@@ -9,14 +10,14 @@ import net.minecraft.resources.ResourceLocation;
 import java.nio.file.Path;
 
 /**
- * Represents a discovered {@code .nbt} schematic file that can be projected.
+ * Represents a discovered schematic file ({@code .nbt}, {@code .schem} or {@code .litematic}) that can be projected.
  *
  * @param id             Unique resource location identifier for this schematic
  * @param displayName    Human-readable name shown in the GUI
  * @param tabId          Tab identifier for grouping in the GUI
  * @param tabDisplayName Human-readable tab name
- * @param filePath       Filesystem path to the .nbt file
- * @param size           Dimensions of the structure (from NBT size tag)
+ * @param filePath       Filesystem path to the schematic file
+ * @param size           Dimensions of the structure (from the file's size metadata)
  */
 public record SchematicEntry(
     ResourceLocation id,
@@ -28,21 +29,19 @@ public record SchematicEntry(
 ) {
 
     /** Category used for all schematic-based multiblock definitions. */
-    public static final MultiblockCategory SCHEMATIC_CATEGORY = new MultiblockCategory(
-        ResourceLocation.fromNamespaceAndPath("multiblockprojector", "schematic"),
-        Component.literal("Schematic")
-    );
+    public static final MultiblockCategory SCHEMATIC_CATEGORY = SchematicStore.SCHEMATIC_CATEGORY;
 
     /**
      * Creates a synthetic {@link MultiblockDefinition} from this schematic entry.
-     * The structure is loaded lazily when the definition's provider is first called.
+     * The structure is loaded lazily through {@link SchematicCache}, so every caller
+     * (preview, requirements, projection) shares one decoded copy per file version.
      */
     public MultiblockDefinition toDefinition() {
         Path path = this.filePath;
         return MultiblockDefinition.fixed(
             displayName, tabId, SCHEMATIC_CATEGORY, size,
             (variant, level) -> {
-                var structure = SchematicLoader.load(path);
+                var structure = SchematicCache.get(path);
                 if (structure == null) {
                     throw new IllegalStateException("Failed to load schematic: " + path);
                 }
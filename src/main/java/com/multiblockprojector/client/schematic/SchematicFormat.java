@@ -0,0 +1,49 @@
+package com.multiblockprojector.client.schematic;
+
+import com.multiblockprojector.api.MbpFormat;
+
+import javax.annotation.Nullable;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Schematic file formats the projector can load, identified by file extension.
+ */
+public enum SchematicFormat {
+    /** Vanilla structure template ({@code .nbt}), as saved by structure blocks and Create. */
+    STRUCTURE_NBT(".nbt"),
+    /** Sponge schematic v2/v3 ({@code .schem}), as saved by WorldEdit. */
+    SPONGE(".schem"),
+    /** Litematica schematic ({@code .litematic}). */
+    LITEMATICA(".litematic"),
+    /** Compact projector structure ({@code .mbp}), see {@link MbpFormat}. */
+    MBP(MbpFormat.EXTENSION);
+
+    private final String extension;
+
+    SchematicFormat(String extension) {
+        this.extension = extension;
+    }
+
+    /** The file extension including the leading dot. */
+    public String extension() {
+        return extension;
+    }
+
+    /** Strips this format's extension from a file name. */
+    public String stripExtension(String fileName) {
+        return fileName.substring(0, fileName.length() - extension.length());
+    }
+
+    /** Returns the format for a file based on its extension, or null if unsupported. */
+    @Nullable
+    public static SchematicFormat fromPath(Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (SchematicFormat format : values()) {
+            if (name.endsWith(format.extension)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -2,6 +2,7 @@ package com.multiblockprojector.client.schematic;
 
 import com.multiblockprojector.UniversalProjector;
 import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.common.registry.MultiblockCatalog;
 import com.multiblockprojector.common.registry.MultiblockIndex;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
@@ -17,8 +18,9 @@ import java.util.*;
 import java.util.stream.Stream;
 
 /**
- * Cached index that scans filesystem folders for {@code .nbt} schematic files
- * and makes them available as {@link MultiblockDefinition} entries.
+ * Cached index that scans filesystem folders for schematic files ({@code .nbt},
+ * {@code .schem}, {@code .litematic} and {@code .mbp}, see {@link SchematicFormat}) and makes
+ * them available as {@link MultiblockDefinition} entries.
  * <p>
  * Parallel to {@link MultiblockIndex} but for user-provided schematics.
  */
@@ -34,7 +36,7 @@ public class SchematicIndex {
     /** Display name for the Create schematics tab. */
     public static final String CREATE_TAB_NAME = "Create Schematics";
 
-    private static SchematicIndex INSTANCE;
+    private static volatile SchematicIndex INSTANCE;
 
     private final List<MultiblockIndex.TabEntry> tabs;
     private final Map<String, List<MultiblockDefinition>> byTab;
@@ -61,18 +63,47 @@ public class SchematicIndex {
 
     /** Returns the cached index, building it lazily on first access. */
     public static SchematicIndex get() {
-        if (INSTANCE == null) {
+        SchematicIndex index = INSTANCE;
+        if (index == null) {
             SchematicExampleCopier.copyIfNeeded();
-            INSTANCE = scan();
+            index = publish(scan());
         }
-        return INSTANCE;
+        return index;
     }
 
     /** Forces a full rescan of all schematic folders. */
     public static SchematicIndex rescan() {
         SchematicExampleCopier.copyIfNeeded();
-        INSTANCE = scan();
-        return INSTANCE;
+        return publish(scan());
+    }
+
+    /**
+     * Adds a file saved directly in the custom schematics folder to the cached index without
+     * rescanning the folders. Returns the new entry, or null if the file cannot be read.
+     */
+    @Nullable
+    public static SchematicEntry addCustomFile(Path file) {
+        SchematicIndex current = get();
+        Set<ResourceLocation> usedIds = new HashSet<>(current.entriesById.keySet());
+        SchematicEntry entry = customEntry(customRoot(), file, usedIds);
+        if (entry == null) return null;
+
+        List<SchematicEntry> entries = new ArrayList<>(current.entriesById.values());
+        entries.add(entry);
+        publish(buildIndex(entries));
+        return entry;
+    }
+
+    /** Makes an index current and publishes its definitions to the {@link MultiblockCatalog}. */
+    private static SchematicIndex publish(SchematicIndex index) {
+        INSTANCE = index;
+        MultiblockCatalog.publishSchematics(index.tabs, index.definitionsById);
+        return index;
+    }
+
+    /** The custom schematics folder, {@code config/multiblockprojector/schematics}. */
+    public static Path customRoot() {
+        return FMLPaths.CONFIGDIR.get().resolve("multiblockprojector").resolve("schematics");
     }
 
     /** Invalidates the cached index so the next {@link #get()} call rebuilds it. */
@@ -122,9 +153,10 @@ public class SchematicIndex {
 
     private static SchematicIndex scan() {
         List<SchematicEntry> entries = new ArrayList<>();
+        Set<ResourceLocation> usedIds = new HashSet<>();
 
         // Ensure custom schematics directory exists
-        Path customRoot = FMLPaths.CONFIGDIR.get().resolve("multiblockprojector").resolve("schematics");
+        Path customRoot = customRoot();
         try {
             Files.createDirectories(customRoot);
         } catch (IOException e) {
@@ -132,14 +164,14 @@ public class SchematicIndex {
         }
 
         if (Files.isDirectory(customRoot)) {
-            scanCustomFolder(customRoot, entries);
+            scanCustomFolder(customRoot, entries, usedIds);
         }
 
         // If Create is loaded, also scan its schematics folder
         if (ModList.get().isLoaded("create")) {
             Path createRoot = FMLPaths.GAMEDIR.get().resolve("schematics");
             if (Files.isDirectory(createRoot)) {
-                scanCreateFolder(createRoot, entries);
+                scanCreateFolder(createRoot, entries, usedIds);
             }
         }
 
@@ -151,81 +183,78 @@ public class SchematicIndex {
      * {@link #CUSTOM_TAB_ID}; files inside subfolders get their own tab
      * based on the first-level subfolder name.
      */
-    private static void scanCustomFolder(Path root, List<SchematicEntry> entries) {
+    private static void scanCustomFolder(Path root, List<SchematicEntry> entries, Set<ResourceLocation> usedIds) {
         try (Stream<Path> walk = Files.walk(root)) {
-            walk.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".nbt"))
-                .forEach(nbtFile -> {
-                    Path relative = root.relativize(nbtFile);
-
-                    // Determine tab: directly in root vs in a subfolder
-                    String tabId;
-                    Component tabDisplayName;
-                    if (relative.getNameCount() == 1) {
-                        // File directly in root
-                        tabId = CUSTOM_TAB_ID;
-                        tabDisplayName = Component.literal(CUSTOM_TAB_NAME);
-                    } else {
-                        // File in a subfolder — use first subfolder name
-                        String firstSubfolder = relative.getName(0).toString();
-                        tabId = "multiblockprojector_custom_" + firstSubfolder.toLowerCase();
-                        tabDisplayName = Component.literal(SchematicEntry.prettifyName(firstSubfolder));
-                    }
-
-                    // Build resource location ID
-                    String relativeStr = relative.toString().replace('\\', '/');
-                    // Remove .nbt extension
-                    String withoutExt = relativeStr.substring(0, relativeStr.length() - 4);
-                    String sanitized = sanitizeForId(withoutExt.toLowerCase());
-                    ResourceLocation id = ResourceLocation.fromNamespaceAndPath(
-                        "multiblockprojector", "custom/" + sanitized
-                    );
-
-                    // Read size — skip files we can't parse
-                    BlockPos size = SchematicLoader.readSize(nbtFile);
-                    if (size == null) return;
-
-                    // Display name from filename
-                    String filename = nbtFile.getFileName().toString();
-                    String rawName = filename.substring(0, filename.length() - 4); // strip .nbt
-                    Component displayName = Component.literal(SchematicEntry.prettifyName(rawName));
-
-                    entries.add(new SchematicEntry(id, displayName, tabId, tabDisplayName, nbtFile, size));
+            walk.filter(p -> Files.isRegularFile(p) && SchematicFormat.fromPath(p) != null)
+                .forEach(file -> {
+                    SchematicEntry entry = customEntry(root, file, usedIds);
+                    if (entry != null) entries.add(entry);
                 });
         } catch (IOException e) {
             UniversalProjector.LOGGER.warn("Failed to scan custom schematics folder: {}", root, e);
         }
     }
 
+    /**
+     * Builds the entry for a file in the custom schematics folder, or null if it can't be parsed.
+     */
+    @Nullable
+    private static SchematicEntry customEntry(Path root, Path file, Set<ResourceLocation> usedIds) {
+        SchematicFormat format = SchematicFormat.fromPath(file);
+        if (format == null) return null;
+        Path relative = root.relativize(file);
+
+        // Determine tab: directly in root vs in a subfolder
+        String tabId;
+        Component tabDisplayName;
+        if (relative.getNameCount() == 1) {
+            // File directly in root
+            tabId = CUSTOM_TAB_ID;
+            tabDisplayName = Component.literal(CUSTOM_TAB_NAME);
+        } else {
+            // File in a subfolder — use first subfolder name
+            String firstSubfolder = relative.getName(0).toString();
+            tabId = "multiblockprojector_custom_" + firstSubfolder.toLowerCase();
+            tabDisplayName = Component.literal(SchematicEntry.prettifyName(firstSubfolder));
+        }
+
+        // Read size — skip files we can't parse
+        BlockPos size = SchematicLoader.readSize(file);
+        if (size == null) return null;
+
+        ResourceLocation id = buildId("custom/", relative, format, usedIds);
+
+        // Display name from filename
+        String rawName = format.stripExtension(file.getFileName().toString());
+        Component displayName = Component.literal(SchematicEntry.prettifyName(rawName));
+
+        return new SchematicEntry(id, displayName, tabId, tabDisplayName, file, size);
+    }
+
     /**
      * Scans the Create mod's schematics folder. All files go into
      * {@link #CREATE_TAB_ID} regardless of subfolder structure.
      */
-    private static void scanCreateFolder(Path root, List<SchematicEntry> entries) {
+    private static void scanCreateFolder(Path root, List<SchematicEntry> entries, Set<ResourceLocation> usedIds) {
         try (Stream<Path> walk = Files.walk(root)) {
-            walk.filter(p -> Files.isRegularFile(p) && p.getFileName().toString().endsWith(".nbt"))
-                .forEach(nbtFile -> {
-                    Path relative = root.relativize(nbtFile);
-
-                    // Build resource location ID
-                    String relativeStr = relative.toString().replace('\\', '/');
-                    String withoutExt = relativeStr.substring(0, relativeStr.length() - 4);
-                    String sanitized = sanitizeForId(withoutExt.toLowerCase());
-                    ResourceLocation id = ResourceLocation.fromNamespaceAndPath(
-                        "multiblockprojector", "create/" + sanitized
-                    );
+            walk.filter(p -> Files.isRegularFile(p) && SchematicFormat.fromPath(p) != null)
+                .forEach(file -> {
+                    SchematicFormat format = SchematicFormat.fromPath(file);
+                    Path relative = root.relativize(file);
 
                     // Read size — skip files we can't parse
-                    BlockPos size = SchematicLoader.readSize(nbtFile);
+                    BlockPos size = SchematicLoader.readSize(file);
                     if (size == null) return;
 
+                    ResourceLocation id = buildId("create/", relative, format, usedIds);
+
                     // Display name from filename
-                    String filename = nbtFile.getFileName().toString();
-                    String rawName = filename.substring(0, filename.length() - 4);
+                    String rawName = format.stripExtension(file.getFileName().toString());
                     Component displayName = Component.literal(SchematicEntry.prettifyName(rawName));
 
                     entries.add(new SchematicEntry(
                         id, displayName, CREATE_TAB_ID,
-                        Component.literal(CREATE_TAB_NAME), nbtFile, size
+                        Component.literal(CREATE_TAB_NAME), file, size
                     ));
                 });
         } catch (IOException e) {
@@ -233,6 +262,26 @@ public class SchematicIndex {
         }
     }
 
+    /**
+     * Builds the resource location ID for a schematic from its path relative to the scanned root,
+     * without the extension. If two files differ only by format (e.g. {@code house.nbt} and
+     * {@code house.schem}), the later one keeps its extension in the ID so both stay selectable.
+     */
+    private static ResourceLocation buildId(String prefix, Path relative, SchematicFormat format, Set<ResourceLocation> usedIds) {
+        String relativeStr = relative.toString().replace('\\', '/');
+        String withoutExt = format.stripExtension(relativeStr);
+        ResourceLocation id = ResourceLocation.fromNamespaceAndPath(
+            "multiblockprojector", prefix + sanitizeForId(withoutExt.toLowerCase())
+        );
+        if (!usedIds.add(id)) {
+            id = ResourceLocation.fromNamespaceAndPath(
+                "multiblockprojector", prefix + sanitizeForId(relativeStr.toLowerCase())
+            );
+            usedIds.add(id);
+        }
+        return id;
+    }
+
     /**
      * Replaces characters invalid in resource location paths with underscores.
      * Valid characters: {@code a-z}, {@code 0-9}, {@code /}, {@code _}, {@code .}, {@code -}.
@@ -2,8 +2,10 @@ package com.multiblockprojector.client.schematic;
 
 import com.multiblockprojector.api.AirEntry;
 import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.api.MbpFormat;
 import com.multiblockprojector.api.MultiblockStructure;
 import com.multiblockprojector.api.SingleBlock;
+import com.multiblockprojector.api.StructureGrid;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
@@ -12,105 +14,202 @@ import net.minecraft.nbt.NbtAccounter;
 import net.minecraft.nbt.NbtIo;
 import net.minecraft.nbt.NbtUtils;
 import net.minecraft.nbt.Tag;
+import net.minecraft.nbt.visitors.CollectFields;
+import net.minecraft.nbt.visitors.FieldSelector;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
 import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 /**
- * Reads .nbt structure files (vanilla StructureTemplate format) and converts
- * them to MultiblockStructure for use in the projector.
+ * Reads schematic files and converts them to MultiblockStructure for use in the projector.
+ * <p>
+ * Vanilla structure templates ({@code .nbt}) are parsed here; Sponge ({@code .schem}) and
+ * Litematica ({@code .litematic}) files are dispatched to {@link SpongeSchematicReader} and
+ * {@link LitematicReader}, and compact {@code .mbp} files to {@link MbpFormat}. All formats decode into a {@link StructureGrid}, so loaded
+ * structures hold one packed palette index per cell rather than a map entry per block.
  */
 public class SchematicLoader {
 
+    /** Upper bound on the uncompressed NBT size of a single schematic. */
+    static final long MAX_NBT_BYTES = 100 * 1024 * 1024L;
+
     /**
-     * Read just the dimensions from an .nbt file without parsing all blocks.
-     * Returns null if the file is unreadable or has no size tag.
+     * Read just the dimensions from a schematic file without parsing all blocks.
+     * Returns null if the file is unreadable, unsupported, or has no size information.
      */
     @Nullable
-    public static BlockPos readSize(Path nbtFile) {
-        try (InputStream is = Files.newInputStream(nbtFile)) {
-            CompoundTag root = NbtIo.readCompressed(is, NbtAccounter.create(100 * 1024 * 1024L));
-            if (root.contains("size", Tag.TAG_LIST)) {
-                ListTag sizeTag = root.getList("size", Tag.TAG_INT);
-                if (sizeTag.size() == 3) {
-                    return new BlockPos(sizeTag.getInt(0), sizeTag.getInt(1), sizeTag.getInt(2));
-                }
-            }
-        } catch (IOException e) {
+    public static BlockPos readSize(Path file) {
+        SchematicFormat format = SchematicFormat.fromPath(file);
+        if (format == null) return null;
+
+        try {
+            return switch (format) {
+                case STRUCTURE_NBT -> readStructureSize(file);
+                case SPONGE -> SpongeSchematicReader.readSize(file);
+                case LITEMATICA -> LitematicReader.readSize(file);
+                case MBP -> readMbpSize(file);
+            };
+        } catch (IOException | RuntimeException e) {
             // File unreadable - will be skipped
+            return null;
         }
-        return null;
     }
 
     /**
-     * Fully load an .nbt file and convert to MultiblockStructure.
-     * Air blocks are included as SingleBlock(AIR) for validation.
+     * Fully load a schematic file and convert to MultiblockStructure.
+     * Air blocks are included as AirEntry for validation.
      * Structure void blocks are omitted.
      * Returns null if the file is unreadable or produces an empty structure.
      */
     @Nullable
-    public static MultiblockStructure load(Path nbtFile) {
-        CompoundTag root;
-        try (InputStream is = Files.newInputStream(nbtFile)) {
-            root = NbtIo.readCompressed(is, NbtAccounter.create(100 * 1024 * 1024L));
-        } catch (IOException e) {
+    public static MultiblockStructure load(Path file) {
+        SchematicFormat format = SchematicFormat.fromPath(file);
+        if (format == null) return null;
+
+        StructureGrid grid;
+        try {
+            grid = switch (format) {
+                case STRUCTURE_NBT -> loadStructure(file);
+                case SPONGE -> SpongeSchematicReader.load(file);
+                case LITEMATICA -> LitematicReader.load(file);
+                case MBP -> loadMbp(file);
+            };
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+
+        // Skip structures that are only air/empty
+        if (grid == null || grid.nonAirCount() == 0) {
             return null;
         }
+        return grid.toStructure();
+    }
+
+    // ---- Compact structures ----
+
+    private static BlockPos readMbpSize(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return MbpFormat.readSize(in);
+        }
+    }
+
+    private static StructureGrid loadMbp(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return MbpFormat.readGrid(in);
+        }
+    }
+
+    // ---- Vanilla structure templates ----
+
+    @Nullable
+    private static BlockPos readStructureSize(Path nbtFile) throws IOException {
+        CompoundTag root = readFields(nbtFile, new FieldSelector(ListTag.TYPE, "size"));
+        if (root.contains("size", Tag.TAG_LIST)) {
+            ListTag sizeTag = root.getList("size", Tag.TAG_INT);
+            if (sizeTag.size() == 3) {
+                return new BlockPos(sizeTag.getInt(0), sizeTag.getInt(1), sizeTag.getInt(2));
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static StructureGrid loadStructure(Path nbtFile) throws IOException {
+        CompoundTag root = readCompressed(nbtFile);
 
-        // Parse palette
         if (!root.contains("palette", Tag.TAG_LIST) || !root.contains("blocks", Tag.TAG_LIST)) {
             return null;
         }
 
+        // Resolve the palette once; structure voids map to null and are skipped below
         ListTag paletteTag = root.getList("palette", Tag.TAG_COMPOUND);
-        List<BlockState> palette = new ArrayList<>();
-        for (int i = 0; i < paletteTag.size(); i++) {
-            CompoundTag entry = paletteTag.getCompound(i);
-            BlockState state = NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), entry);
-            palette.add(state);
+        BlockEntry[] palette = new BlockEntry[paletteTag.size()];
+        for (int i = 0; i < palette.length; i++) {
+            BlockState state = NbtUtils.readBlockState(BuiltInRegistries.BLOCK.asLookup(), paletteTag.getCompound(i));
+            palette[i] = toEntry(state);
         }
 
-        // Parse block positions
+        // First pass: bounds of the positions we keep
         ListTag blocksTag = root.getList("blocks", Tag.TAG_COMPOUND);
-        Map<BlockPos, BlockEntry> blocks = new LinkedHashMap<>();
-        boolean hasNonAirBlock = false;
-
+        int maxX = 0, maxY = 0, maxZ = 0;
         for (int i = 0; i < blocksTag.size(); i++) {
             CompoundTag blockTag = blocksTag.getCompound(i);
             int stateIndex = blockTag.getInt("state");
-            if (stateIndex < 0 || stateIndex >= palette.size()) continue;
-
-            BlockState state = palette.get(stateIndex);
-
-            // Skip structure voids entirely
-            if (state.is(Blocks.STRUCTURE_VOID)) continue;
+            if (stateIndex < 0 || stateIndex >= palette.length || palette[stateIndex] == null) continue;
+            ListTag posTag = blockTag.getList("pos", Tag.TAG_INT);
+            if (posTag.size() != 3) continue;
+            maxX = Math.max(maxX, posTag.getInt(0) + 1);
+            maxY = Math.max(maxY, posTag.getInt(1) + 1);
+            maxZ = Math.max(maxZ, posTag.getInt(2) + 1);
+        }
 
+        // Second pass: write palette indices into the grid
+        StructureGrid.Builder builder = StructureGrid.builder(maxX, maxY, maxZ);
+        for (int i = 0; i < blocksTag.size(); i++) {
+            CompoundTag blockTag = blocksTag.getCompound(i);
+            int stateIndex = blockTag.getInt("state");
+            if (stateIndex < 0 || stateIndex >= palette.length || palette[stateIndex] == null) continue;
             ListTag posTag = blockTag.getList("pos", Tag.TAG_INT);
             if (posTag.size() != 3) continue;
-            BlockPos pos = new BlockPos(posTag.getInt(0), posTag.getInt(1), posTag.getInt(2));
+            builder.set(posTag.getInt(0), posTag.getInt(1), posTag.getInt(2), palette[stateIndex]);
+        }
+        return builder.build();
+    }
 
-            // Air blocks use AirEntry for enforced-empty validation; solid blocks use SingleBlock
-            blocks.put(pos, state.isAir() ? new AirEntry() : new SingleBlock(state));
+    // ---- Shared helpers ----
 
-            if (!state.isAir()) {
-                hasNonAirBlock = true;
-            }
+    private static final AirEntry AIR = new AirEntry();
+
+    /**
+     * Converts a palette state to the entry used by the projector.
+     * Air becomes {@link AirEntry}, structure void becomes null (not part of the structure).
+     */
+    @Nullable
+    static BlockEntry toEntry(BlockState state) {
+        if (state.is(Blocks.STRUCTURE_VOID)) return null;
+        return state.isAir() ? AIR : new SingleBlock(state);
+    }
+
+    /**
+     * Resolves a schematic palette into grid palette ids, one lookup per palette entry.
+     * Entries that are not part of the structure map to {@link StructureGrid#EMPTY}.
+     */
+    static int[] remapPalette(StructureGrid.Builder builder, BlockEntry[] palette) {
+        int[] remap = new int[palette.length];
+        for (int i = 0; i < palette.length; i++) {
+            remap[i] = palette[i] == null ? StructureGrid.EMPTY : builder.paletteId(palette[i]);
         }
+        return remap;
+    }
 
-        // Skip structures that are only air/empty
-        if (!hasNonAirBlock || blocks.isEmpty()) {
-            return null;
+    /**
+     * Reads a gzip-compressed NBT file. The file is streamed and closed before returning, so it
+     * is never left locked, e.g. on Windows while a mapping waits for garbage collection.
+     */
+    static CompoundTag readCompressed(Path file) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            return NbtIo.readCompressed(in, NbtAccounter.create(MAX_NBT_BYTES));
         }
+    }
 
-        return new MultiblockStructure(blocks);
+    /**
+     * Streams a gzip-compressed NBT file and collects only the selected fields.
+     * Large arrays outside the selection are skipped rather than materialised.
+     */
+    static CompoundTag readFields(Path file, FieldSelector... selectors) throws IOException {
+        CollectFields collector = new CollectFields(selectors);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                 new GZIPInputStream(Files.newInputStream(file))))) {
+            NbtIo.parse(input, collector, NbtAccounter.create(MAX_NBT_BYTES));
+        }
+        return collector.getResult() instanceof CompoundTag compound ? compound : new CompoundTag();
     }
 }
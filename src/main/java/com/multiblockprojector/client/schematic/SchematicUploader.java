@@ -0,0 +1,155 @@
+package com.multiblockprojector.client.schematic;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.common.network.MessageSchematicChunk;
+import com.multiblockprojector.common.network.MessageSchematicOffer;
+import com.multiblockprojector.common.network.MessageSchematicStatus;
+import com.multiblockprojector.common.schematic.SchematicPayload;
+import com.multiblockprojector.common.schematic.SchematicStore;
+import net.minecraft.ChatFormatting;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.network.chat.Component;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Client side of the schematic upload protocol.
+ * <p>
+ * When a schematic is selected, its payload is encoded on a background thread and only the
+ * content hash is offered to the server. The payload is streamed in chunks (a few per tick) only if the server asks
+ * for it; hashes the server has confirmed are remembered for the rest of the session, so
+ * reusing a schematic costs a single hash.
+ * <p>
+ * Integrated servers resolve schematics from the local index directly and are never uploaded to.
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID, value = Dist.CLIENT)
+public final class SchematicUploader {
+
+    private static final int CHUNKS_PER_TICK = 4;
+    private static final int RECENT_LIMIT = 8;
+
+    /** Recently encoded structures, matched by identity so re-selecting skips re-encoding. Guarded by itself. */
+    private static final ArrayDeque<Prepared> RECENT = new ArrayDeque<>();
+    /** Payloads offered to the server and awaiting its reply, by hash. */
+    private static final Map<String, byte[]> OFFERED = new HashMap<>();
+    /** Hashes the server confirmed it stores during this session. */
+    private static final Set<String> CONFIRMED = new HashSet<>();
+    private static final ArrayDeque<Chunk> OUTGOING = new ArrayDeque<>();
+
+    private record Prepared(MultiblockStructure structure, String hash, byte[] payload) {}
+
+    private record Chunk(String hash, int index, byte[] data) {}
+
+    private SchematicUploader() {}
+
+    /**
+     * Makes sure the server has the given schematic. Loading and encoding run on a background
+     * thread; the returned future completes on the client thread with the content hash, or null
+     * if the schematic could not be loaded or encoded. The upload itself completes later.
+     */
+    public static CompletableFuture<String> upload(SchematicEntry entry) {
+        Minecraft mc = Minecraft.getInstance();
+        return CompletableFuture.supplyAsync(() -> {
+            MultiblockStructure structure = SchematicCache.get(entry.filePath());
+            return structure == null ? null : prepare(structure);
+        }, Util.backgroundExecutor()).thenApplyAsync(prepared -> {
+            if (prepared == null) return null;
+            if (mc.getConnection() != null && !mc.isLocalServer()
+                && !CONFIRMED.contains(prepared.hash) && !OFFERED.containsKey(prepared.hash)) {
+                OFFERED.put(prepared.hash, prepared.payload);
+                MessageSchematicOffer.sendToServer(prepared.hash, prepared.payload.length);
+            }
+            return prepared.hash;
+        }, mc);
+    }
+
+    /** Handles the server's reply to an offer or a completed upload. */
+    public static void onStatus(String hash, int status) {
+        switch (status) {
+            case MessageSchematicStatus.READY -> {
+                OFFERED.remove(hash);
+                CONFIRMED.add(hash);
+            }
+            case MessageSchematicStatus.SEND -> {
+                byte[] payload = OFFERED.get(hash);
+                if (payload == null) return;
+                for (int index = 0, offset = 0; offset < payload.length; index++, offset += SchematicStore.CHUNK_SIZE) {
+                    byte[] chunk = Arrays.copyOfRange(payload, offset, Math.min(payload.length, offset + SchematicStore.CHUNK_SIZE));
+                    OUTGOING.add(new Chunk(hash, index, chunk));
+                }
+            }
+            default -> {
+                OFFERED.remove(hash);
+                OUTGOING.removeIf(chunk -> chunk.hash().equals(hash));
+                Minecraft mc = Minecraft.getInstance();
+                if (mc.player != null) {
+                    mc.player.displayClientMessage(
+                        Component.literal("The server rejected this schematic upload")
+                            .withStyle(ChatFormatting.RED), true);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    private static Prepared prepare(MultiblockStructure structure) {
+        synchronized (RECENT) {
+            for (Prepared prepared : RECENT) {
+                if (prepared.structure == structure) return prepared;
+            }
+        }
+        BlockPos size = structure.size();
+        if ((long) size.getX() * size.getY() * size.getZ() > SchematicPayload.MAX_VOLUME) {
+            UniversalProjector.LOGGER.warn("Schematic too large to upload ({})", size.toShortString());
+            return null;
+        }
+        try {
+            byte[] payload = SchematicPayload.encode(structure);
+            if (payload.length > SchematicPayload.MAX_PAYLOAD_BYTES) {
+                UniversalProjector.LOGGER.warn("Schematic too large to upload ({} bytes)", payload.length);
+                return null;
+            }
+            Prepared prepared = new Prepared(structure, SchematicPayload.hash(payload), payload);
+            synchronized (RECENT) {
+                RECENT.addFirst(prepared);
+                while (RECENT.size() > RECENT_LIMIT) RECENT.removeLast();
+            }
+            return prepared;
+        } catch (IOException e) {
+            UniversalProjector.LOGGER.warn("Failed to encode schematic for upload", e);
+            return null;
+        }
+    }
+
+    @SubscribeEvent
+    public static void onClientTick(ClientTickEvent.Post event) {
+        if (OUTGOING.isEmpty() || Minecraft.getInstance().getConnection() == null) return;
+        for (int i = 0; i < CHUNKS_PER_TICK && !OUTGOING.isEmpty(); i++) {
+            Chunk chunk = OUTGOING.poll();
+            MessageSchematicChunk.sendToServer(chunk.hash(), chunk.index(), chunk.data());
+        }
+    }
+
+    @SubscribeEvent
+    public static void onLogout(ClientPlayerNetworkEvent.LoggingOut event) {
+        OFFERED.clear();
+        CONFIRMED.clear();
+        OUTGOING.clear();
+    }
+}
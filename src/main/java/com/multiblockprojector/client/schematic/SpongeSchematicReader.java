@@ -0,0 +1,139 @@
+package com.multiblockprojector.client.schematic;
+
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.api.StructureGrid;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ShortTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.nbt.visitors.FieldSelector;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Reads Sponge schematics ({@code .schem}, versions 2 and 3) as written by WorldEdit.
+ * <p>
+ * Block data is a byte array of varint palette indices in {@code x + z * width + y * width * length}
+ * order, which matches {@link StructureGrid}'s layer order, so indices are decoded in a single
+ * sequential pass straight into the grid.
+ */
+public class SpongeSchematicReader {
+
+    @Nullable
+    public static BlockPos readSize(Path file) throws IOException {
+        CompoundTag root = SchematicLoader.readFields(file,
+            new FieldSelector(ShortTag.TYPE, "Width"),
+            new FieldSelector(ShortTag.TYPE, "Height"),
+            new FieldSelector(ShortTag.TYPE, "Length"),
+            new FieldSelector("Schematic", ShortTag.TYPE, "Width"),
+            new FieldSelector("Schematic", ShortTag.TYPE, "Height"),
+            new FieldSelector("Schematic", ShortTag.TYPE, "Length"));
+        CompoundTag schematic = unwrap(root);
+        if (!schematic.contains("Width", Tag.TAG_SHORT)) return null;
+        return new BlockPos(
+            readUnsignedShort(schematic, "Width"),
+            readUnsignedShort(schematic, "Height"),
+            readUnsignedShort(schematic, "Length"));
+    }
+
+    @Nullable
+    public static StructureGrid load(Path file) throws IOException {
+        CompoundTag schematic = unwrap(SchematicLoader.readCompressed(file));
+
+        int width = readUnsignedShort(schematic, "Width");
+        int height = readUnsignedShort(schematic, "Height");
+        int length = readUnsignedShort(schematic, "Length");
+
+        // v3 nests palette and data under "Blocks"; v2 keeps them at the top level
+        CompoundTag paletteTag;
+        byte[] data;
+        if (schematic.contains("Blocks", Tag.TAG_COMPOUND)) {
+            CompoundTag blocks = schematic.getCompound("Blocks");
+            paletteTag = blocks.getCompound("Palette");
+            data = blocks.getByteArray("Data");
+        } else {
+            paletteTag = schematic.getCompound("Palette");
+            data = schematic.getByteArray("BlockData");
+        }
+        if (paletteTag.isEmpty() || data.length == 0) return null;
+
+        // Palette maps block state strings to indices below the palette's size; reject others
+        // before sizing the table from them
+        int paletteSize = 0;
+        for (String key : paletteTag.getAllKeys()) {
+            int index = paletteTag.getInt(key);
+            if (index >= paletteTag.size()) {
+                throw new IOException("Palette index " + index + " out of range in " + file.getFileName());
+            }
+            paletteSize = Math.max(paletteSize, index + 1);
+        }
+        BlockEntry[] palette = new BlockEntry[paletteSize];
+        int unknown = 0;
+        for (String key : paletteTag.getAllKeys()) {
+            int index = paletteTag.getInt(key);
+            if (index < 0) continue;
+            try {
+                var result = BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), key, false);
+                palette[index] = SchematicLoader.toEntry(result.blockState());
+            } catch (CommandSyntaxException e) {
+                // Block from a mod that isn't installed - leave the position out of the structure
+                unknown++;
+            }
+        }
+        if (unknown > 0) {
+            UniversalProjector.LOGGER.debug("Skipped {} unknown block states in {}", unknown, file.getFileName());
+        }
+
+        StructureGrid.Builder builder = StructureGrid.builder(width, height, length);
+        int[] remap = SchematicLoader.remapPalette(builder, palette);
+        decodeVarints(data, remap, builder);
+        return builder.build();
+    }
+
+    /**
+     * Decodes the varint block data into the grid. Single-byte values (palettes of up to
+     * 128 states, the common case) take a branch-free fast path.
+     */
+    private static void decodeVarints(byte[] data, int[] remap, StructureGrid.Builder builder) {
+        int volume = builder.volume();
+        int cell = 0;
+        int i = 0;
+        while (cell < volume && i < data.length) {
+            int value = data[i++];
+            if (value < 0) {
+                value &= 0x7F;
+                int shift = 7;
+                byte b;
+                do {
+                    if (i >= data.length) return;
+                    b = data[i++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0 && shift < 35);
+            }
+            if (value >= 0 && value < remap.length) {
+                int id = remap[value];
+                if (id != StructureGrid.EMPTY) {
+                    builder.setIndex(cell, id);
+                }
+            }
+            cell++;
+        }
+    }
+
+    /** Sponge v3 wraps everything in a "Schematic" compound; v2 does not. */
+    private static CompoundTag unwrap(CompoundTag root) {
+        return root.contains("Schematic", Tag.TAG_COMPOUND) ? root.getCompound("Schematic") : root;
+    }
+
+    /** Dimensions are stored as shorts but are unsigned (up to 65535). */
+    private static int readUnsignedShort(CompoundTag tag, String key) {
+        return tag.getShort(key) & 0xFFFF;
+    }
+}
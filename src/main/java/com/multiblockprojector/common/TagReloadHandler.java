@@ -0,0 +1,20 @@
+package com.multiblockprojector.common;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.TagEntry;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
+
+/**
+ * Invalidates the resolved blocks of {@link TagEntry} requirements when tags change, either
+ * from a datapack reload on the server or a tag sync on the client.
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID)
+public class TagReloadHandler {
+
+    @SubscribeEvent
+    public static void onTagsUpdated(TagsUpdatedEvent event) {
+        TagEntry.invalidateAll();
+    }
+}
@@ -14,6 +14,7 @@ import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 
+import javax.annotation.Nullable;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.*;
@@ -36,20 +37,6 @@ public class BloodMagicMultiblockAdapter {
         Component.literal("Altar")
     );
 
-    // Block states loaded via reflection from Blood Magic
-    private static BlockState bloodAltarBlock;
-    private static BlockState bloodstoneBlock;
-    private static BlockState bloodstoneBrickBlock;
-    private static BlockState hellforgedBlock;
-    private static BlockState crystalClusterBlock;
-
-    // All rune block states - basic runes (11 types)
-    private static final List<BlockState> BASIC_RUNES = new ArrayList<>();
-    private static final List<BlockState> ALL_RUNES = new ArrayList<>(); // Basic + Tier-2 (21 types)
-
-    // Default rune (blank) for creative auto-build
-    private static BlockState defaultRuneBlock;
-
     // Fallback blocks if reflection fails
     private static final BlockState FALLBACK_ALTAR = Blocks.OBSIDIAN.defaultBlockState();
     private static final BlockState FALLBACK_RUNE = Blocks.NETHER_BRICKS.defaultBlockState();
@@ -68,8 +55,6 @@ public class BloodMagicMultiblockAdapter {
         Blocks.POLISHED_BLACKSTONE_BRICKS.defaultBlockState()
     );
 
-    private static boolean blocksLoaded = false;
-
     // Basic rune field names (11 types)
     private static final String[] BASIC_RUNE_NAMES = {
         "RUNE_BLANK", "RUNE_SPEED", "RUNE_SACRIFICE", "RUNE_SELF_SACRIFICE",
@@ -85,29 +70,39 @@ public class BloodMagicMultiblockAdapter {
     };
 
     /**
-     * Load Blood Magic blocks via reflection
+     * Blood Magic's block states, resolved once via reflection with vanilla stand-ins for any
+     * that are missing. Immutable, so structure providers can read it from any thread.
+     *
+     * @param basicRunes runes accepted by tier 2 altars (11 types)
+     * @param allRunes   basic plus tier-2 runes (21 types), accepted from tier 3 on
+     * @param defaultRune blank rune, used for creative auto-build
      */
-    private static void loadBlocks() {
-        if (blocksLoaded) return;
-        blocksLoaded = true;
-
-        try {
-            Class<?> bmBlocksClass = Class.forName("wayoftime.bloodmagic.common.block.BMBlocks");
+    private record BlockTable(BlockState altar, BlockState bloodstone, BlockState bloodstoneBrick,
+                              BlockState hellforged, BlockState crystalCluster,
+                              List<BlockState> basicRunes, List<BlockState> allRunes, BlockState defaultRune) {
+
+        static BlockTable resolve() {
+            Class<?> bmBlocksClass;
+            try {
+                bmBlocksClass = Class.forName("wayoftime.bloodmagic.common.block.BMBlocks");
+            } catch (ClassNotFoundException | LinkageError e) {
+                UniversalProjector.LOGGER.warn("Failed to load Blood Magic blocks via reflection, using fallbacks: {}", e.getMessage());
+                return new BlockTable(FALLBACK_ALTAR, FALLBACK_BLOODSTONE, FALLBACK_PILLAR, FALLBACK_HELLFORGED,
+                    FALLBACK_CRYSTAL, FALLBACK_BASIC_RUNES, FALLBACK_BASIC_RUNES, FALLBACK_RUNE);
+            }
 
-            bloodAltarBlock = getBlockStateFromHolder(bmBlocksClass, "BLOOD_ALTAR");
-            bloodstoneBlock = getBlockStateFromHolder(bmBlocksClass, "BLOODSTONE");
-            bloodstoneBrickBlock = getBlockStateFromHolder(bmBlocksClass, "BLOODSTONE_BRICK");
-            hellforgedBlock = getBlockStateFromHolder(bmBlocksClass, "HELLFORGED_BLOCK");
-            crystalClusterBlock = getBlockStateFromHolder(bmBlocksClass, "CRYSTAL_CLUSTER");
+            List<BlockState> basicRunes = new ArrayList<>();
+            List<BlockState> allRunes = new ArrayList<>();
+            BlockState defaultRune = null;
 
             // Load all basic runes
             for (String runeName : BASIC_RUNE_NAMES) {
                 BlockState runeState = getBlockStateFromHolder(bmBlocksClass, runeName);
                 if (runeState != null) {
-                    BASIC_RUNES.add(runeState);
-                    ALL_RUNES.add(runeState);
+                    basicRunes.add(runeState);
+                    allRunes.add(runeState);
                     if (runeName.equals("RUNE_BLANK")) {
-                        defaultRuneBlock = runeState;
+                        defaultRune = runeState;
                     }
                 }
             }
@@ -116,39 +111,59 @@ public class BloodMagicMultiblockAdapter {
             for (String runeName : TIER2_RUNE_NAMES) {
                 BlockState runeState = getBlockStateFromHolder(bmBlocksClass, runeName);
                 if (runeState != null) {
-                    ALL_RUNES.add(runeState);
+                    allRunes.add(runeState);
                 }
             }
 
+            // Ensure we have at least one rune
+            if (basicRunes.isEmpty()) {
+                basicRunes.add(FALLBACK_RUNE);
+                allRunes.add(FALLBACK_RUNE);
+            }
+            if (defaultRune == null) {
+                defaultRune = basicRunes.get(0);
+            }
+
             UniversalProjector.LOGGER.info("Successfully loaded Blood Magic blocks: {} basic runes, {} total runes",
-                BASIC_RUNES.size(), ALL_RUNES.size());
-        } catch (Exception e) {
-            UniversalProjector.LOGGER.warn("Failed to load Blood Magic blocks via reflection, using fallbacks: {}", e.getMessage());
-            bloodAltarBlock = FALLBACK_ALTAR;
-            bloodstoneBlock = FALLBACK_BLOODSTONE;
-            bloodstoneBrickBlock = FALLBACK_PILLAR;
-            hellforgedBlock = FALLBACK_HELLFORGED;
-            crystalClusterBlock = FALLBACK_CRYSTAL;
-
-            // Use fallback runes
-            BASIC_RUNES.addAll(FALLBACK_BASIC_RUNES);
-            ALL_RUNES.addAll(FALLBACK_BASIC_RUNES);
-            defaultRuneBlock = FALLBACK_RUNE;
+                basicRunes.size(), allRunes.size());
+            return new BlockTable(
+                orElse(getBlockStateFromHolder(bmBlocksClass, "BLOOD_ALTAR"), FALLBACK_ALTAR),
+                orElse(getBlockStateFromHolder(bmBlocksClass, "BLOODSTONE"), FALLBACK_BLOODSTONE),
+                orElse(getBlockStateFromHolder(bmBlocksClass, "BLOODSTONE_BRICK"), FALLBACK_PILLAR),
+                orElse(getBlockStateFromHolder(bmBlocksClass, "HELLFORGED_BLOCK"), FALLBACK_HELLFORGED),
+                orElse(getBlockStateFromHolder(bmBlocksClass, "CRYSTAL_CLUSTER"), FALLBACK_CRYSTAL),
+                List.copyOf(basicRunes), List.copyOf(allRunes), defaultRune);
         }
 
-        // Ensure we have at least one rune
-        if (BASIC_RUNES.isEmpty()) {
-            BASIC_RUNES.add(FALLBACK_RUNE);
-            ALL_RUNES.add(FALLBACK_RUNE);
-        }
-        if (defaultRuneBlock == null) {
-            defaultRuneBlock = BASIC_RUNES.get(0);
+        private static BlockState orElse(@Nullable BlockState state, BlockState fallback) {
+            return state != null ? state : fallback;
         }
     }
 
+    /** Holds the table; class initialisation resolves it once and publishes it safely to all threads. */
+    private static final class BlockTableHolder {
+        static final BlockTable TABLE = BlockTable.resolve();
+        /** Shared by every rune position, so each group's block set is built once. */
+        static final BlockGroup BASIC_RUNE_GROUP = new BlockGroup(Component.literal("Any Rune"), TABLE.basicRunes());
+        static final BlockGroup ALL_RUNE_GROUP = new BlockGroup(Component.literal("Any Rune"), TABLE.allRunes());
+    }
+
+    private static BlockTable blocks() {
+        return BlockTableHolder.TABLE;
+    }
+
+    /**
+     * Resolves Blood Magic's blocks now rather than on the first structure request. Call once
+     * registries are frozen.
+     */
+    public static void resolveBlocks() {
+        blocks();
+    }
+
     /**
      * Get block state from a BlockWithItemHolder field
      */
+    @Nullable
     private static BlockState getBlockStateFromHolder(Class<?> bmBlocksClass, String fieldName) {
         try {
             Field field = bmBlocksClass.getField(fieldName);
@@ -171,15 +186,15 @@ public class BloodMagicMultiblockAdapter {
 
     // Helper methods to get the effective block states
     private static BlockState getAltarBlock() {
-        return bloodAltarBlock != null ? bloodAltarBlock : FALLBACK_ALTAR;
+        return blocks().altar();
     }
 
     private static BlockState getRuneBlock() {
-        return defaultRuneBlock != null ? defaultRuneBlock : FALLBACK_RUNE;
+        return blocks().defaultRune();
     }
 
     private static BlockState getPillarBlock() {
-        return bloodstoneBrickBlock != null ? bloodstoneBrickBlock : FALLBACK_PILLAR;
+        return blocks().bloodstoneBrick();
     }
 
     private static BlockState getT3Capstone() {
@@ -187,28 +202,24 @@ public class BloodMagicMultiblockAdapter {
     }
 
     private static BlockState getT4Capstone() {
-        return bloodstoneBlock != null ? bloodstoneBlock : FALLBACK_BLOODSTONE;
+        return blocks().bloodstone();
     }
 
     private static BlockState getT5Capstone() {
-        return hellforgedBlock != null ? hellforgedBlock : FALLBACK_HELLFORGED;
+        return blocks().hellforged();
     }
 
     private static BlockState getT6Capstone() {
-        return crystalClusterBlock != null ? crystalClusterBlock : FALLBACK_CRYSTAL;
+        return blocks().crystalCluster();
     }
 
     /**
-     * Get runes for a specific altar tier.
+     * Get the rune group for a specific altar tier.
      * Tier 2: Basic runes only (11)
      * Tier 3+: All runes (21)
      */
-    private static List<BlockState> getRunesForTier(int tier) {
-        if (tier <= 2) {
-            return new ArrayList<>(BASIC_RUNES);
-        } else {
-            return new ArrayList<>(ALL_RUNES);
-        }
+    private static BlockGroup getRuneGroupForTier(int tier) {
+        return tier <= 2 ? BlockTableHolder.BASIC_RUNE_GROUP : BlockTableHolder.ALL_RUNE_GROUP;
     }
 
     /**
@@ -219,8 +230,6 @@ public class BloodMagicMultiblockAdapter {
     public static List<NamedDefinition> discover() {
         List<NamedDefinition> results = new ArrayList<>();
         try {
-            loadBlocks();
-
             results.add(createTier1());
             results.add(createTier2());
             results.add(createTier3());
@@ -277,10 +286,7 @@ public class BloodMagicMultiblockAdapter {
                     for (int x = 0; x < 3; x++) {
                         for (int z = 0; z < 3; z++) {
                             if (x == 1 && z == 1) continue; // Skip center (below altar)
-                            blockMap.put(new BlockPos(x, 0, z), new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(new BlockPos(x, 0, z), getRuneGroupForTier(tier));
                         }
                     }
 
@@ -313,10 +319,7 @@ public class BloodMagicMultiblockAdapter {
                     for (int dx = -1; dx <= 1; dx++) {
                         for (int dz = -1; dz <= 1; dz++) {
                             if (dx == 0 && dz == 0) continue;
-                            blockMap.put(new BlockPos(centerX + dx, altarY - 1, centerZ + dz), new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(new BlockPos(centerX + dx, altarY - 1, centerZ + dz), getRuneGroupForTier(tier));
                         }
                     }
 
@@ -329,10 +332,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 3, altarY - 2, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -377,10 +377,7 @@ public class BloodMagicMultiblockAdapter {
                     for (int dx = -1; dx <= 1; dx++) {
                         for (int dz = -1; dz <= 1; dz++) {
                             if (dx == 0 && dz == 0) continue;
-                            blockMap.put(new BlockPos(centerX + dx, altarY - 1, centerZ + dz), new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(new BlockPos(centerX + dx, altarY - 1, centerZ + dz), getRuneGroupForTier(tier));
                         }
                     }
 
@@ -393,10 +390,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 3, altarY - 2, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -420,10 +414,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 5, altarY - 3, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -468,10 +459,7 @@ public class BloodMagicMultiblockAdapter {
                     for (int dx = -1; dx <= 1; dx++) {
                         for (int dz = -1; dz <= 1; dz++) {
                             if (dx == 0 && dz == 0) continue;
-                            blockMap.put(new BlockPos(centerX + dx, altarY - 1, centerZ + dz), new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(new BlockPos(centerX + dx, altarY - 1, centerZ + dz), getRuneGroupForTier(tier));
                         }
                     }
 
@@ -484,10 +472,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 3, altarY - 2, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -511,10 +496,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 5, altarY - 3, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -538,10 +520,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 8, altarY - 4, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -581,10 +560,7 @@ public class BloodMagicMultiblockAdapter {
                     for (int dx = -1; dx <= 1; dx++) {
                         for (int dz = -1; dz <= 1; dz++) {
                             if (dx == 0 && dz == 0) continue;
-                            blockMap.put(new BlockPos(centerX + dx, altarY - 1, centerZ + dz), new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(new BlockPos(centerX + dx, altarY - 1, centerZ + dz), getRuneGroupForTier(tier));
                         }
                     }
 
@@ -597,10 +573,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 3, altarY - 2, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -624,10 +597,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 5, altarY - 3, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -651,10 +621,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 8, altarY - 4, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
@@ -674,10 +641,7 @@ public class BloodMagicMultiblockAdapter {
                             new BlockPos(centerX - 11, altarY - 5, centerZ + i)
                         };
                         for (BlockPos pos : positions) {
-                            blockMap.put(pos, new BlockGroup(
-                                Component.literal("Any Rune"),
-                                getRunesForTier(tier)
-                            ));
+                            blockMap.put(pos, getRuneGroupForTier(tier));
                         }
                     }
 
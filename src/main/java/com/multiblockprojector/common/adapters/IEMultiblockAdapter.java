@@ -1,27 +1,31 @@
 package com.multiblockprojector.common.adapters;
 
 import com.multiblockprojector.UniversalProjector;
-import com.multiblockprojector.api.BlockEntry;
 import com.multiblockprojector.api.MultiblockCategory;
 import com.multiblockprojector.api.MultiblockDefinition;
 import com.multiblockprojector.api.MultiblockStructure;
 import com.multiblockprojector.api.SingleBlock;
+import com.multiblockprojector.api.StructureGrid;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Vec3i;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate.StructureBlockInfo;
 
-import java.lang.reflect.Method;
+import javax.annotation.Nullable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Adapter for Immersive Engineering multiblocks.
- * Uses reflection to discover IE multiblocks and converts them to {@link MultiblockDefinition} objects.
+ * Binds IE's multiblock API through method handles and converts its multiblocks to
+ * {@link MultiblockDefinition} objects.
  */
 public class IEMultiblockAdapter {
 
@@ -38,11 +42,7 @@ public class IEMultiblockAdapter {
     public static List<NamedDefinition> discover() {
         List<NamedDefinition> results = new ArrayList<>();
         try {
-            Class<?> handlerClass = Class.forName("blusunrize.immersiveengineering.api.multiblocks.MultiblockHandler");
-            Object getMultiblocksResult = handlerClass.getMethod("getMultiblocks").invoke(null);
-
-            @SuppressWarnings("unchecked")
-            List<Object> ieMultiblocks = (List<Object>) getMultiblocksResult;
+            List<?> ieMultiblocks = IEHandles.getMultiblocks();
 
             for (Object ieMultiblock : ieMultiblocks) {
                 try {
@@ -52,7 +52,7 @@ public class IEMultiblockAdapter {
                     UniversalProjector.LOGGER.warn("Failed to convert IE multiblock", e);
                 }
             }
-        } catch (Exception e) {
+        } catch (Exception | LinkageError e) {
             UniversalProjector.LOGGER.error("Failed to discover IE multiblocks via reflection", e);
             return results;
         }
@@ -60,57 +60,56 @@ public class IEMultiblockAdapter {
     }
 
     /**
-     * Convert a single IE multiblock object (via reflection) to a NamedDefinition.
+     * Convert a single IE multiblock object to a NamedDefinition.
      */
-    private static NamedDefinition convertMultiblock(Object ieMultiblock) throws Exception {
-        ResourceLocation uniqueName = IEReflectionHelper.getUniqueName(ieMultiblock);
-        Component displayName = IEReflectionHelper.getDisplayName(ieMultiblock);
+    private static NamedDefinition convertMultiblock(Object ieMultiblock) {
+        ResourceLocation uniqueName = IEHandles.getUniqueName(ieMultiblock);
+        Component displayName = IEHandles.getDisplayName(ieMultiblock, uniqueName);
         String modId = "immersiveengineering";
         MultiblockCategory category = categorizeByName(uniqueName.getPath());
 
-        // Cache the reflection Method lookup so the lambda doesn't re-resolve it each call
-        Method getStructureMethod = ieMultiblock.getClass().getMethod("getStructure", Level.class);
-
         MultiblockDefinition.StructureProvider structureProvider = (variant, level) -> {
             try {
-                @SuppressWarnings("unchecked")
-                List<StructureBlockInfo> structureList = (List<StructureBlockInfo>) getStructureMethod.invoke(ieMultiblock, level);
-
-                Map<BlockPos, BlockEntry> blocks = new LinkedHashMap<>();
-                for (StructureBlockInfo info : structureList) {
-                    if (!info.state().isAir()) {
-                        blocks.put(info.pos(), new SingleBlock(info.state()));
-                    }
-                }
-                return new MultiblockStructure(blocks);
-            } catch (Exception e) {
+                return pack(IEHandles.getStructure(ieMultiblock, level));
+            } catch (RuntimeException e) {
                 throw new RuntimeException("Failed to get structure for IE multiblock " + uniqueName, e);
             }
         };
 
-        // Get size for the single variant
-        BlockPos size;
-        try {
-            Vec3i vec = IEReflectionHelper.getSize(ieMultiblock, null);
-            size = new BlockPos(vec.getX(), vec.getY(), vec.getZ());
-        } catch (Exception e) {
-            // Derive size from structure instead of using a hardcoded fallback
-            try {
-                MultiblockStructure probe = structureProvider.create(null, null);
-                size = probe.size();
-            } catch (Exception e2) {
-                UniversalProjector.LOGGER.warn("Could not determine size for IE multiblock {}, using structure bounds", uniqueName);
-                size = new BlockPos(1, 1, 1);
-            }
-        }
-
+        // IE only knows a multiblock's size once its template is loaded, so it is taken from the
+        // structure on first use instead of loading every template during registration
         MultiblockDefinition definition = MultiblockDefinition.fixed(
-            displayName, modId, category, size, structureProvider
+            displayName, modId, category, structureProvider
         );
 
         return new NamedDefinition(uniqueName, definition);
     }
 
+    /**
+     * Packs IE's template blocks straight into a {@link StructureGrid}, registering each distinct
+     * state in the palette once. Air is left out, as IE templates list it explicitly.
+     */
+    private static MultiblockStructure pack(List<StructureBlockInfo> infos) {
+        int sizeX = 0, sizeY = 0, sizeZ = 0;
+        for (StructureBlockInfo info : infos) {
+            if (info.state().isAir()) continue;
+            sizeX = Math.max(sizeX, info.pos().getX() + 1);
+            sizeY = Math.max(sizeY, info.pos().getY() + 1);
+            sizeZ = Math.max(sizeZ, info.pos().getZ() + 1);
+        }
+
+        StructureGrid.Builder builder = StructureGrid.builder(sizeX, sizeY, sizeZ);
+        Map<BlockState, Integer> paletteIds = new IdentityHashMap<>();
+        for (StructureBlockInfo info : infos) {
+            BlockState state = info.state();
+            BlockPos pos = info.pos();
+            if (state.isAir() || pos.getX() < 0 || pos.getY() < 0 || pos.getZ() < 0) continue;
+            int id = paletteIds.computeIfAbsent(state, s -> builder.paletteId(new SingleBlock(s)));
+            builder.setIndex(builder.index(pos.getX(), pos.getY(), pos.getZ()), id);
+        }
+        return builder.build().toStructure();
+    }
+
     /**
      * Maps an IE multiblock name to a {@link MultiblockCategory}.
      */
@@ -128,35 +127,88 @@ public class IEMultiblockAdapter {
     }
 
     /**
-     * Private helper for reflection calls into IE multiblock objects.
+     * Method handles into IE's multiblock API, resolved once when IE multiblocks are first
+     * discovered. They are constants of this holder, so the JIT can inline calls through them.
      */
-    private static class IEReflectionHelper {
+    private static final class IEHandles {
+
+        private static final String HANDLER = "blusunrize.immersiveengineering.api.multiblocks.MultiblockHandler";
+
+        private static final MethodHandle GET_MULTIBLOCKS;
+        private static final MethodHandle GET_UNIQUE_NAME;
+        /** Null if this IE version has no display name on its multiblocks. */
+        @Nullable
+        private static final MethodHandle GET_DISPLAY_NAME;
+        private static final MethodHandle GET_STRUCTURE;
 
-        static ResourceLocation getUniqueName(Object ieMultiblock) throws Exception {
-            return (ResourceLocation) ieMultiblock.getClass()
-                .getMethod("getUniqueName")
-                .invoke(ieMultiblock);
+        static {
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Class<?> handler = Class.forName(HANDLER);
+                Class<?> multiblock = Class.forName(HANDLER + "$IMultiblock");
+
+                GET_MULTIBLOCKS = lookup.findStatic(handler, "getMultiblocks", MethodType.methodType(List.class));
+                GET_UNIQUE_NAME = lookup.findVirtual(multiblock, "getUniqueName", MethodType.methodType(ResourceLocation.class))
+                    .asType(MethodType.methodType(ResourceLocation.class, Object.class));
+                GET_DISPLAY_NAME = findOptional(lookup, multiblock, "getDisplayName", MethodType.methodType(Component.class));
+                GET_STRUCTURE = lookup.findVirtual(multiblock, "getStructure", MethodType.methodType(List.class, Level.class))
+                    .asType(MethodType.methodType(List.class, Object.class, Level.class));
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
         }
 
-        static Component getDisplayName(Object ieMultiblock) {
+        @Nullable
+        private static MethodHandle findOptional(MethodHandles.Lookup lookup, Class<?> owner, String name, MethodType type)
+                throws IllegalAccessException {
             try {
-                return (Component) ieMultiblock.getClass()
-                    .getMethod("getDisplayName")
-                    .invoke(ieMultiblock);
-            } catch (Exception e) {
+                return lookup.findVirtual(owner, name, type).asType(type.insertParameterTypes(0, Object.class));
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        static List<?> getMultiblocks() {
+            try {
+                return (List<?>) GET_MULTIBLOCKS.invokeExact();
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        static ResourceLocation getUniqueName(Object ieMultiblock) {
+            try {
+                return (ResourceLocation) GET_UNIQUE_NAME.invokeExact(ieMultiblock);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+        }
+
+        static Component getDisplayName(Object ieMultiblock, ResourceLocation uniqueName) {
+            if (GET_DISPLAY_NAME != null) {
                 try {
-                    ResourceLocation name = getUniqueName(ieMultiblock);
-                    return Component.literal(name.getPath());
-                } catch (Exception ex) {
-                    return Component.literal("Unknown");
+                    return (Component) GET_DISPLAY_NAME.invokeExact(ieMultiblock);
+                } catch (Throwable t) {
+                    if (t instanceof Error e) throw e;
+                    // Fall back to the unique name
                 }
             }
+            return Component.literal(uniqueName.getPath());
+        }
+
+        @SuppressWarnings("unchecked")
+        static List<StructureBlockInfo> getStructure(Object ieMultiblock, @Nullable Level level) {
+            try {
+                return (List<StructureBlockInfo>) GET_STRUCTURE.invokeExact(ieMultiblock, level);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
         }
 
-        static Vec3i getSize(Object ieMultiblock, Level level) throws Exception {
-            return (Vec3i) ieMultiblock.getClass()
-                .getMethod("getSize", Level.class)
-                .invoke(ieMultiblock, level);
+        private static RuntimeException rethrow(Throwable t) {
+            if (t instanceof RuntimeException e) return e;
+            if (t instanceof Error e) throw e;
+            return new IllegalStateException(t);
         }
     }
 }
@@ -1,24 +1,28 @@
 package com.multiblockprojector.common.adapters;
 
 import com.multiblockprojector.UniversalProjector;
-import com.multiblockprojector.api.BlockEntry;
 import com.multiblockprojector.api.MultiblockCategory;
 import com.multiblockprojector.api.MultiblockDefinition;
 import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.api.ProceduralStructure;
 import com.multiblockprojector.api.SingleBlock;
+import com.multiblockprojector.api.SizeRange;
+import com.multiblockprojector.api.StructureGrid;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Vec3i;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.levelgen.structure.templatesystem.StructureTemplate.StructureBlockInfo;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 /**
  * Adapter for all Mekanism multiblock structures.
@@ -31,69 +35,23 @@ public class MekanismMultiblockAdapter {
      */
     public record NamedDefinition(ResourceLocation id, MultiblockDefinition definition) {}
 
-    // ============================================
-    // Block States - Base Mekanism (MekanismBlocks)
-    // ============================================
-
-    // Dynamic Tank
-    private static BlockState dynamicTankBlock = null;
-    private static BlockState dynamicValveBlock = null;
-
-    // Induction Matrix
-    private static BlockState inductionCasingBlock = null;
-    private static BlockState inductionPortBlock = null;
-    private static BlockState basicInductionCellBlock = null;
-    private static BlockState basicInductionProviderBlock = null;
-
-    // Thermoelectric Boiler
-    private static BlockState boilerCasingBlock = null;
-    private static BlockState boilerValveBlock = null;
-    private static BlockState pressureDisperserBlock = null;
-    private static BlockState superheatingElementBlock = null;
-
-    // Thermal Evaporation Plant
-    private static BlockState thermalEvaporationBlock = null;
-    private static BlockState thermalEvaporationControllerBlock = null;
-    private static BlockState thermalEvaporationValveBlock = null;
+    /** Generated structures of the fixed and preset sizes by generator name; each is built once. */
+    private static final Map<StructureKey, MultiblockStructure> STRUCTURES = new ConcurrentHashMap<>();
 
-    // SPS
-    private static BlockState spsCasingBlock = null;
-    private static BlockState spsPortBlock = null;
-    private static BlockState superchargedCoilBlock = null;
-
-    // Shared
-    private static BlockState structuralGlassBlock = null;
-
-    // ============================================
-    // Block States - Mekanism Generators (GeneratorsBlocks)
-    // ============================================
+    /**
+     * Other sizes within a size range come from the client's chosen custom size, so only the
+     * most recently used few are kept.
+     */
+    private static final int MAX_RANGE_STRUCTURES = 16;
+    private static final Map<StructureKey, MultiblockStructure> RANGE_STRUCTURES = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<StructureKey, MultiblockStructure> eldest) {
+                return size() > MAX_RANGE_STRUCTURES;
+            }
+        });
 
-    // Fission Reactor
-    private static BlockState fissionCasingBlock = null;
-    private static BlockState fissionPortBlock = null;
-    private static BlockState fissionLogicAdapterBlock = null;
-    private static BlockState fissionFuelAssemblyBlock = null;
-    private static BlockState fissionControlRodBlock = null;
-
-    // Industrial Turbine
-    private static BlockState turbineCasingBlock = null;
-    private static BlockState turbineValveBlock = null;
-    private static BlockState turbineVentBlock = null;
-    private static BlockState turbineRotorBlock = null;
-    private static BlockState rotationalComplexBlock = null;
-    private static BlockState electromagneticCoilBlock = null;
-    private static BlockState saturatingCondenserBlock = null;
-
-    // Fusion Reactor
-    private static BlockState fusionFrameBlock = null;
-    private static BlockState fusionPortBlock = null;
-    private static BlockState fusionControllerBlock = null;
-    private static BlockState laserFocusMatrixBlock = null;
-
-    // Shared (generators)
-    private static BlockState reactorGlassBlock = null;
-
-    private static boolean blocksInitialized = false;
+    private record StructureKey(String name, BlockPos size) {}
 
     /**
      * Discover all Mekanism multiblocks and return them as named definitions.
@@ -103,8 +61,6 @@ public class MekanismMultiblockAdapter {
     public static List<NamedDefinition> discover() {
         List<NamedDefinition> results = new ArrayList<>();
         try {
-            initializeAllBlocks();
-
             results.add(createDynamicTank());
             results.add(createInductionMatrix());
             results.add(createThermoelectricBoiler());
@@ -119,178 +75,187 @@ public class MekanismMultiblockAdapter {
         return results;
     }
 
+    // ============================================
+    // Block States
+    // ============================================
+
     /**
-     * Initialize all Mekanism blocks via reflection.
+     * Mekanism's block states, resolved once via reflection, with vanilla stand-ins for any that
+     * are missing. Immutable, so structure providers can read it from any thread.
      */
-    private static void initializeAllBlocks() {
-        if (blocksInitialized) return;
-        blocksInitialized = true;
+    private static final class BlockTable {
+        // Base Mekanism (MekanismBlocks)
 
-        // Load base Mekanism blocks
-        try {
-            Class<?> mekanismBlocksClass = Class.forName("mekanism.common.registries.MekanismBlocks");
+        // Dynamic Tank
+        final BlockState dynamicTankBlock;
+        final BlockState dynamicValveBlock;
+
+        // Induction Matrix
+        final BlockState inductionCasingBlock;
+        final BlockState inductionPortBlock;
+        final BlockState basicInductionCellBlock;
+        final BlockState basicInductionProviderBlock;
+
+        // Thermoelectric Boiler
+        final BlockState boilerCasingBlock;
+        final BlockState boilerValveBlock;
+        final BlockState pressureDisperserBlock;
+        final BlockState superheatingElementBlock;
+
+        // Thermal Evaporation Plant
+        final BlockState thermalEvaporationBlock;
+        final BlockState thermalEvaporationControllerBlock;
+        final BlockState thermalEvaporationValveBlock;
+
+        // SPS
+        final BlockState spsCasingBlock;
+        final BlockState spsPortBlock;
+        final BlockState superchargedCoilBlock;
+
+        // Shared
+        final BlockState structuralGlassBlock;
+
+        // Mekanism Generators (GeneratorsBlocks)
+
+        // Fission Reactor
+        final BlockState fissionCasingBlock;
+        final BlockState fissionPortBlock;
+        final BlockState fissionLogicAdapterBlock;
+        final BlockState fissionFuelAssemblyBlock;
+        final BlockState fissionControlRodBlock;
+
+        // Industrial Turbine
+        final BlockState turbineCasingBlock;
+        final BlockState turbineValveBlock;
+        final BlockState turbineVentBlock;
+        final BlockState turbineRotorBlock;
+        final BlockState rotationalComplexBlock;
+        final BlockState electromagneticCoilBlock;
+        final BlockState saturatingCondenserBlock;
+
+        // Fusion Reactor
+        final BlockState fusionFrameBlock;
+        final BlockState fusionPortBlock;
+        final BlockState fusionControllerBlock;
+        final BlockState laserFocusMatrixBlock;
+
+        // Shared (generators)
+        final BlockState reactorGlassBlock;
+
+        private BlockTable() {
+            Class<?> base = registryClass("mekanism.common.registries.MekanismBlocks", "Base Mekanism");
+            Class<?> generators = registryClass("mekanism.generators.common.registries.GeneratorsBlocks", "Mekanism Generators");
+            BlockState iron = Blocks.IRON_BLOCK.defaultBlockState();
+            BlockState glass = Blocks.GLASS.defaultBlockState();
+            BlockState coal = Blocks.COAL_BLOCK.defaultBlockState();
+            BlockState redstone = Blocks.REDSTONE_BLOCK.defaultBlockState();
+            BlockState gold = Blocks.GOLD_BLOCK.defaultBlockState();
+            BlockState diamond = Blocks.DIAMOND_BLOCK.defaultBlockState();
+            BlockState emerald = Blocks.EMERALD_BLOCK.defaultBlockState();
+            BlockState lapis = Blocks.LAPIS_BLOCK.defaultBlockState();
+            BlockState copper = Blocks.COPPER_BLOCK.defaultBlockState();
 
             // Dynamic Tank
-            dynamicTankBlock = getBlockStateFromRegistry(mekanismBlocksClass, "DYNAMIC_TANK");
-            dynamicValveBlock = getBlockStateFromRegistry(mekanismBlocksClass, "DYNAMIC_VALVE");
+            dynamicTankBlock = resolve(base, "DYNAMIC_TANK", iron);
+            dynamicValveBlock = resolve(base, "DYNAMIC_VALVE", iron);
 
             // Induction Matrix
-            inductionCasingBlock = getBlockStateFromRegistry(mekanismBlocksClass, "INDUCTION_CASING");
-            inductionPortBlock = getBlockStateFromRegistry(mekanismBlocksClass, "INDUCTION_PORT");
-            basicInductionCellBlock = getBlockStateFromRegistry(mekanismBlocksClass, "BASIC_INDUCTION_CELL");
-            basicInductionProviderBlock = getBlockStateFromRegistry(mekanismBlocksClass, "BASIC_INDUCTION_PROVIDER");
+            inductionCasingBlock = resolve(base, "INDUCTION_CASING", iron);
+            inductionPortBlock = resolve(base, "INDUCTION_PORT", iron);
+            basicInductionCellBlock = resolve(base, "BASIC_INDUCTION_CELL", diamond);
+            basicInductionProviderBlock = resolve(base, "BASIC_INDUCTION_PROVIDER", emerald);
 
             // Thermoelectric Boiler
-            boilerCasingBlock = getBlockStateFromRegistry(mekanismBlocksClass, "BOILER_CASING");
-            boilerValveBlock = getBlockStateFromRegistry(mekanismBlocksClass, "BOILER_VALVE");
-            pressureDisperserBlock = getBlockStateFromRegistry(mekanismBlocksClass, "PRESSURE_DISPERSER");
-            superheatingElementBlock = getBlockStateFromRegistry(mekanismBlocksClass, "SUPERHEATING_ELEMENT");
+            boilerCasingBlock = resolve(base, "BOILER_CASING", iron);
+            boilerValveBlock = resolve(base, "BOILER_VALVE", iron);
+            pressureDisperserBlock = resolve(base, "PRESSURE_DISPERSER", copper);
+            superheatingElementBlock = resolve(base, "SUPERHEATING_ELEMENT", redstone);
 
             // Thermal Evaporation Plant
-            thermalEvaporationBlock = getBlockStateFromRegistry(mekanismBlocksClass, "THERMAL_EVAPORATION_BLOCK");
-            thermalEvaporationControllerBlock = getBlockStateFromRegistry(mekanismBlocksClass, "THERMAL_EVAPORATION_CONTROLLER");
-            thermalEvaporationValveBlock = getBlockStateFromRegistry(mekanismBlocksClass, "THERMAL_EVAPORATION_VALVE");
+            thermalEvaporationBlock = resolve(base, "THERMAL_EVAPORATION_BLOCK", iron);
+            thermalEvaporationControllerBlock = resolve(base, "THERMAL_EVAPORATION_CONTROLLER", gold);
+            thermalEvaporationValveBlock = resolve(base, "THERMAL_EVAPORATION_VALVE", iron);
 
             // SPS
-            spsCasingBlock = getBlockStateFromRegistry(mekanismBlocksClass, "SPS_CASING");
-            spsPortBlock = getBlockStateFromRegistry(mekanismBlocksClass, "SPS_PORT");
-            superchargedCoilBlock = getBlockStateFromRegistry(mekanismBlocksClass, "SUPERCHARGED_COIL");
+            spsCasingBlock = resolve(base, "SPS_CASING", iron);
+            spsPortBlock = resolve(base, "SPS_PORT", iron);
+            superchargedCoilBlock = resolve(base, "SUPERCHARGED_COIL", lapis);
 
             // Shared
-            structuralGlassBlock = getBlockStateFromRegistry(mekanismBlocksClass, "STRUCTURAL_GLASS");
-
-            UniversalProjector.LOGGER.debug("Loaded base Mekanism blocks");
-        } catch (ClassNotFoundException e) {
-            UniversalProjector.LOGGER.debug("Base Mekanism not found");
-        } catch (Exception e) {
-            UniversalProjector.LOGGER.error("Failed to load base Mekanism blocks", e);
-        }
-
-        // Load Mekanism Generators blocks
-        try {
-            Class<?> generatorsBlocksClass = Class.forName("mekanism.generators.common.registries.GeneratorsBlocks");
+            structuralGlassBlock = resolve(base, "STRUCTURAL_GLASS", glass);
 
             // Fission Reactor
-            fissionCasingBlock = getBlockStateFromRegistry(generatorsBlocksClass, "FISSION_REACTOR_CASING");
-            fissionPortBlock = getBlockStateFromRegistry(generatorsBlocksClass, "FISSION_REACTOR_PORT");
-            fissionLogicAdapterBlock = getBlockStateFromRegistry(generatorsBlocksClass, "FISSION_REACTOR_LOGIC_ADAPTER");
-            fissionFuelAssemblyBlock = getBlockStateFromRegistry(generatorsBlocksClass, "FISSION_FUEL_ASSEMBLY");
-            fissionControlRodBlock = getBlockStateFromRegistry(generatorsBlocksClass, "CONTROL_ROD_ASSEMBLY");
+            fissionCasingBlock = resolve(generators, "FISSION_REACTOR_CASING", iron);
+            fissionPortBlock = resolve(generators, "FISSION_REACTOR_PORT", iron);
+            fissionLogicAdapterBlock = resolve(generators, "FISSION_REACTOR_LOGIC_ADAPTER", iron);
+            fissionFuelAssemblyBlock = resolve(generators, "FISSION_FUEL_ASSEMBLY", coal);
+            fissionControlRodBlock = resolve(generators, "CONTROL_ROD_ASSEMBLY", redstone);
 
             // Industrial Turbine
-            turbineCasingBlock = getBlockStateFromRegistry(generatorsBlocksClass, "TURBINE_CASING");
-            turbineValveBlock = getBlockStateFromRegistry(generatorsBlocksClass, "TURBINE_VALVE");
-            turbineVentBlock = getBlockStateFromRegistry(generatorsBlocksClass, "TURBINE_VENT");
-            turbineRotorBlock = getBlockStateFromRegistry(generatorsBlocksClass, "TURBINE_ROTOR");
-            rotationalComplexBlock = getBlockStateFromRegistry(generatorsBlocksClass, "ROTATIONAL_COMPLEX");
-            electromagneticCoilBlock = getBlockStateFromRegistry(generatorsBlocksClass, "ELECTROMAGNETIC_COIL");
-            saturatingCondenserBlock = getBlockStateFromRegistry(generatorsBlocksClass, "SATURATING_CONDENSER");
+            turbineCasingBlock = resolve(generators, "TURBINE_CASING", iron);
+            turbineValveBlock = resolve(generators, "TURBINE_VALVE", iron);
+            turbineVentBlock = resolve(generators, "TURBINE_VENT", iron);
+            turbineRotorBlock = resolve(generators, "TURBINE_ROTOR", coal);
+            rotationalComplexBlock = resolve(generators, "ROTATIONAL_COMPLEX", gold);
+            electromagneticCoilBlock = resolve(generators, "ELECTROMAGNETIC_COIL", copper);
+            saturatingCondenserBlock = resolve(generators, "SATURATING_CONDENSER", lapis);
 
             // Fusion Reactor
-            fusionFrameBlock = getBlockStateFromRegistry(generatorsBlocksClass, "FUSION_REACTOR_FRAME");
-            fusionPortBlock = getBlockStateFromRegistry(generatorsBlocksClass, "FUSION_REACTOR_PORT");
-            fusionControllerBlock = getBlockStateFromRegistry(generatorsBlocksClass, "FUSION_REACTOR_CONTROLLER");
-            laserFocusMatrixBlock = getBlockStateFromRegistry(generatorsBlocksClass, "LASER_FOCUS_MATRIX");
+            fusionFrameBlock = resolve(generators, "FUSION_REACTOR_FRAME", iron);
+            fusionPortBlock = resolve(generators, "FUSION_REACTOR_PORT", iron);
+            fusionControllerBlock = resolve(generators, "FUSION_REACTOR_CONTROLLER", gold);
+            laserFocusMatrixBlock = resolve(generators, "LASER_FOCUS_MATRIX", diamond);
 
             // Shared (generators)
-            reactorGlassBlock = getBlockStateFromRegistry(generatorsBlocksClass, "REACTOR_GLASS");
+            reactorGlassBlock = resolve(generators, "REACTOR_GLASS", glass);
+        }
 
-            UniversalProjector.LOGGER.debug("Loaded Mekanism Generators blocks");
-        } catch (ClassNotFoundException e) {
-            UniversalProjector.LOGGER.debug("Mekanism Generators not found");
-        } catch (Exception e) {
-            UniversalProjector.LOGGER.error("Failed to load Mekanism Generators blocks", e);
+        @Nullable
+        private static Class<?> registryClass(String name, String description) {
+            try {
+                return Class.forName(name);
+            } catch (ClassNotFoundException e) {
+                UniversalProjector.LOGGER.debug("{} not found", description);
+                return null;
+            }
         }
 
-        // Apply fallbacks
-        applyFallbackBlocks();
+        /**
+         * Get a BlockState from a Mekanism block registry using reflection, or the fallback if
+         * the registry or the block is missing.
+         */
+        private static BlockState resolve(@Nullable Class<?> registryClass, String fieldName, BlockState fallback) {
+            if (registryClass == null) return fallback;
+            try {
+                Object registryObject = registryClass.getField(fieldName).get(null);
+                if (registryObject != null) {
+                    Object block = registryObject.getClass().getMethod("get").invoke(registryObject);
+                    if (block instanceof Block b) {
+                        return b.defaultBlockState();
+                    }
+                }
+            } catch (Exception e) {
+                UniversalProjector.LOGGER.debug("Failed to load Mekanism block {}: {}", fieldName, e.getMessage());
+            }
+            return fallback;
+        }
     }
 
-    /**
-     * Apply fallback blocks for any that failed to load.
-     */
-    private static void applyFallbackBlocks() {
-        BlockState ironBlock = Blocks.IRON_BLOCK.defaultBlockState();
-        BlockState glassBlock = Blocks.GLASS.defaultBlockState();
-        BlockState coalBlock = Blocks.COAL_BLOCK.defaultBlockState();
-        BlockState redstoneBlock = Blocks.REDSTONE_BLOCK.defaultBlockState();
-        BlockState goldBlock = Blocks.GOLD_BLOCK.defaultBlockState();
-        BlockState diamondBlock = Blocks.DIAMOND_BLOCK.defaultBlockState();
-        BlockState emeraldBlock = Blocks.EMERALD_BLOCK.defaultBlockState();
-        BlockState lapisBlock = Blocks.LAPIS_BLOCK.defaultBlockState();
-        BlockState copperBlock = Blocks.COPPER_BLOCK.defaultBlockState();
-
-        // Dynamic Tank
-        if (dynamicTankBlock == null) dynamicTankBlock = ironBlock;
-        if (dynamicValveBlock == null) dynamicValveBlock = ironBlock;
-
-        // Induction Matrix
-        if (inductionCasingBlock == null) inductionCasingBlock = ironBlock;
-        if (inductionPortBlock == null) inductionPortBlock = ironBlock;
-        if (basicInductionCellBlock == null) basicInductionCellBlock = diamondBlock;
-        if (basicInductionProviderBlock == null) basicInductionProviderBlock = emeraldBlock;
-
-        // Thermoelectric Boiler
-        if (boilerCasingBlock == null) boilerCasingBlock = ironBlock;
-        if (boilerValveBlock == null) boilerValveBlock = ironBlock;
-        if (pressureDisperserBlock == null) pressureDisperserBlock = copperBlock;
-        if (superheatingElementBlock == null) superheatingElementBlock = redstoneBlock;
-
-        // Thermal Evaporation Plant
-        if (thermalEvaporationBlock == null) thermalEvaporationBlock = ironBlock;
-        if (thermalEvaporationControllerBlock == null) thermalEvaporationControllerBlock = goldBlock;
-        if (thermalEvaporationValveBlock == null) thermalEvaporationValveBlock = ironBlock;
-
-        // SPS
-        if (spsCasingBlock == null) spsCasingBlock = ironBlock;
-        if (spsPortBlock == null) spsPortBlock = ironBlock;
-        if (superchargedCoilBlock == null) superchargedCoilBlock = lapisBlock;
-
-        // Shared
-        if (structuralGlassBlock == null) structuralGlassBlock = glassBlock;
-
-        // Fission Reactor
-        if (fissionCasingBlock == null) fissionCasingBlock = ironBlock;
-        if (fissionPortBlock == null) fissionPortBlock = ironBlock;
-        if (fissionLogicAdapterBlock == null) fissionLogicAdapterBlock = ironBlock;
-        if (fissionFuelAssemblyBlock == null) fissionFuelAssemblyBlock = coalBlock;
-        if (fissionControlRodBlock == null) fissionControlRodBlock = redstoneBlock;
-
-        // Industrial Turbine
-        if (turbineCasingBlock == null) turbineCasingBlock = ironBlock;
-        if (turbineValveBlock == null) turbineValveBlock = ironBlock;
-        if (turbineVentBlock == null) turbineVentBlock = ironBlock;
-        if (turbineRotorBlock == null) turbineRotorBlock = coalBlock;
-        if (rotationalComplexBlock == null) rotationalComplexBlock = goldBlock;
-        if (electromagneticCoilBlock == null) electromagneticCoilBlock = copperBlock;
-        if (saturatingCondenserBlock == null) saturatingCondenserBlock = lapisBlock;
-
-        // Fusion Reactor
-        if (fusionFrameBlock == null) fusionFrameBlock = ironBlock;
-        if (fusionPortBlock == null) fusionPortBlock = ironBlock;
-        if (fusionControllerBlock == null) fusionControllerBlock = goldBlock;
-        if (laserFocusMatrixBlock == null) laserFocusMatrixBlock = diamondBlock;
+    /** Holds the table; class initialisation resolves it once and publishes it safely to all threads. */
+    private static final class BlockTableHolder {
+        static final BlockTable TABLE = new BlockTable();
+    }
 
-        // Shared (generators)
-        if (reactorGlassBlock == null) reactorGlassBlock = glassBlock;
+    private static BlockTable blocks() {
+        return BlockTableHolder.TABLE;
     }
 
     /**
-     * Get a BlockState from a Mekanism block registry using reflection.
+     * Resolves Mekanism's blocks now rather than on the first structure request. Call once
+     * registries are frozen.
      */
-    private static BlockState getBlockStateFromRegistry(Class<?> registryClass, String fieldName) {
-        try {
-            Object registryObject = registryClass.getField(fieldName).get(null);
-            if (registryObject != null) {
-                Object block = registryObject.getClass().getMethod("get").invoke(registryObject);
-                if (block instanceof Block b) {
-                    return b.defaultBlockState();
-                }
-            }
-        } catch (Exception e) {
-            // Silent fail - will use fallback
-        }
-        return null;
+    public static void resolveBlocks() {
+        blocks();
     }
 
     // ============================================
@@ -316,16 +281,68 @@ public class MekanismMultiblockAdapter {
     }
 
     /**
-     * Convert a list of StructureBlockInfo to a MultiblockStructure, filtering out air blocks.
+     * Returns the structure for a size, generating it on first use. Generated structures are
+     * immutable grid views, so one instance is shared by every caller.
+     */
+    private static MultiblockStructure memoised(String name, BlockPos size, Function<BlockPos, StructureGrid> generator) {
+        return STRUCTURES.computeIfAbsent(new StructureKey(name, size), key -> generator.apply(size).toStructure());
+    }
+
+    /**
+     * Like {@link #memoised(String, BlockPos, Function)} for the preset sizes; other sizes from the
+     * size range go through a small LRU instead.
      */
-    private static MultiblockStructure toMultiblockStructure(List<StructureBlockInfo> infoList) {
-        Map<BlockPos, BlockEntry> blockMap = new LinkedHashMap<>();
-        for (StructureBlockInfo info : infoList) {
-            if (!info.state().isAir()) {
-                blockMap.put(info.pos(), new SingleBlock(info.state()));
+    private static MultiblockStructure memoised(String name, BlockPos size, List<MultiblockDefinition.SizeVariant> presets,
+                                                Function<BlockPos, StructureGrid> generator) {
+        for (MultiblockDefinition.SizeVariant preset : presets) {
+            if (preset.dimensions().equals(size)) return memoised(name, size, generator);
+        }
+        StructureKey key = new StructureKey(name, size);
+        MultiblockStructure structure = RANGE_STRUCTURES.get(key);
+        if (structure == null) {
+            structure = generator.apply(size).toStructure();
+            RANGE_STRUCTURES.put(key, structure);
+        }
+        return structure;
+    }
+
+    /** Fills the six faces of a box with one block. */
+    private static void fillShell(StructureGrid.Builder grid, int width, int height, int depth, SingleBlock block) {
+        grid.fill(0, 0, 0, width - 1, 0, depth - 1, block);
+        grid.fill(0, height - 1, 0, width - 1, height - 1, depth - 1, block);
+        grid.fill(0, 0, 0, width - 1, height - 1, 0, block);
+        grid.fill(0, 0, depth - 1, width - 1, height - 1, depth - 1, block);
+        grid.fill(0, 0, 0, 0, height - 1, depth - 1, block);
+        grid.fill(width - 1, 0, 0, width - 1, height - 1, depth - 1, block);
+    }
+
+    /** Fills the twelve edges of a box (see {@link #isEdge}) with one block. */
+    private static void fillEdges(StructureGrid.Builder grid, int width, int height, int depth, SingleBlock block) {
+        for (int x : new int[] { 0, width - 1 }) {
+            for (int z : new int[] { 0, depth - 1 }) {
+                grid.fill(x, 0, z, x, height - 1, z, block);
             }
         }
-        return new MultiblockStructure(blockMap);
+        for (int y : new int[] { 0, height - 1 }) {
+            grid.fill(0, y, 0, width - 1, y, 0, block);
+            grid.fill(0, y, depth - 1, width - 1, y, depth - 1, block);
+            grid.fill(0, y, 0, 0, y, depth - 1, block);
+            grid.fill(width - 1, y, 0, width - 1, y, depth - 1, block);
+        }
+    }
+
+    /** Fills the interior of a box (see {@link #isInterior}) between two heights, inclusive. */
+    private static void fillInterior(StructureGrid.Builder grid, int width, int height, int depth,
+                                     int minY, int maxY, SingleBlock block) {
+        grid.fill(1, Math.max(1, minY), 1, width - 2, Math.min(height - 2, maxY), depth - 2, block);
+    }
+
+    /** Sets a block on a face, leaving edges alone, as edges are always casing. */
+    private static void setOnFace(StructureGrid.Builder grid, int x, int y, int z,
+                                  int width, int height, int depth, SingleBlock block) {
+        if (!isEdge(x, y, z, width, height, depth) && !isInterior(x, y, z, width, height, depth)) {
+            grid.set(x, y, z, block);
+        }
     }
 
     // ============================================
@@ -341,10 +358,8 @@ public class MekanismMultiblockAdapter {
             new MultiblockDefinition.SizeVariant(Component.literal("Large"), new BlockPos(18, 18, 18), false)
         );
 
-        MultiblockDefinition.StructureProvider provider = (variant, level) -> {
-            Vec3i size = new Vec3i(variant.dimensions().getX(), variant.dimensions().getY(), variant.dimensions().getZ());
-            return toMultiblockStructure(generateDynamicTankStructure(size));
-        };
+        MultiblockDefinition.StructureProvider provider = (variant, level) ->
+            generateDynamicTankStructure(variant.dimensions()).toStructure();
 
         return new NamedDefinition(
             ResourceLocation.fromNamespaceAndPath("mekanism", "dynamic_tank"),
@@ -353,41 +368,26 @@ public class MekanismMultiblockAdapter {
                 "mekanism",
                 MultiblockCategory.STORAGE,
                 variants,
-                provider
+                provider,
+                SizeRange.of(SizeRange.Axis.of(3, 18), SizeRange.Axis.of(3, 18), SizeRange.Axis.of(3, 18))
             )
         );
     }
 
-    private static List<StructureBlockInfo> generateDynamicTankStructure(Vec3i size) {
-        List<StructureBlockInfo> blocks = new ArrayList<>();
+    /** A glass shell on a casing floor with casing edges, computed per position rather than stored. */
+    private static ProceduralStructure generateDynamicTankStructure(BlockPos size) {
         int width = size.getX(), height = size.getY(), depth = size.getZ();
-        int centerX = width / 2, centerZ = depth / 2;
-
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    if (isInterior(x, y, z, width, height, depth)) continue;
-
-                    BlockPos pos = new BlockPos(x, y, z);
-                    BlockState block;
-
-                    if (isEdge(x, y, z, width, height, depth)) {
-                        block = dynamicTankBlock;
-                    } else if (y == 0) {
-                        block = dynamicTankBlock;
-                    } else if (y == 1 && x == centerX && z == 0) {
-                        block = dynamicValveBlock;
-                    } else if (y == 1 && x == centerX && z == depth - 1) {
-                        block = dynamicValveBlock;
-                    } else {
-                        block = structuralGlassBlock;
-                    }
-
-                    blocks.add(new StructureBlockInfo(pos, block, null));
-                }
-            }
-        }
-        return blocks;
+        int centerX = width / 2;
+        SingleBlock casing = new SingleBlock(blocks().dynamicTankBlock);
+        SingleBlock valve = new SingleBlock(blocks().dynamicValveBlock);
+        SingleBlock glass = new SingleBlock(blocks().structuralGlassBlock);
+
+        return ProceduralStructure.builder(width, height, depth, (x, y, z) -> {
+            if (isInterior(x, y, z, width, height, depth)) return null;
+            if (y == 0 || isEdge(x, y, z, width, height, depth)) return casing;
+            if (y == 1 && x == centerX && (z == 0 || z == depth - 1)) return valve;
+            return glass;
+        }).fillLayers(0, 0, casing).build();
     }
 
     // ============================================
@@ -403,10 +403,9 @@ public class MekanismMultiblockAdapter {
             new MultiblockDefinition.SizeVariant(Component.literal("Large"), new BlockPos(18, 18, 18), false)
         );
 
-        MultiblockDefinition.StructureProvider provider = (variant, level) -> {
-            Vec3i size = new Vec3i(variant.dimensions().getX(), variant.dimensions().getY(), variant.dimensions().getZ());
-            return toMultiblockStructure(generateInductionMatrixStructure(size));
-        };
+        MultiblockDefinition.StructureProvider provider = (variant, level) ->
+            memoised("induction_matrix", variant.dimensions(), variants,
+                MekanismMultiblockAdapter::generateInductionMatrixStructure);
 
         return new NamedDefinition(
             ResourceLocation.fromNamespaceAndPath("mekanism", "induction_matrix"),
@@ -415,55 +414,33 @@ public class MekanismMultiblockAdapter {
                 "mekanism",
                 MultiblockCategory.POWER,
                 variants,
-                provider
+                provider,
+                SizeRange.of(SizeRange.Axis.of(4, 18), SizeRange.Axis.of(4, 18), SizeRange.Axis.of(4, 18))
             )
         );
     }
 
-    private static List<StructureBlockInfo> generateInductionMatrixStructure(Vec3i size) {
-        List<StructureBlockInfo> blocks = new ArrayList<>();
+    private static StructureGrid generateInductionMatrixStructure(BlockPos size) {
         int width = size.getX(), height = size.getY(), depth = size.getZ();
-        int centerX = width / 2, centerZ = depth / 2;
-
-        // Track if we've placed the single provider yet
-        boolean providerPlaced = false;
-
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    BlockState block;
-
-                    if (isInterior(x, y, z, width, height, depth)) {
-                        // Interior: fill with Basic Induction Cells, place 1 Basic Induction Provider
-                        // Place provider at first interior position (1,1,1)
-                        if (!providerPlaced && x == 1 && y == 1 && z == 1) {
-                            block = basicInductionProviderBlock;
-                            providerPlaced = true;
-                        } else {
-                            block = basicInductionCellBlock;
-                        }
-                    } else if (isEdge(x, y, z, width, height, depth)) {
-                        block = inductionCasingBlock;
-                    } else if (y == 0) {
-                        // Bottom face - all casing
-                        block = inductionCasingBlock;
-                    } else if (y == 1 && x == centerX && z == 0) {
-                        // Front port (input)
-                        block = inductionPortBlock;
-                    } else if (y == 1 && x == centerX && z == depth - 1) {
-                        // Back port (output)
-                        block = inductionPortBlock;
-                    } else {
-                        // Other face positions - structural glass
-                        block = structuralGlassBlock;
-                    }
-
-                    blocks.add(new StructureBlockInfo(pos, block, null));
-                }
-            }
+        int centerX = width / 2;
+        SingleBlock casing = new SingleBlock(blocks().inductionCasingBlock);
+        SingleBlock port = new SingleBlock(blocks().inductionPortBlock);
+
+        StructureGrid.Builder grid = StructureGrid.builder(width, height, depth);
+        // Interior: fill with Basic Induction Cells, place 1 Basic Induction Provider at (1,1,1)
+        fillInterior(grid, width, height, depth, 1, height - 2, new SingleBlock(blocks().basicInductionCellBlock));
+        if (isInterior(1, 1, 1, width, height, depth)) {
+            grid.set(1, 1, 1, new SingleBlock(blocks().basicInductionProviderBlock));
         }
-        return blocks;
+
+        // Faces are structural glass, with an all-casing bottom and casing edges
+        fillShell(grid, width, height, depth, new SingleBlock(blocks().structuralGlassBlock));
+        grid.fill(0, 0, 0, width - 1, 0, depth - 1, casing);
+        fillEdges(grid, width, height, depth, casing);
+        // Front port (input) and back port (output)
+        setOnFace(grid, centerX, 1, 0, width, height, depth, port);
+        setOnFace(grid, centerX, 1, depth - 1, width, height, depth, port);
+        return grid.build();
     }
 
     // ============================================
@@ -479,10 +456,9 @@ public class MekanismMultiblockAdapter {
             new MultiblockDefinition.SizeVariant(Component.literal("Large"), new BlockPos(18, 18, 18), false)
         );
 
-        MultiblockDefinition.StructureProvider provider = (variant, level) -> {
-            Vec3i size = new Vec3i(variant.dimensions().getX(), variant.dimensions().getY(), variant.dimensions().getZ());
-            return toMultiblockStructure(generateThermoelectricBoilerStructure(size));
-        };
+        MultiblockDefinition.StructureProvider provider = (variant, level) ->
+            memoised("thermoelectric_boiler", variant.dimensions(), variants,
+                MekanismMultiblockAdapter::generateThermoelectricBoilerStructure);
 
         return new NamedDefinition(
             ResourceLocation.fromNamespaceAndPath("mekanism", "thermoelectric_boiler"),
@@ -491,15 +467,17 @@ public class MekanismMultiblockAdapter {
                 "mekanism",
                 MultiblockCategory.PROCESSING,
                 variants,
-                provider
+                provider,
+                SizeRange.of(SizeRange.Axis.of(3, 18), SizeRange.Axis.of(4, 18), SizeRange.Axis.of(3, 18))
             )
         );
     }
 
-    private static List<StructureBlockInfo> generateThermoelectricBoilerStructure(Vec3i size) {
-        List<StructureBlockInfo> blocks = new ArrayList<>();
+    private static StructureGrid generateThermoelectricBoilerStructure(BlockPos size) {
         int width = size.getX(), height = size.getY(), depth = size.getZ();
         int centerX = width / 2, centerZ = depth / 2;
+        SingleBlock casing = new SingleBlock(blocks().boilerCasingBlock);
+        SingleBlock valve = new SingleBlock(blocks().boilerValveBlock);
 
         // Interior layout (from wiki):
         // - Top section: Steam cavity (air only)
@@ -512,56 +490,21 @@ public class MekanismMultiblockAdapter {
         int disperserY = height - 3;
         if (disperserY < 2) disperserY = 2; // Minimum: at least 1 layer of water below
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    BlockState block = null;
-
-                    if (isInterior(x, y, z, width, height, depth)) {
-                        if (y == disperserY) {
-                            // Full layer of pressure dispersers
-                            block = pressureDisperserBlock;
-                        } else if (y < disperserY) {
-                            // Water section: superheating elements must be CONTIGUOUS
-                            // Place them as a solid mass at the bottom of water cavity
-                            if (y == 1) {
-                                // Bottom interior layer: solid floor of superheating elements
-                                block = superheatingElementBlock;
-                            }
-                            // Other water layers are air (null)
-                        }
-                        // Steam section (y > disperserY) is air (null)
-
-                        if (block != null) {
-                            blocks.add(new StructureBlockInfo(pos, block, null));
-                        }
-                        continue;
-                    }
-
-                    if (isEdge(x, y, z, width, height, depth)) {
-                        block = boilerCasingBlock;
-                    } else if (y == 0) {
-                        // Bottom face - all casing
-                        block = boilerCasingBlock;
-                    } else if (y == 1 && x == centerX && z == 0) {
-                        // Water input valve (front, low)
-                        block = boilerValveBlock;
-                    } else if (y == 1 && x == centerX && z == depth - 1) {
-                        // Heated water output valve (back, low)
-                        block = boilerValveBlock;
-                    } else if (y == height - 2 && x == 0 && z == centerZ) {
-                        // Steam output valve (left side, high - in steam section)
-                        block = boilerValveBlock;
-                    } else {
-                        block = structuralGlassBlock;
-                    }
-
-                    blocks.add(new StructureBlockInfo(pos, block, null));
-                }
-            }
-        }
-        return blocks;
+        StructureGrid.Builder grid = StructureGrid.builder(width, height, depth);
+        // Full layer of pressure dispersers
+        fillInterior(grid, width, height, depth, disperserY, disperserY, new SingleBlock(blocks().pressureDisperserBlock));
+        // Bottom interior layer: solid floor of superheating elements; other water and steam layers are air
+        fillInterior(grid, width, height, depth, 1, 1, new SingleBlock(blocks().superheatingElementBlock));
+
+        fillShell(grid, width, height, depth, new SingleBlock(blocks().structuralGlassBlock));
+        grid.fill(0, 0, 0, width - 1, 0, depth - 1, casing);
+        fillEdges(grid, width, height, depth, casing);
+        // Water input valve (front, low) and heated water output valve (back, low)
+        setOnFace(grid, centerX, 1, 0, width, height, depth, valve);
+        setOnFace(grid, centerX, 1, depth - 1, width, height, depth, valve);
+        // Steam output valve (left side, high - in steam section)
+        setOnFace(grid, 0, height - 2, centerZ, width, height, depth, valve);
+        return grid.build();
     }
 
     // ============================================
@@ -577,10 +520,9 @@ public class MekanismMultiblockAdapter {
             new MultiblockDefinition.SizeVariant(Component.literal("Large"), new BlockPos(4, 18, 4), false)
         );
 
-        MultiblockDefinition.StructureProvider provider = (variant, level) -> {
-            Vec3i size = new Vec3i(variant.dimensions().getX(), variant.dimensions().getY(), variant.dimensions().getZ());
-            return toMultiblockStructure(generateThermalEvaporationPlantStructure(size));
-        };
+        MultiblockDefinition.StructureProvider provider = (variant, level) ->
+            memoised("thermal_evaporation_plant", variant.dimensions(), variants,
+                MekanismMultiblockAdapter::generateThermalEvaporationPlantStructure);
 
         return new NamedDefinition(
             ResourceLocation.fromNamespaceAndPath("mekanism", "thermal_evaporation_plant"),
@@ -589,14 +531,16 @@ public class MekanismMultiblockAdapter {
                 "mekanism",
                 MultiblockCategory.PROCESSING,
                 variants,
-                provider
+                provider,
+                SizeRange.of(SizeRange.Axis.fixed(4), SizeRange.Axis.of(3, 18), SizeRange.Axis.fixed(4))
             )
         );
     }
 
-    private static List<StructureBlockInfo> generateThermalEvaporationPlantStructure(Vec3i size) {
-        List<StructureBlockInfo> blocks = new ArrayList<>();
+    private static StructureGrid generateThermalEvaporationPlantStructure(BlockPos size) {
         int height = size.getY();
+        SingleBlock wall = new SingleBlock(blocks().thermalEvaporationBlock);
+        SingleBlock valve = new SingleBlock(blocks().thermalEvaporationValveBlock);
 
         // Thermal Evaporation Plant structure:
         // - Fixed 4x4 footprint (full rectangle)
@@ -604,52 +548,20 @@ public class MekanismMultiblockAdapter {
         // - Middle layers: 4x4 perimeter walls with hollow 2x2 interior
         // - Top layer: Perimeter solid, center open (same as middle)
         // - All 3 ports (1 controller + 2 valves) at y=1
-
-        for (int x = 0; x < 4; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < 4; z++) {
-                    boolean isInteriorPos = (x == 1 || x == 2) && (z == 1 || z == 2);
-                    boolean isBottom = (y == 0);
-
-                    BlockPos pos = new BlockPos(x, y, z);
-                    BlockState block;
-
-                    // Base layer (y=0): Full 4x4 solid floor
-                    if (isBottom) {
-                        blocks.add(new StructureBlockInfo(pos, thermalEvaporationBlock, null));
-                        continue;
-                    }
-
-                    // All layers above base (including top): interior is hollow/open
-                    if (isInteriorPos) {
-                        continue;
-                    }
-
-                    // Wall positions (perimeter of 4x4)
-                    // All 3 ports at y=1 (row just above bottom)
-
-                    // Controller on front wall at y=1
-                    if (z == 0 && x == 1 && y == 1) {
-                        block = thermalEvaporationControllerBlock;
-                    }
-                    // Input valve on front wall at y=1
-                    else if (z == 0 && x == 2 && y == 1) {
-                        block = thermalEvaporationValveBlock;
-                    }
-                    // Output valve on back wall at y=1
-                    else if (z == 3 && x == 1 && y == 1) {
-                        block = thermalEvaporationValveBlock;
-                    }
-                    // All other wall positions: regular blocks
-                    else {
-                        block = thermalEvaporationBlock;
-                    }
-
-                    blocks.add(new StructureBlockInfo(pos, block, null));
-                }
-            }
+        StructureGrid.Builder grid = StructureGrid.builder(4, height, 4);
+        grid.fill(0, 0, 0, 3, 0, 3, wall);
+        grid.fill(0, 1, 0, 3, height - 1, 0, wall);
+        grid.fill(0, 1, 3, 3, height - 1, 3, wall);
+        grid.fill(0, 1, 1, 0, height - 1, 2, wall);
+        grid.fill(3, 1, 1, 3, height - 1, 2, wall);
+
+        if (height > 1) {
+            // Controller and input valve on the front wall, output valve on the back wall
+            grid.set(1, 1, 0, new SingleBlock(blocks().thermalEvaporationControllerBlock));
+            grid.set(2, 1, 0, valve);
+            grid.set(1, 1, 3, valve);
         }
-        return blocks;
+        return grid.build();
     }
 
     // ============================================
@@ -672,7 +584,7 @@ public class MekanismMultiblockAdapter {
         BlockPos size = new BlockPos(7, 7, 7);
 
         MultiblockDefinition.StructureProvider provider = (variant, level) ->
-            toMultiblockStructure(generateSPSStructure());
+            memoised("sps", size, dims -> generateSPSStructure());
 
         return new NamedDefinition(
             ResourceLocation.fromNamespaceAndPath("mekanism", "sps"),
@@ -686,14 +598,14 @@ public class MekanismMultiblockAdapter {
         );
     }
 
-    private static List<StructureBlockInfo> generateSPSStructure() {
-        List<StructureBlockInfo> blocks = new ArrayList<>();
+    private static StructureGrid generateSPSStructure() {
+        StructureGrid.Builder grid = StructureGrid.builder(7, 7, 7);
+        SingleBlock coil = new SingleBlock(blocks().superchargedCoilBlock);
 
         // SPS is a 7x7x7 structure with cross-shaped faces
         // Uses ALLOWED_GRID from Mekanism source for exact validation
         // Ports on all 6 faces (4 sides + top + bottom), with coils attached inside
         // Extra 2 ports on front face for energy input
-
         for (int x = 0; x < 7; x++) {
             for (int y = 0; y < 7; y++) {
                 for (int z = 0; z < 7; z++) {
@@ -712,44 +624,24 @@ public class MekanismMultiblockAdapter {
                         block = getSPSFaceBlock(x, z, "bottom");
                     } else if (y == 6) {
                         block = getSPSFaceBlock(x, z, "top");
-                    } else {
-                        // Interior - place Supercharged Coils attached to ports
-                        // Each face center port needs a coil inside
-
-                        // Coil for left port (0,3,3) -> inside at (1,3,3)
-                        if (x == 1 && y == 3 && z == 3) {
-                            block = superchargedCoilBlock;
-                        }
-                        // Coil for right port (6,3,3) -> inside at (5,3,3)
-                        else if (x == 5 && y == 3 && z == 3) {
-                            block = superchargedCoilBlock;
-                        }
-                        // Coil for front port (3,3,0) -> inside at (3,3,1)
-                        else if (x == 3 && y == 3 && z == 1) {
-                            block = superchargedCoilBlock;
-                        }
-                        // Coil for back port (3,3,6) -> inside at (3,3,5)
-                        else if (x == 3 && y == 3 && z == 5) {
-                            block = superchargedCoilBlock;
-                        }
-                        // Coil for top port (3,6,3) -> inside at (3,5,3)
-                        else if (x == 3 && y == 5 && z == 3) {
-                            block = superchargedCoilBlock;
-                        }
-                        // Coil for bottom port (3,0,3) -> inside at (3,1,3)
-                        else if (x == 3 && y == 1 && z == 3) {
-                            block = superchargedCoilBlock;
-                        }
-                        // Rest of interior is air (hollow)
                     }
+                    // Interior is hollow apart from the coils below
 
                     if (block != null) {
-                        blocks.add(new StructureBlockInfo(new BlockPos(x, y, z), block, null));
+                        grid.set(x, y, z, new SingleBlock(block));
                     }
                 }
             }
         }
-        return blocks;
+
+        // Each face center port needs a Supercharged Coil directly inside it
+        grid.set(1, 3, 3, coil);
+        grid.set(5, 3, 3, coil);
+        grid.set(3, 3, 1, coil);
+        grid.set(3, 3, 5, coil);
+        grid.set(3, 5, 3, coil);
+        grid.set(3, 1, 3, coil);
+        return grid.build();
     }
 
     private static BlockState getSPSFaceBlock(int a, int b, String face) {
@@ -763,24 +655,24 @@ public class MekanismMultiblockAdapter {
 
         if (gridValue == 1) {
             // Frame position - must be SPS Casing
-            return spsCasingBlock;
+            return blocks().spsCasingBlock;
         }
 
         // gridValue == 2: Side position - can be Glass or Port
 
         // Center ports on all 6 faces
         if (a == 3 && b == 3) {
-            return spsPortBlock;
+            return blocks().spsPortBlock;
         }
 
         // Extra 2 ports on front face at row 1 (near top), cols 2 and 4
         // These are for additional energy input capacity
         if (face.equals("front") && b == 1 && (a == 2 || a == 4)) {
-            return spsPortBlock;
+            return blocks().spsPortBlock;
         }
 
         // All other side positions use Structural Glass
-        return structuralGlassBlock;
+        return blocks().structuralGlassBlock;
     }
 
     // ============================================
@@ -796,10 +688,9 @@ public class MekanismMultiblockAdapter {
             new MultiblockDefinition.SizeVariant(Component.literal("Large"), new BlockPos(18, 18, 18), false)
         );
 
-        MultiblockDefinition.StructureProvider provider = (variant, level) -> {
-            Vec3i size = new Vec3i(variant.dimensions().getX(), variant.dimensions().getY(), variant.dimensions().getZ());
-            return toMultiblockStructure(generateFissionReactorStructure(size));
-        };
+        MultiblockDefinition.StructureProvider provider = (variant, level) ->
+            memoised("fission_reactor", variant.dimensions(), variants,
+                MekanismMultiblockAdapter::generateFissionReactorStructure);
 
         return new NamedDefinition(
             ResourceLocation.fromNamespaceAndPath("mekanism", "fission_reactor"),
@@ -808,65 +699,47 @@ public class MekanismMultiblockAdapter {
                 "mekanism",
                 MultiblockCategory.POWER,
                 variants,
-                provider
+                provider,
+                SizeRange.of(SizeRange.Axis.of(3, 18), SizeRange.Axis.of(4, 18), SizeRange.Axis.of(3, 18))
             )
         );
     }
 
-    private static List<StructureBlockInfo> generateFissionReactorStructure(Vec3i size) {
-        List<StructureBlockInfo> blocks = new ArrayList<>();
+    private static StructureGrid generateFissionReactorStructure(BlockPos size) {
         int width = size.getX(), height = size.getY(), depth = size.getZ();
         int centerX = width / 2, centerZ = depth / 2;
         boolean addControlRods = width >= 5 && height >= 5 && depth >= 5;
         int interiorMaxY = height - 2;
-
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-
-                    if (isInterior(x, y, z, width, height, depth)) {
-                        if (addControlRods && (x + z) % 2 == 0) {
-                            if (y < interiorMaxY) {
-                                blocks.add(new StructureBlockInfo(pos, fissionFuelAssemblyBlock, null));
-                            } else {
-                                blocks.add(new StructureBlockInfo(pos, fissionControlRodBlock, null));
-                            }
-                        }
-                        continue;
-                    }
-
-                    BlockState block;
-
-                    if (isEdge(x, y, z, width, height, depth)) {
-                        block = fissionCasingBlock;
-                    } else if (y == 0) {
-                        block = fissionCasingBlock;
-                    }
-                    else if (y == 1 && z == 0 && x == centerX) {
-                        block = fissionLogicAdapterBlock;
-                    }
-                    else if (y == 1 && x == 0 && z == centerZ - 1 && centerZ > 1) {
-                        block = fissionPortBlock;
-                    }
-                    else if (y == 1 && x == 0 && z == centerZ && depth > 3) {
-                        block = fissionPortBlock;
-                    }
-                    else if (y == 1 && x == width - 1 && z == centerZ - 1 && centerZ > 1) {
-                        block = fissionPortBlock;
-                    }
-                    else if (y == 1 && x == width - 1 && z == centerZ && depth > 3) {
-                        block = fissionPortBlock;
-                    }
-                    else {
-                        block = reactorGlassBlock;
-                    }
-
-                    blocks.add(new StructureBlockInfo(pos, block, null));
+        SingleBlock casing = new SingleBlock(blocks().fissionCasingBlock);
+        SingleBlock port = new SingleBlock(blocks().fissionPortBlock);
+
+        StructureGrid.Builder grid = StructureGrid.builder(width, height, depth);
+        if (addControlRods) {
+            // Fuel assembly columns on a checkerboard, each capped by a control rod
+            SingleBlock fuel = new SingleBlock(blocks().fissionFuelAssemblyBlock);
+            SingleBlock rod = new SingleBlock(blocks().fissionControlRodBlock);
+            for (int x = 1; x < width - 1; x++) {
+                for (int z = 1; z < depth - 1; z++) {
+                    if ((x + z) % 2 != 0) continue;
+                    grid.fill(x, 1, z, x, interiorMaxY - 1, z, fuel);
+                    grid.set(x, interiorMaxY, z, rod);
                 }
             }
         }
-        return blocks;
+
+        fillShell(grid, width, height, depth, new SingleBlock(blocks().reactorGlassBlock));
+        grid.fill(0, 0, 0, width - 1, 0, depth - 1, casing);
+        fillEdges(grid, width, height, depth, casing);
+        setOnFace(grid, centerX, 1, 0, width, height, depth, new SingleBlock(blocks().fissionLogicAdapterBlock));
+        if (centerZ > 1) {
+            setOnFace(grid, 0, 1, centerZ - 1, width, height, depth, port);
+            setOnFace(grid, width - 1, 1, centerZ - 1, width, height, depth, port);
+        }
+        if (depth > 3) {
+            setOnFace(grid, 0, 1, centerZ, width, height, depth, port);
+            setOnFace(grid, width - 1, 1, centerZ, width, height, depth, port);
+        }
+        return grid.build();
     }
 
     // ============================================
@@ -905,10 +778,9 @@ public class MekanismMultiblockAdapter {
             new MultiblockDefinition.SizeVariant(Component.literal("Large"), new BlockPos(17, 18, 17), false)
         );
 
-        MultiblockDefinition.StructureProvider provider = (variant, level) -> {
-            Vec3i size = new Vec3i(variant.dimensions().getX(), variant.dimensions().getY(), variant.dimensions().getZ());
-            return toMultiblockStructure(generateIndustrialTurbineStructure(size));
-        };
+        MultiblockDefinition.StructureProvider provider = (variant, level) ->
+            memoised("industrial_turbine", variant.dimensions(), variants,
+                MekanismMultiblockAdapter::generateIndustrialTurbineStructure);
 
         return new NamedDefinition(
             ResourceLocation.fromNamespaceAndPath("mekanism", "industrial_turbine"),
@@ -917,13 +789,14 @@ public class MekanismMultiblockAdapter {
                 "mekanism",
                 MultiblockCategory.POWER,
                 variants,
-                provider
+                provider,
+                SizeRange.of(new SizeRange.Axis(5, 17, 2), SizeRange.Axis.of(9, 18), new SizeRange.Axis(5, 17, 2))
+                    .withConstraint((x, y, z) -> x == z)
             )
         );
     }
 
-    private static List<StructureBlockInfo> generateIndustrialTurbineStructure(Vec3i size) {
-        List<StructureBlockInfo> blocks = new ArrayList<>();
+    private static StructureGrid generateIndustrialTurbineStructure(BlockPos size) {
         int width = size.getX(), height = size.getY(), depth = size.getZ();
         int centerX = width / 2, centerZ = depth / 2;
 
@@ -952,92 +825,48 @@ public class MekanismMultiblockAdapter {
         int disperserY = rotorCount + 1;
         int coilStartY = rotorCount + 2;
         int coilEndY = coilStartY + coilCount - 1;
+        int topInteriorY = height - 2;
+        SingleBlock casing = new SingleBlock(blocks().turbineCasingBlock);
+        SingleBlock glass = new SingleBlock(blocks().structuralGlassBlock);
+        SingleBlock valve = new SingleBlock(blocks().turbineValveBlock);
+
+        StructureGrid.Builder grid = StructureGrid.builder(width, height, depth);
+
+        // ===== INTERIOR BLOCKS =====
+        // Dispersers fill the interior layer at Rotational Complex level, condensers everything above;
+        // below the disperser layer (rotor area) is air for blade clearance
+        fillInterior(grid, width, height, depth, disperserY, disperserY, new SingleBlock(blocks().pressureDisperserBlock));
+        fillInterior(grid, width, height, depth, disperserY + 1, topInteriorY, new SingleBlock(blocks().saturatingCondenserBlock));
+
+        // Center column: rotor shaft, Rotational Complex on top, coils stacked directly above, then air
+        grid.fill(centerX, 1, centerZ, centerX, Math.min(rotorCount, topInteriorY), centerZ, new SingleBlock(blocks().turbineRotorBlock));
+        if (disperserY >= 1 && disperserY <= topInteriorY) {
+            grid.set(centerX, disperserY, centerZ, new SingleBlock(blocks().rotationalComplexBlock));
+        }
+        grid.fill(centerX, Math.max(1, coilStartY), centerZ, centerX, Math.min(coilEndY, topInteriorY), centerZ,
+            new SingleBlock(blocks().electromagneticCoilBlock));
+        for (int y = Math.max(1, coilEndY + 1); y <= topInteriorY; y++) {
+            grid.clear(centerX, y, centerZ);
+        }
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    BlockPos pos = new BlockPos(x, y, z);
-                    BlockState block = null;
-
-                    boolean isOnEdge = isEdge(x, y, z, width, height, depth);
-                    boolean isInteriorBlock = isInterior(x, y, z, width, height, depth);
-                    boolean isOnFace = !isInteriorBlock && !isOnEdge;
-                    boolean isOnTop = (y == height - 1);
-                    boolean isOnBottom = (y == 0);
-                    boolean isCenter = (x == centerX && z == centerZ);
-
-                    // ===== INTERIOR BLOCKS =====
-                    if (isInteriorBlock) {
-                        if (isCenter) {
-                            // Center column
-                            if (y >= 1 && y <= rotorCount) {
-                                // Rotor shaft
-                                block = turbineRotorBlock;
-                            } else if (y == disperserY) {
-                                // Rotational Complex on top of rotor
-                                block = rotationalComplexBlock;
-                            } else if (y >= coilStartY && y <= coilEndY) {
-                                // Coils directly above Rotational Complex (vertical stack)
-                                block = electromagneticCoilBlock;
-                            }
-                            // Above coils at center: air or could be condenser
-                        } else {
-                            // Non-center interior positions
-                            if (y == disperserY) {
-                                // Dispersers fill entire interior layer at Rotational Complex level
-                                block = pressureDisperserBlock;
-                            } else if (y > disperserY && y < height - 1) {
-                                // Condensers fill remaining interior above disperser layer
-                                block = saturatingCondenserBlock;
-                            }
-                            // Below disperser layer (rotor area): air for blade clearance
-                        }
-
-                        if (block != null) {
-                            blocks.add(new StructureBlockInfo(pos, block, null));
-                        }
-                        continue;
-                    }
-
-                    // ===== EDGES (always Turbine Casing) =====
-                    if (isOnEdge) {
-                        block = turbineCasingBlock;
-                    }
-                    // ===== FACES (non-edge exterior) =====
-                    else if (isOnFace) {
-                        if (isOnBottom) {
-                            // Bottom face: casing
-                            block = turbineCasingBlock;
-                        } else if (isOnTop) {
-                            // Top face (non-edge): Vents
-                            block = turbineVentBlock;
-                        } else {
-                            // Side walls
-                            if (y >= disperserY) {
-                                // At and above Rotational Complex layer: Vents allowed
-                                block = turbineVentBlock;
-                            } else {
-                                // Below Rotational Complex layer: Casing, Valve, or Glass
-                                // Place valves for steam input (need minimum 2)
-                                if (y == 1 && z == 0 && x == centerX) {
-                                    block = turbineValveBlock;
-                                } else if (y == 1 && z == depth - 1 && x == centerX) {
-                                    block = turbineValveBlock;
-                                } else {
-                                    // Structural glass for visibility
-                                    block = structuralGlassBlock;
-                                }
-                            }
-                        }
-                    }
-
-                    if (block != null) {
-                        blocks.add(new StructureBlockInfo(pos, block, null));
-                    }
-                }
-            }
+        // ===== FACES (non-edge exterior) =====
+        // Vents at and above the Rotational Complex layer and on top, casing on the bottom, glass below
+        fillShell(grid, width, height, depth, new SingleBlock(blocks().turbineVentBlock));
+        grid.fill(0, 0, 0, width - 1, 0, depth - 1, casing);
+        int glassTopY = Math.min(disperserY - 1, topInteriorY);
+        grid.fill(0, 1, 0, width - 1, glassTopY, 0, glass);
+        grid.fill(0, 1, depth - 1, width - 1, glassTopY, depth - 1, glass);
+        grid.fill(0, 1, 0, 0, glassTopY, depth - 1, glass);
+        grid.fill(width - 1, 1, 0, width - 1, glassTopY, depth - 1, glass);
+        // Valves for steam input (need minimum 2), below the Rotational Complex layer
+        if (1 < disperserY) {
+            setOnFace(grid, centerX, 1, 0, width, height, depth, valve);
+            setOnFace(grid, centerX, 1, depth - 1, width, height, depth, valve);
         }
-        return blocks;
+
+        // ===== EDGES (always Turbine Casing) =====
+        fillEdges(grid, width, height, depth, casing);
+        return grid.build();
     }
 
     // ============================================
@@ -1048,7 +877,7 @@ public class MekanismMultiblockAdapter {
         BlockPos size = new BlockPos(5, 5, 5);
 
         MultiblockDefinition.StructureProvider provider = (variant, level) ->
-            toMultiblockStructure(generateFusionReactorStructure());
+            memoised("fusion_reactor", size, dims -> generateFusionReactorStructure());
 
         return new NamedDefinition(
             ResourceLocation.fromNamespaceAndPath("mekanism", "fusion_reactor"),
@@ -1062,8 +891,8 @@ public class MekanismMultiblockAdapter {
         );
     }
 
-    private static List<StructureBlockInfo> generateFusionReactorStructure() {
-        List<StructureBlockInfo> blocks = new ArrayList<>();
+    private static StructureGrid generateFusionReactorStructure() {
+        StructureGrid.Builder grid = StructureGrid.builder(5, 5, 5);
 
         // Fusion Reactor is a fixed 5-layer structure
         // Made of: 75 Frame, 2 Port, 1 Controller, 8 Glass, 1 Laser Focus Matrix
@@ -1077,7 +906,7 @@ public class MekanismMultiblockAdapter {
             {0, 1, 1, 1, 0},
             {0, 0, 1, 0, 0}
         };
-        addFusionLayerSimple(blocks, 0, layer0, fusionFrameBlock);
+        addFusionLayerSimple(grid, 0, layer0, blocks().fusionFrameBlock);
 
         // Layer 1 - Hollow square without corners, ALL Frame (12 blocks)
         // Pattern:
@@ -1093,7 +922,7 @@ public class MekanismMultiblockAdapter {
             {1, 0, 0, 0, 1},
             {0, 1, 1, 1, 0}
         };
-        addFusionLayerSimple(blocks, 1, layer1, fusionFrameBlock);
+        addFusionLayerSimple(grid, 1, layer1, blocks().fusionFrameBlock);
 
         // Layer 2 (middle) - Full square perimeter
         // Ports on left/right (across from each other)
@@ -1112,10 +941,10 @@ public class MekanismMultiblockAdapter {
             {3, 0, 0, 0, 3},
             {1, 3, 4, 3, 1}
         };
-        addFusionLayerWithTypes(blocks, 2, layer2);
+        addFusionLayerWithTypes(grid, 2, layer2);
 
         // Layer 3 - Same as Layer 1, ALL Frame (12 blocks)
-        addFusionLayerSimple(blocks, 3, layer1, fusionFrameBlock);
+        addFusionLayerSimple(grid, 3, layer1, blocks().fusionFrameBlock);
 
         // Layer 4 (top) - Solid plus shape with Controller in center (12 Frame + 1 Controller)
         int[][] layer4 = {
@@ -1125,22 +954,22 @@ public class MekanismMultiblockAdapter {
             {0, 1, 1, 1, 0},
             {0, 0, 1, 0, 0}
         };
-        addFusionLayerWithTypes(blocks, 4, layer4);
+        addFusionLayerWithTypes(grid, 4, layer4);
 
-        return blocks;
+        return grid.build();
     }
 
-    private static void addFusionLayerSimple(List<StructureBlockInfo> blocks, int y, int[][] pattern, BlockState block) {
+    private static void addFusionLayerSimple(StructureGrid.Builder grid, int y, int[][] pattern, BlockState block) {
         for (int x = 0; x < 5; x++) {
             for (int z = 0; z < 5; z++) {
                 if (pattern[z][x] == 1) {
-                    blocks.add(new StructureBlockInfo(new BlockPos(x, y, z), block, null));
+                    grid.set(x, y, z, new SingleBlock(block));
                 }
             }
         }
     }
 
-    private static void addFusionLayerWithTypes(List<StructureBlockInfo> blocks, int y, int[][] pattern) {
+    private static void addFusionLayerWithTypes(StructureGrid.Builder grid, int y, int[][] pattern) {
         // 0=air, 1=Frame, 2=Port, 3=Glass, 4=Laser Focus, 5=Controller
         for (int x = 0; x < 5; x++) {
             for (int z = 0; z < 5; z++) {
@@ -1148,14 +977,14 @@ public class MekanismMultiblockAdapter {
                 if (val == 0) continue;
 
                 BlockState block = switch (val) {
-                    case 1 -> fusionFrameBlock;
-                    case 2 -> fusionPortBlock;
-                    case 3 -> reactorGlassBlock;
-                    case 4 -> laserFocusMatrixBlock;
-                    case 5 -> fusionControllerBlock;
-                    default -> fusionFrameBlock;
+                    case 1 -> blocks().fusionFrameBlock;
+                    case 2 -> blocks().fusionPortBlock;
+                    case 3 -> blocks().reactorGlassBlock;
+                    case 4 -> blocks().laserFocusMatrixBlock;
+                    case 5 -> blocks().fusionControllerBlock;
+                    default -> blocks().fusionFrameBlock;
                 };
-                blocks.add(new StructureBlockInfo(new BlockPos(x, y, z), block, null));
+                grid.set(x, y, z, new SingleBlock(block));
             }
         }
     }
@@ -8,9 +8,11 @@ import com.multiblockprojector.api.MultiblockDefinition.SizeVariant;
 import com.multiblockprojector.api.MultiblockStructure;
 import com.multiblockprojector.api.ProjectorAPI;
 import com.multiblockprojector.api.SingleBlock;
+import com.multiblockprojector.api.TagEntry;
 import net.minecraft.core.BlockPos;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
+import net.minecraft.tags.BlockTags;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.state.BlockState;
 import net.neoforged.bus.api.SubscribeEvent;
@@ -31,16 +33,8 @@ public class VanillaMultiblockRegistrar {
 
     private static final String MOD_ID = "minecraft";
 
-    private static final BlockGroup BEACON_MINERAL = new BlockGroup(
-        Component.literal("Mineral Block"),
-        List.of(
-            Blocks.IRON_BLOCK.defaultBlockState(),
-            Blocks.GOLD_BLOCK.defaultBlockState(),
-            Blocks.DIAMOND_BLOCK.defaultBlockState(),
-            Blocks.EMERALD_BLOCK.defaultBlockState(),
-            Blocks.NETHERITE_BLOCK.defaultBlockState()
-        )
-    );
+    private static final TagEntry BEACON_MINERAL = new TagEntry(
+        BlockTags.BEACON_BASE_BLOCKS, Component.literal("Mineral Block"), Blocks.IRON_BLOCK.defaultBlockState());
 
     private static final BlockGroup PRISMARINE = new BlockGroup(
         Component.literal("Prismarine"),
@@ -52,13 +46,8 @@ public class VanillaMultiblockRegistrar {
         )
     );
 
-    private static final BlockGroup SOUL_BLOCK = new BlockGroup(
-        Component.literal("Soul Block"),
-        List.of(
-            Blocks.SOUL_SAND.defaultBlockState(),
-            Blocks.SOUL_SOIL.defaultBlockState()
-        )
-    );
+    private static final TagEntry SOUL_BLOCK = new TagEntry(
+        BlockTags.WITHER_SUMMON_BASE_BLOCKS, Component.literal("Soul Block"), Blocks.SOUL_SAND.defaultBlockState());
 
     @SubscribeEvent
     public static void onRegister(RegisterEvent event) {
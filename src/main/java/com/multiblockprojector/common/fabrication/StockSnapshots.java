@@ -0,0 +1,162 @@
+package com.multiblockprojector.common.fabrication;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.common.items.AbstractProjectorItem;
+import com.multiblockprojector.common.network.MessageStockSnapshot;
+import com.multiblockprojector.common.projector.Settings;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.player.Inventory;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+import net.neoforged.neoforge.items.IItemHandler;
+
+import javax.annotation.Nullable;
+import java.util.*;
+
+/**
+ * Server side of the stock protocol: per-block counts of what a player can build with, i.e.
+ * their inventory plus the chest linked to the projector they hold.
+ * <p>
+ * The counts last sent to each player are kept, so follow-up requests are answered with only
+ * the blocks whose count changed. Requests are served at most every {@link #MIN_INTERVAL_TICKS}
+ * per player; requests arriving sooner are merged and served once the interval has passed.
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID)
+public final class StockSnapshots {
+
+    public static final int MIN_INTERVAL_TICKS = 10;
+
+    private static final Map<UUID, State> STATES = new HashMap<>();
+
+    private static final class State {
+        /** Counts last sent; null until the first snapshot. */
+        @Nullable
+        Map<Block, Integer> sent;
+        long lastServed = Long.MIN_VALUE;
+        @Nullable
+        InteractionHand pendingHand;
+        boolean pendingFull;
+    }
+
+    private StockSnapshots() {}
+
+    /**
+     * Counts the blocks available to a player: their inventory plus the linked chest of the
+     * given settings, if it is in the player's dimension and loaded.
+     */
+    public static Map<Block, Integer> count(Player player, @Nullable Settings settings, Level level) {
+        Map<Block, Integer> counts = new HashMap<>();
+
+        // Count from player inventory
+        Inventory inv = player.getInventory();
+        for (int i = 0; i < inv.getContainerSize(); i++) {
+            ItemStack invStack = inv.getItem(i);
+            if (!invStack.isEmpty() && invStack.getItem() instanceof BlockItem blockItem) {
+                counts.merge(blockItem.getBlock(), invStack.getCount(), Integer::sum);
+            }
+        }
+
+        // Count from linked chest
+        BlockPos chestPos = settings != null ? settings.getLinkedChestPos() : null;
+        ResourceLocation chestDim = settings != null ? settings.getLinkedChestDim() : null;
+        if (chestPos != null && (chestDim == null || level.dimension().location().equals(chestDim)) && level.isLoaded(chestPos)) {
+            IItemHandler handler = level.getCapability(Capabilities.ItemHandler.BLOCK, chestPos, null);
+            if (handler != null) {
+                for (int i = 0; i < handler.getSlots(); i++) {
+                    ItemStack slotStack = handler.getStackInSlot(i);
+                    if (!slotStack.isEmpty() && slotStack.getItem() instanceof BlockItem blockItem) {
+                        counts.merge(blockItem.getBlock(), slotStack.getCount(), Integer::sum);
+                    }
+                }
+            }
+        }
+
+        return counts;
+    }
+
+    /**
+     * Queues a snapshot for a player.
+     *
+     * @param hand the hand holding the projector whose linked chest is counted
+     * @param full whether to send every count rather than the changes since the last snapshot
+     */
+    public static void request(ServerPlayer player, InteractionHand hand, boolean full) {
+        State state = STATES.computeIfAbsent(player.getUUID(), id -> new State());
+        state.pendingHand = hand;
+        state.pendingFull |= full;
+        long now = player.server.getTickCount();
+        if (now - state.lastServed >= MIN_INTERVAL_TICKS) {
+            serve(player, state, now);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        if (STATES.isEmpty()) return;
+        long now = event.getServer().getTickCount();
+        for (var entry : STATES.entrySet()) {
+            State state = entry.getValue();
+            if (state.pendingHand == null || now - state.lastServed < MIN_INTERVAL_TICKS) continue;
+            ServerPlayer player = event.getServer().getPlayerList().getPlayer(entry.getKey());
+            if (player != null) {
+                serve(player, state, now);
+            } else {
+                state.pendingHand = null;
+            }
+        }
+    }
+
+    private static void serve(ServerPlayer player, State state, long now) {
+        ItemStack stack = player.getItemInHand(state.pendingHand);
+        Settings settings = stack.getItem() instanceof AbstractProjectorItem ? AbstractProjectorItem.getSettings(stack) : null;
+        Map<Block, Integer> counts = count(player, settings, player.level());
+
+        boolean full = state.pendingFull || state.sent == null;
+        List<MessageStockSnapshot.Entry> entries = new ArrayList<>();
+        if (full) {
+            counts.forEach((block, count) -> entries.add(entry(block, count)));
+        } else {
+            counts.forEach((block, count) -> {
+                if (!count.equals(state.sent.get(block))) entries.add(entry(block, count));
+            });
+            for (Block block : state.sent.keySet()) {
+                if (!counts.containsKey(block)) entries.add(entry(block, 0));
+            }
+        }
+
+        state.sent = counts;
+        state.lastServed = now;
+        state.pendingHand = null;
+        state.pendingFull = false;
+        if (full || !entries.isEmpty()) {
+            MessageStockSnapshot.sendToClient(player, full, entries);
+        }
+    }
+
+    private static MessageStockSnapshot.Entry entry(Block block, int count) {
+        return new MessageStockSnapshot.Entry(BuiltInRegistries.BLOCK.getId(block), count);
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        STATES.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        STATES.clear();
+    }
+}
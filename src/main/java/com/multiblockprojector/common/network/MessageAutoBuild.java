@@ -61,7 +61,15 @@ public class MessageAutoBuild implements CustomPacketPayload {
         }
 
         Settings settings = AbstractProjectorItem.getSettings(stack);
-        if (settings.getMode() != Settings.Mode.PROJECTION || settings.getMultiblock() == null) {
+        if (settings.getMode() != Settings.Mode.PROJECTION) {
+            return;
+        }
+        if (settings.getMultiblock() == null) {
+            if (settings.getSource() == Settings.Source.SCHEMATIC) {
+                player.displayClientMessage(
+                    Component.literal("Schematic is still uploading to the server, try again in a moment")
+                        .withStyle(ChatFormatting.RED), true);
+            }
             return;
         }
 
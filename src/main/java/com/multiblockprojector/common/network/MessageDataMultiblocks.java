@@ -0,0 +1,70 @@
+package com.multiblockprojector.common.network;
+
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.ComponentSerialization;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import java.util.List;
+
+import static com.multiblockprojector.UniversalProjector.rl;
+
+/**
+ * Server→Client packet with a batch of data-driven multiblock definitions, each carrying its
+ * structure as an {@link com.multiblockprojector.api.MbpFormat} stream. The first batch of a sync
+ * replaces the client's data-driven definitions; later batches add to them.
+ */
+public class MessageDataMultiblocks implements CustomPacketPayload {
+
+    public static final Type<MessageDataMultiblocks> TYPE = new Type<>(rl("data_multiblocks"));
+
+    /** Largest encoded structure sent for one definition. */
+    public static final int MAX_STRUCTURE_BYTES = 512 * 1024;
+
+    /** A definition by id, with its display data and encoded structure. */
+    public record Entry(ResourceLocation id, Component name, String modId,
+                        ResourceLocation categoryId, Component categoryName, byte[] structure) {}
+
+    private static final StreamCodec<RegistryFriendlyByteBuf, Entry> ENTRY_CODEC =
+        StreamCodec.composite(
+            ResourceLocation.STREAM_CODEC, Entry::id,
+            ComponentSerialization.STREAM_CODEC, Entry::name,
+            ByteBufCodecs.STRING_UTF8, Entry::modId,
+            ResourceLocation.STREAM_CODEC, Entry::categoryId,
+            ComponentSerialization.STREAM_CODEC, Entry::categoryName,
+            ByteBufCodecs.byteArray(MAX_STRUCTURE_BYTES), Entry::structure,
+            Entry::new
+        );
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, MessageDataMultiblocks> STREAM_CODEC =
+        StreamCodec.composite(
+            ByteBufCodecs.BOOL, p -> p.replace,
+            ENTRY_CODEC.apply(ByteBufCodecs.list()), p -> p.entries,
+            MessageDataMultiblocks::new
+        );
+
+    private final boolean replace;
+    private final List<Entry> entries;
+
+    public MessageDataMultiblocks(boolean replace, List<Entry> entries) {
+        this.replace = replace;
+        this.entries = entries;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() { return TYPE; }
+
+    public static void sendToClient(ServerPlayer player, boolean replace, List<Entry> entries) {
+        PacketDistributor.sendToPlayer(player, new MessageDataMultiblocks(replace, entries));
+    }
+
+    public static void handleClientSide(MessageDataMultiblocks packet, Player player) {
+        com.multiblockprojector.client.DataMultiblockSync.onBatch(packet.replace, packet.entries);
+    }
+}
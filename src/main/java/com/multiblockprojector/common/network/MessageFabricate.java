@@ -4,8 +4,10 @@ import com.multiblockprojector.api.BlockEntry;
 import com.multiblockprojector.api.BlockGroup;
 import com.multiblockprojector.api.MultiblockDefinition;
 import com.multiblockprojector.api.SingleBlock;
+import com.multiblockprojector.api.TagEntry;
 import com.multiblockprojector.common.fabrication.FabricationManager;
 import com.multiblockprojector.common.fabrication.FabricationTask;
+import com.multiblockprojector.common.fabrication.StockSnapshots;
 import com.multiblockprojector.common.items.AbstractProjectorItem;
 import com.multiblockprojector.common.items.BatteryFabricatorItem;
 import com.multiblockprojector.common.items.BatteryFabricatorEnergyStorage;
@@ -71,7 +73,15 @@ public class MessageFabricate implements CustomPacketPayload {
         }
 
         Settings settings = AbstractProjectorItem.getSettings(stack);
-        if (settings.getMode() != Settings.Mode.PROJECTION || settings.getMultiblock() == null) {
+        if (settings.getMode() != Settings.Mode.PROJECTION) {
+            return;
+        }
+        if (settings.getMultiblock() == null) {
+            if (settings.getSource() == Settings.Source.SCHEMATIC) {
+                player.displayClientMessage(
+                    Component.literal("Schematic is still uploading to the server, try again in a moment")
+                        .withStyle(ChatFormatting.RED), true);
+            }
             return;
         }
 
@@ -106,8 +116,8 @@ public class MessageFabricate implements CustomPacketPayload {
 
         // Resolve each position to an actual block from inventory.
         // For SingleBlock entries, requires the exact block.
-        // For BlockGroup entries, picks the first available matching block.
-        Map<net.minecraft.world.level.block.Block, Integer> available = countAvailableBlocks(player, settings, level);
+        // For BlockGroup and TagEntry entries, picks the first available matching block.
+        Map<net.minecraft.world.level.block.Block, Integer> available = StockSnapshots.count(player, settings, level);
         List<FabricationTask.PlacementEntry> resolvedPlacements = new ArrayList<>();
         List<String> missing = new ArrayList<>();
 
@@ -127,6 +137,7 @@ public class MessageFabricate implements CustomPacketPayload {
                 String name = switch (pos.blockEntry) {
                     case SingleBlock sb -> sb.state().getBlock().getName().getString();
                     case BlockGroup bg -> bg.label().getString();
+                    case TagEntry te -> te.label().getString();
                     default -> "Unknown";
                 };
                 if (missing.stream().noneMatch(s -> s.startsWith(name))) {
@@ -212,6 +223,14 @@ public class MessageFabricate implements CustomPacketPayload {
                 }
             }
             return null;
+        } else if (entry instanceof TagEntry te) {
+            for (BlockState option : te.options()) {
+                net.minecraft.world.level.block.Block block = option.getBlock();
+                if (available.getOrDefault(block, 0) > 0) {
+                    return block;
+                }
+            }
+            return null;
         }
         return null;
     }
@@ -235,37 +254,6 @@ public class MessageFabricate implements CustomPacketPayload {
         return level.getCapability(Capabilities.EnergyStorage.BLOCK, energyPos, null);
     }
 
-    private static Map<net.minecraft.world.level.block.Block, Integer> countAvailableBlocks(
-            Player player, Settings settings, Level level) {
-        Map<net.minecraft.world.level.block.Block, Integer> counts = new HashMap<>();
-
-        // Count from player inventory
-        Inventory inv = player.getInventory();
-        for (int i = 0; i < inv.getContainerSize(); i++) {
-            ItemStack invStack = inv.getItem(i);
-            if (!invStack.isEmpty() && invStack.getItem() instanceof net.minecraft.world.item.BlockItem blockItem) {
-                counts.merge(blockItem.getBlock(), invStack.getCount(), Integer::sum);
-            }
-        }
-
-        // Count from linked chest
-        BlockPos chestPos = settings.getLinkedChestPos();
-        ResourceLocation chestDim = settings.getLinkedChestDim();
-        if (chestPos != null && (chestDim == null || level.dimension().location().equals(chestDim)) && level.isLoaded(chestPos)) {
-            IItemHandler handler = level.getCapability(Capabilities.ItemHandler.BLOCK, chestPos, null);
-            if (handler != null) {
-                for (int i = 0; i < handler.getSlots(); i++) {
-                    ItemStack slotStack = handler.getStackInSlot(i);
-                    if (!slotStack.isEmpty() && slotStack.getItem() instanceof net.minecraft.world.item.BlockItem blockItem) {
-                        counts.merge(blockItem.getBlock(), slotStack.getCount(), Integer::sum);
-                    }
-                }
-            }
-        }
-
-        return counts;
-    }
-
     private static void consumeBlocks(Player player, Settings settings, Level level,
                                        Map<net.minecraft.world.level.block.Block, Integer> required) {
         Map<net.minecraft.world.level.block.Block, Integer> remaining = new HashMap<>(required);
@@ -0,0 +1,76 @@
+package com.multiblockprojector.common.network;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.common.schematic.SchematicStore;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import java.util.concurrent.CompletableFuture;
+
+import static com.multiblockprojector.UniversalProjector.rl;
+
+/**
+ * Client→Server packet carrying one chunk of a schematic payload, sent after the server
+ * answered a {@link MessageSchematicOffer} with {@code SEND}.
+ */
+public class MessageSchematicChunk implements CustomPacketPayload {
+
+    public static final Type<MessageSchematicChunk> TYPE = new Type<>(rl("schematic_chunk"));
+
+    public static final StreamCodec<FriendlyByteBuf, MessageSchematicChunk> STREAM_CODEC =
+        StreamCodec.composite(
+            ByteBufCodecs.stringUtf8(64), p -> p.hash,
+            ByteBufCodecs.VAR_INT, p -> p.index,
+            ByteBufCodecs.byteArray(SchematicStore.CHUNK_SIZE), p -> p.data,
+            MessageSchematicChunk::new
+        );
+
+    private final String hash;
+    private final int index;
+    private final byte[] data;
+
+    public MessageSchematicChunk(String hash, int index, byte[] data) {
+        this.hash = hash;
+        this.index = index;
+        this.data = data;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() { return TYPE; }
+
+    public static void sendToServer(String hash, int index, byte[] data) {
+        PacketDistributor.sendToServer(new MessageSchematicChunk(hash, index, data));
+    }
+
+    public static void handleServerSide(MessageSchematicChunk packet, Player player) {
+        if (!(player instanceof ServerPlayer serverPlayer)) return;
+
+        CompletableFuture<MultiblockDefinition> stored;
+        try {
+            stored = SchematicStore.acceptChunk(player.getUUID(), packet.hash, packet.index, packet.data);
+        } catch (IllegalStateException e) {
+            reject(serverPlayer, packet.hash, e);
+            return;
+        }
+        if (stored == null) return;
+        // Verification and decoding run off-thread; reply on the server thread
+        stored.whenCompleteAsync((definition, error) -> {
+            if (error != null) {
+                reject(serverPlayer, packet.hash, error.getCause() != null ? error.getCause() : error);
+            } else {
+                MessageSchematicStatus.sendToClient(serverPlayer, packet.hash, MessageSchematicStatus.READY);
+            }
+        }, serverPlayer.server);
+    }
+
+    private static void reject(ServerPlayer player, String hash, Throwable reason) {
+        UniversalProjector.LOGGER.warn("Rejected schematic upload from {}: {}", player.getName().getString(), reason.getMessage());
+        MessageSchematicStatus.sendToClient(player, hash, MessageSchematicStatus.REJECTED);
+    }
+}
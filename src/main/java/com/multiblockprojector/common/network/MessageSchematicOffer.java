@@ -0,0 +1,56 @@
+package com.multiblockprojector.common.network;
+
+import com.multiblockprojector.common.schematic.SchematicStore;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import static com.multiblockprojector.UniversalProjector.rl;
+
+/**
+ * Client→Server packet announcing a schematic by content hash.
+ * The server replies with {@link MessageSchematicStatus}: {@code READY} if it already
+ * stores that hash, otherwise {@code SEND} to request the chunked payload.
+ */
+public class MessageSchematicOffer implements CustomPacketPayload {
+
+    public static final Type<MessageSchematicOffer> TYPE = new Type<>(rl("schematic_offer"));
+
+    public static final StreamCodec<FriendlyByteBuf, MessageSchematicOffer> STREAM_CODEC =
+        StreamCodec.composite(
+            ByteBufCodecs.stringUtf8(64), p -> p.hash,
+            ByteBufCodecs.VAR_INT, p -> p.length,
+            MessageSchematicOffer::new
+        );
+
+    private final String hash;
+    private final int length;
+
+    public MessageSchematicOffer(String hash, int length) {
+        this.hash = hash;
+        this.length = length;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() { return TYPE; }
+
+    public static void sendToServer(String hash, int length) {
+        PacketDistributor.sendToServer(new MessageSchematicOffer(hash, length));
+    }
+
+    public static void handleServerSide(MessageSchematicOffer packet, Player player) {
+        if (!(player instanceof ServerPlayer serverPlayer)) return;
+
+        if (SchematicStore.has(packet.hash)) {
+            MessageSchematicStatus.sendToClient(serverPlayer, packet.hash, MessageSchematicStatus.READY);
+        } else if (SchematicStore.beginUpload(player.getUUID(), packet.hash, packet.length)) {
+            MessageSchematicStatus.sendToClient(serverPlayer, packet.hash, MessageSchematicStatus.SEND);
+        } else {
+            MessageSchematicStatus.sendToClient(serverPlayer, packet.hash, MessageSchematicStatus.REJECTED);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.multiblockprojector.common.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import static com.multiblockprojector.UniversalProjector.rl;
+
+/**
+ * Server→Client packet reporting the state of a schematic upload.
+ */
+public class MessageSchematicStatus implements CustomPacketPayload {
+
+    public static final Type<MessageSchematicStatus> TYPE = new Type<>(rl("schematic_status"));
+
+    public static final StreamCodec<FriendlyByteBuf, MessageSchematicStatus> STREAM_CODEC =
+        StreamCodec.composite(
+            ByteBufCodecs.stringUtf8(64), p -> p.hash,
+            ByteBufCodecs.VAR_INT, p -> p.status,
+            MessageSchematicStatus::new
+        );
+
+    /** The server stores this schematic; nothing needs to be sent. */
+    public static final int READY = 0;
+    /** The server does not have this schematic; send the payload in chunks. */
+    public static final int SEND = 1;
+    /** The upload was refused or failed verification. */
+    public static final int REJECTED = 2;
+
+    private final String hash;
+    private final int status;
+
+    public MessageSchematicStatus(String hash, int status) {
+        this.hash = hash;
+        this.status = status;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() { return TYPE; }
+
+    public static void sendToClient(ServerPlayer player, String hash, int status) {
+        PacketDistributor.sendToPlayer(player, new MessageSchematicStatus(hash, status));
+    }
+
+    public static void handleClientSide(MessageSchematicStatus packet, Player player) {
+        com.multiblockprojector.client.schematic.SchematicUploader.onStatus(packet.hash, packet.status);
+    }
+}
@@ -0,0 +1,50 @@
+package com.multiblockprojector.common.network;
+
+import com.multiblockprojector.common.fabrication.StockSnapshots;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import static com.multiblockprojector.UniversalProjector.rl;
+
+/**
+ * Client→Server packet asking for the blocks available to the player (inventory plus the
+ * projector's linked chest). The server replies with {@link MessageStockSnapshot}, carrying
+ * every count when {@code full} is set and only changed counts otherwise.
+ */
+public class MessageStockRequest implements CustomPacketPayload {
+
+    public static final Type<MessageStockRequest> TYPE = new Type<>(rl("stock_request"));
+
+    public static final StreamCodec<FriendlyByteBuf, MessageStockRequest> STREAM_CODEC =
+        StreamCodec.composite(
+            ByteBufCodecs.idMapper(i -> InteractionHand.values()[i], Enum::ordinal), p -> p.hand,
+            ByteBufCodecs.BOOL, p -> p.full,
+            MessageStockRequest::new
+        );
+
+    private final InteractionHand hand;
+    private final boolean full;
+
+    public MessageStockRequest(InteractionHand hand, boolean full) {
+        this.hand = hand;
+        this.full = full;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() { return TYPE; }
+
+    public static void sendToServer(InteractionHand hand, boolean full) {
+        PacketDistributor.sendToServer(new MessageStockRequest(hand, full));
+    }
+
+    public static void handleServerSide(MessageStockRequest packet, Player player) {
+        if (!(player instanceof ServerPlayer serverPlayer)) return;
+        StockSnapshots.request(serverPlayer, packet.hand, packet.full);
+    }
+}
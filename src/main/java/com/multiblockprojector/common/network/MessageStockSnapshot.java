@@ -0,0 +1,59 @@
+package com.multiblockprojector.common.network;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.player.Player;
+import net.neoforged.neoforge.network.PacketDistributor;
+
+import java.util.List;
+
+import static com.multiblockprojector.UniversalProjector.rl;
+
+/**
+ * Server→Client packet with per-block counts of the blocks available to the player.
+ * A full snapshot replaces the client's counts; otherwise entries are changes, and a count of
+ * zero removes the block.
+ */
+public class MessageStockSnapshot implements CustomPacketPayload {
+
+    public static final Type<MessageStockSnapshot> TYPE = new Type<>(rl("stock_snapshot"));
+
+    /** A block by raw registry id and its count. */
+    public record Entry(int blockId, int count) {}
+
+    private static final StreamCodec<FriendlyByteBuf, Entry> ENTRY_CODEC =
+        StreamCodec.composite(
+            ByteBufCodecs.VAR_INT, Entry::blockId,
+            ByteBufCodecs.VAR_INT, Entry::count,
+            Entry::new
+        );
+
+    public static final StreamCodec<FriendlyByteBuf, MessageStockSnapshot> STREAM_CODEC =
+        StreamCodec.composite(
+            ByteBufCodecs.BOOL, p -> p.full,
+            ENTRY_CODEC.apply(ByteBufCodecs.list()), p -> p.entries,
+            MessageStockSnapshot::new
+        );
+
+    private final boolean full;
+    private final List<Entry> entries;
+
+    public MessageStockSnapshot(boolean full, List<Entry> entries) {
+        this.full = full;
+        this.entries = entries;
+    }
+
+    @Override
+    public Type<? extends CustomPacketPayload> type() { return TYPE; }
+
+    public static void sendToClient(ServerPlayer player, boolean full, List<Entry> entries) {
+        PacketDistributor.sendToPlayer(player, new MessageStockSnapshot(full, entries));
+    }
+
+    public static void handleClientSide(MessageStockSnapshot packet, Player player) {
+        com.multiblockprojector.client.StockTracker.onSnapshot(packet.full, packet.entries);
+    }
+}
@@ -51,6 +51,42 @@ public class NetworkHandler {
             NetworkHandler::handleFabricationProgressClientSide
         );
 
+        registrar.playToServer(
+            MessageSchematicOffer.TYPE,
+            MessageSchematicOffer.STREAM_CODEC,
+            NetworkHandler::handleSchematicOfferServerSide
+        );
+
+        registrar.playToServer(
+            MessageSchematicChunk.TYPE,
+            MessageSchematicChunk.STREAM_CODEC,
+            NetworkHandler::handleSchematicChunkServerSide
+        );
+
+        registrar.playToClient(
+            MessageSchematicStatus.TYPE,
+            MessageSchematicStatus.STREAM_CODEC,
+            NetworkHandler::handleSchematicStatusClientSide
+        );
+
+        registrar.playToServer(
+            MessageStockRequest.TYPE,
+            MessageStockRequest.STREAM_CODEC,
+            NetworkHandler::handleStockRequestServerSide
+        );
+
+        registrar.playToClient(
+            MessageStockSnapshot.TYPE,
+            MessageStockSnapshot.STREAM_CODEC,
+            NetworkHandler::handleStockSnapshotClientSide
+        );
+
+        registrar.playToClient(
+            MessageDataMultiblocks.TYPE,
+            MessageDataMultiblocks.STREAM_CODEC,
+            NetworkHandler::handleDataMultiblocksClientSide
+        );
+
         if (net.neoforged.fml.ModList.get().isLoaded("create")) {
             registrar.playToServer(
                 MessageClipboardWrite.TYPE,
@@ -108,6 +144,54 @@ public class NetworkHandler {
         });
     }
 
+    private static void handleSchematicOfferServerSide(MessageSchematicOffer packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() != null) {
+                MessageSchematicOffer.handleServerSide(packet, context.player());
+            }
+        });
+    }
+
+    private static void handleSchematicChunkServerSide(MessageSchematicChunk packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() != null) {
+                MessageSchematicChunk.handleServerSide(packet, context.player());
+            }
+        });
+    }
+
+    private static void handleSchematicStatusClientSide(MessageSchematicStatus packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() != null) {
+                MessageSchematicStatus.handleClientSide(packet, context.player());
+            }
+        });
+    }
+
+    private static void handleStockRequestServerSide(MessageStockRequest packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() != null) {
+                MessageStockRequest.handleServerSide(packet, context.player());
+            }
+        });
+    }
+
+    private static void handleStockSnapshotClientSide(MessageStockSnapshot packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() != null) {
+                MessageStockSnapshot.handleClientSide(packet, context.player());
+            }
+        });
+    }
+
+    private static void handleDataMultiblocksClientSide(MessageDataMultiblocks packet, IPayloadContext context) {
+        context.enqueueWork(() -> {
+            if (context.player() != null) {
+                MessageDataMultiblocks.handleClientSide(packet, context.player());
+            }
+        });
+    }
+
     private static void handleClipboardWriteServerSide(MessageClipboardWrite packet, IPayloadContext context) {
         context.enqueueWork(() -> {
             if (context.player() != null) {
@@ -4,11 +4,12 @@ import com.multiblockprojector.api.BlockEntry;
 import com.multiblockprojector.api.MultiblockDefinition;
 import com.multiblockprojector.api.MultiblockDefinition.SizeVariant;
 import com.multiblockprojector.api.MultiblockStructure;
-import com.multiblockprojector.common.registry.MultiblockIndex;
+import com.multiblockprojector.api.ProceduralStructure;
+import com.multiblockprojector.common.registry.MultiblockCatalog;
 import it.unimi.dsi.fastutil.ints.Int2ObjectArrayMap;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import net.minecraft.core.BlockPos;
-import net.minecraft.core.Vec3i;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Mirror;
 import net.minecraft.world.level.block.Rotation;
@@ -37,10 +38,20 @@ public class MultiblockProjection {
     record BlockInfo(BlockPos pos, BlockEntry entry) {}
 
     final MultiblockDefinition multiblock;
+    /** Catalog id of {@link #multiblock}, resolved once; null for definitions outside the catalog. */
+    @Nullable
+    final ResourceLocation multiblockId;
+    /** Hash of {@link #multiblockId}, or the definition's identity hash when it has no id. */
+    final int multiblockHash;
     final Level realWorld;
     final SizeVariant resolvedVariant;
+    /** Dimensions used for alignment: the variant's, or the structure's when the variant has none. */
+    final BlockPos size;
     final StructurePlaceSettings settings = new StructurePlaceSettings();
     final Int2ObjectMap<List<BlockInfo>> layers = new Int2ObjectArrayMap<>();
+    /** Set for procedural structures, whose layers are evaluated on demand instead of stored in {@link #layers}. */
+    @Nullable
+    final ProceduralStructure procedural;
     final BlockPos.MutableBlockPos offset = new BlockPos.MutableBlockPos();
     final int blockcount;
     boolean isDirty = true;
@@ -56,11 +67,20 @@ public class MultiblockProjection {
         Objects.requireNonNull(definition, "Multiblock definition cannot be null!");
 
         this.multiblock = definition;
+        this.multiblockId = MultiblockCatalog.get().idOf(definition);
+        this.multiblockHash = multiblockId != null ? multiblockId.hashCode() : System.identityHashCode(definition);
         this.realWorld = world;
         this.resolvedVariant = variant != null ? variant : definition.getDefaultVariant();
 
         // Get structure from the definition's structure provider
         MultiblockStructure structure = definition.structureProvider().create(resolvedVariant, world);
+        this.size = resolvedVariant.hasKnownSize() ? resolvedVariant.dimensions() : structure.size();
+
+        this.procedural = ProceduralStructure.of(structure);
+        if (this.procedural != null) {
+            this.blockcount = this.procedural.blockCount();
+            return;
+        }
 
         // Organize blocks into layers by Y coordinate
         Map<BlockPos, BlockEntry> blocks = structure.blocks();
@@ -107,10 +127,13 @@ public class MultiblockProjection {
 
     /** Amount of layers in this projection */
     public int getLayerCount() {
-        return this.layers.size();
+        return this.procedural != null ? this.procedural.sizeY() : this.layers.size();
     }
 
     public int getLayerSize(int layer) {
+        if (this.procedural != null) {
+            return this.procedural.layerBlockCount(layer);
+        }
         if (layer < 0 || layer >= this.layers.size()) {
             return 0;
         }
@@ -125,10 +148,16 @@ public class MultiblockProjection {
     /**
      * Helper to get the SizeVariant for a multiblock based on settings.
      * Returns null for non-variable-size multiblocks.
+     * A custom size is used when the definition's size range allows it, otherwise the preset.
      */
     @Nullable
     public static SizeVariant getVariantFromSettings(MultiblockDefinition definition, Settings settings) {
         if (definition.isVariableSize()) {
+            BlockPos customSize = settings.getCustomSize();
+            if (customSize != null) {
+                SizeVariant custom = definition.variantFor(customSize);
+                if (custom != null) return custom;
+            }
             var variants = definition.variants();
             int index = settings.getSizePresetIndex();
             if (!variants.isEmpty() && index >= 0 && index < variants.size()) {
@@ -144,17 +173,10 @@ public class MultiblockProjection {
     public boolean equals(Object obj) {
         if (this == obj) return true;
         if (obj instanceof MultiblockProjection other) {
-            // Compare by registry ID if available, fall back to displayName
-            var index = MultiblockIndex.get();
-            var thisId = index.getId(this.multiblock);
-            var otherId = index.getId(other.multiblock);
-            boolean sameMultiblock;
-            if (thisId.isPresent() && otherId.isPresent()) {
-                sameMultiblock = thisId.get().equals(otherId.get());
-            } else {
-                sameMultiblock = this.multiblock.displayName().getString()
-                    .equals(other.multiblock.displayName().getString());
-            }
+            // Same definition object, or the same catalog id; the cached hashes reject most mismatches
+            boolean sameMultiblock = this.multiblock == other.multiblock
+                || (this.multiblockHash == other.multiblockHash && this.multiblockId != null
+                    && this.multiblockId.equals(other.multiblockId));
             return sameMultiblock &&
                    this.settings.getMirror() == other.settings.getMirror() &&
                    this.settings.getRotation() == other.settings.getRotation();
@@ -162,23 +184,17 @@ public class MultiblockProjection {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return (multiblockHash * 31 + this.settings.getMirror().ordinal()) * 31 + this.settings.getRotation().ordinal();
+    }
+
     /**
      * Single-Layer based projection processing
      */
     public boolean process(int layer, Predicate<Info> predicate) {
         updateData();
-
-        List<BlockInfo> blocks = this.layers.get(layer);
-        if (blocks == null || blocks.isEmpty()) {
-            return false;
-        }
-
-        for (BlockInfo blockInfo : blocks) {
-            if (predicate.test(new Info(this, blockInfo))) {
-                return true;
-            }
-        }
-        return false;
+        return visitLayer(layer, blockInfo -> predicate.test(new Info(this, blockInfo)));
     }
 
     /**
@@ -188,12 +204,24 @@ public class MultiblockProjection {
         updateData();
 
         for (int layer = 0; layer < getLayerCount(); layer++) {
-            List<BlockInfo> blocks = this.layers.get(layer);
-            if (blocks == null) continue;
-            for (BlockInfo blockInfo : blocks) {
-                if (predicate.test(layer, new Info(this, blockInfo))) {
-                    return true;
-                }
+            int layerIndex = layer;
+            if (visitLayer(layer, blockInfo -> predicate.test(layerIndex, new Info(this, blockInfo)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Feeds the blocks of a layer to the visitor until it returns true. */
+    private boolean visitLayer(int layer, Predicate<BlockInfo> visitor) {
+        if (this.procedural != null) {
+            return this.procedural.visitLayer(layer, (x, y, z, entry) -> visitor.test(new BlockInfo(new BlockPos(x, y, z), entry)));
+        }
+        List<BlockInfo> blocks = this.layers.get(layer);
+        if (blocks == null) return false;
+        for (BlockInfo blockInfo : blocks) {
+            if (visitor.test(blockInfo)) {
+                return true;
             }
         }
         return false;
@@ -205,9 +233,6 @@ public class MultiblockProjection {
 
         boolean mirrored = this.settings.getMirror() == Mirror.FRONT_BACK;
         Rotation rotation = this.settings.getRotation();
-        // Use size from the resolved variant
-        BlockPos dimensions = this.resolvedVariant.dimensions();
-        Vec3i size = dimensions;
 
         // Align corners first
         if (!mirrored) {
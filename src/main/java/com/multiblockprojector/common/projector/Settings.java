@@ -2,7 +2,7 @@ package com.multiblockprojector.common.projector;
 
 import com.multiblockprojector.api.MultiblockDefinition;
 import com.multiblockprojector.common.network.MessageProjectorSync;
-import com.multiblockprojector.common.registry.MultiblockIndex;
+import com.multiblockprojector.common.registry.MultiblockCatalog;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.component.DataComponents;
 import net.minecraft.nbt.CompoundTag;
@@ -33,7 +33,9 @@ public class Settings {
     public static final String KEY_POSITION = "pos";
     public static final String KEY_AUTO_BUILD = "autoBuild";
     public static final String KEY_SIZE_PRESET = "sizePreset";
+    public static final String KEY_CUSTOM_SIZE = "customSize";
     public static final String KEY_SOURCE = "source";
+    public static final String KEY_SCHEMATIC_HASH = "schematicHash";
     public static final String KEY_LINKED_ENERGY = "linked_energy";
     public static final String KEY_LINKED_CHEST = "linked_chest";
     public static final String KEY_STORED_ENERGY = "stored_energy";
@@ -46,7 +48,9 @@ public class Settings {
     private boolean mirror;
     private boolean isPlaced;
     private int sizePresetIndex = 0;
+    private BlockPos customSize = null;
     private Source source = Source.REGISTRY;
+    private String schematicHash = null;
     private BlockPos linkedEnergyPos = null;
     private ResourceLocation linkedEnergyDim = null;
     private BlockPos linkedChestPos = null;
@@ -93,6 +97,10 @@ public class Settings {
                 this.multiblockId = ResourceLocation.parse(str);
             }
 
+            if (settingsNbt.contains(KEY_SCHEMATIC_HASH, Tag.TAG_STRING)) {
+                this.schematicHash = settingsNbt.getString(KEY_SCHEMATIC_HASH);
+            }
+
             if (settingsNbt.contains(KEY_POSITION, Tag.TAG_COMPOUND)) {
                 CompoundTag pos = settingsNbt.getCompound(KEY_POSITION);
                 int x = pos.getInt("x");
@@ -101,6 +109,11 @@ public class Settings {
                 this.pos = new BlockPos(x, y, z);
             }
 
+            if (settingsNbt.contains(KEY_CUSTOM_SIZE, Tag.TAG_COMPOUND)) {
+                CompoundTag size = settingsNbt.getCompound(KEY_CUSTOM_SIZE);
+                this.customSize = new BlockPos(size.getInt("x"), size.getInt("y"), size.getInt("z"));
+            }
+
             if (settingsNbt.contains(KEY_LINKED_ENERGY, Tag.TAG_COMPOUND)) {
                 CompoundTag energy = settingsNbt.getCompound(KEY_LINKED_ENERGY);
                 this.linkedEnergyPos = new BlockPos(energy.getInt("x"), energy.getInt("y"), energy.getInt("z"));
@@ -160,20 +173,30 @@ public class Settings {
     public MultiblockDefinition getMultiblock() {
         if (multiblockId == null) return null;
         if (source == Source.SCHEMATIC) {
-            // SchematicIndex is client-only; return null on dedicated server
-            if (!net.neoforged.fml.loading.FMLEnvironment.dist.isClient()) return null;
-            return com.multiblockprojector.client.schematic.SchematicIndex.get()
-                .getDefinitionById(multiblockId);
+            // Schematics uploaded to this server are resolved by content hash
+            if (schematicHash != null) {
+                MultiblockDefinition stored = com.multiblockprojector.common.schematic.SchematicStore.get(schematicHash);
+                if (stored != null) return stored;
+            }
+            MultiblockDefinition local = MultiblockCatalog.get().schematic(multiblockId);
+            if (local == null && net.neoforged.fml.loading.FMLEnvironment.dist.isClient()) {
+                // The first lookup of a session scans the schematic folders, which publishes them
+                com.multiblockprojector.client.schematic.SchematicIndex.get();
+                local = MultiblockCatalog.get().schematic(multiblockId);
+            }
+            // Null on a dedicated server until the upload completes or the stored copy is loaded
+            return local;
         }
-        return MultiblockIndex.get().getById(multiblockId).orElse(null);
+        return MultiblockCatalog.get().registered(multiblockId);
     }
 
     public void setMultiblock(@Nullable MultiblockDefinition multiblock) {
         this.source = Source.REGISTRY;
+        this.schematicHash = null;
         if (multiblock == null) {
             this.multiblockId = null;
         } else {
-            this.multiblockId = MultiblockIndex.get().getId(multiblock).orElse(null);
+            this.multiblockId = MultiblockCatalog.get().idOf(multiblock);
         }
     }
 
@@ -184,8 +207,14 @@ public class Settings {
     public void setSchematic(com.multiblockprojector.client.schematic.SchematicEntry entry) {
         this.source = Source.SCHEMATIC;
         this.multiblockId = entry.id();
+        this.schematicHash = null;
     }
 
+    /** Content hash of the selected schematic's upload payload, used to resolve it on the server. */
+    @Nullable
+    public String getSchematicHash() { return this.schematicHash; }
+    public void setSchematicHash(@Nullable String hash) { this.schematicHash = hash; }
+
     public Source getSource() { return this.source; }
     public void setSource(Source source) { this.source = source; }
 
@@ -207,6 +236,11 @@ public class Settings {
     public int getSizePresetIndex() { return this.sizePresetIndex; }
     public void setSizePresetIndex(int index) { this.sizePresetIndex = Math.max(0, index); }
 
+    /** Dimensions picked from the multiblock's size range; null when a preset is used. */
+    @Nullable
+    public BlockPos getCustomSize() { return this.customSize; }
+    public void setCustomSize(@Nullable BlockPos size) { this.customSize = size; }
+
     @Nullable
     public BlockPos getLinkedEnergyPos() { return this.linkedEnergyPos; }
     public void setLinkedEnergyPos(@Nullable BlockPos pos) { this.linkedEnergyPos = pos; }
@@ -249,6 +283,10 @@ public class Settings {
             nbt.putString(KEY_MULTIBLOCK, this.multiblockId.toString());
         }
 
+        if (this.schematicHash != null) {
+            nbt.putString(KEY_SCHEMATIC_HASH, this.schematicHash);
+        }
+
         if (this.pos != null) {
             CompoundTag pos = new CompoundTag();
             pos.putInt("x", this.pos.getX());
@@ -257,6 +295,14 @@ public class Settings {
             nbt.put(KEY_POSITION, pos);
         }
 
+        if (this.customSize != null) {
+            CompoundTag size = new CompoundTag();
+            size.putInt("x", this.customSize.getX());
+            size.putInt("y", this.customSize.getY());
+            size.putInt("z", this.customSize.getZ());
+            nbt.put(KEY_CUSTOM_SIZE, size);
+        }
+
         if (this.linkedEnergyPos != null) {
             CompoundTag energy = new CompoundTag();
             energy.putInt("x", this.linkedEnergyPos.getX());
@@ -0,0 +1,282 @@
+package com.multiblockprojector.common.registry;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.AirEntry;
+import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.api.BlockGroup;
+import com.multiblockprojector.api.MbpFormat;
+import com.multiblockprojector.api.MultiblockCategory;
+import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.api.MultiblockStructure;
+import com.multiblockprojector.api.SingleBlock;
+import com.multiblockprojector.api.StructureGrid;
+import com.multiblockprojector.api.TagEntry;
+import com.multiblockprojector.common.network.MessageDataMultiblocks;
+import net.minecraft.commands.arguments.blocks.BlockStateParser;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.FileToIdConverter;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.tags.TagKey;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
+import net.neoforged.neoforge.event.OnDatapackSyncEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads multiblock definitions from datapacks, for mods without an adapter.
+ * <p>
+ * Definitions live in {@code data/<namespace>/multiblockprojector/multiblocks/<path>.json}
+ * and use a layer pattern with a key map, like Patchouli:
+ * <pre>
+ * {
+ *   "name": "Blast Furnace",                  translation key or plain text
+ *   "mod": "minecraft",                       tab to list it under; defaults to the namespace
+ *   "category": "multiblockprojector:processing",
+ *   "pattern": [ ["AAA", "ABA", "AAA"], ... ], layers from top to bottom; rows along Z, columns along X
+ *   "mapping": {
+ *     "A": "minecraft:bricks",                 block state
+ *     "B": ["minecraft:furnace", ...],         any of the blocks
+ *     "C": { "label": "Logs", "blocks": [...] },
+ *     "D": { "tag": "minecraft:logs", "fallback": "minecraft:oak_log", "label": "Logs" }
+ *   }
+ * }
+ * </pre>
+ * A space is not part of the structure and an unmapped {@code _} must be air. Labels are plain
+ * text: structures reach clients in the {@link MbpFormat}, which stores labels as strings, so a
+ * translation key would show untranslated there.
+ * <p>
+ * Files are parsed and compiled into packed grids in parallel while the reload prepares, so
+ * providers only hand out the compiled structure. The result replaces the data part of the
+ * {@link MultiblockCatalog}; ids that are already registered keep their registered definition.
+ * <p>
+ * Datapacks only exist on the server, so each definition is also encoded once per reload and
+ * sent to clients when datapacks are synced (on join and after {@code /reload}).
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID)
+public class DataMultiblockLoader extends SimplePreparableReloadListener<DataMultiblockLoader.Loaded> {
+
+    private static final FileToIdConverter LISTER = FileToIdConverter.json("multiblockprojector/multiblocks");
+    private static final List<MultiblockCategory> CATEGORIES = List.of(MultiblockCategory.PROCESSING,
+        MultiblockCategory.POWER, MultiblockCategory.STORAGE, MultiblockCategory.CRAFTING, MultiblockCategory.GENERAL);
+    private static final AirEntry AIR = new AirEntry();
+    /** Encoded entries per sync packet; well below the client-bound payload limit. */
+    private static final int SYNC_BATCH_BYTES = 768 * 1024;
+
+    /** Definitions of the last reload, encoded for clients. */
+    private static volatile List<MessageDataMultiblocks.Entry> synced = List.of();
+
+    /** Compiled definitions and their encoded form. */
+    protected record Loaded(Map<ResourceLocation, MultiblockDefinition> definitions,
+                            List<MessageDataMultiblocks.Entry> entries) {}
+
+    @SubscribeEvent
+    public static void onAddReloadListeners(AddReloadListenerEvent event) {
+        event.addListener(new DataMultiblockLoader());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        synced = List.of();
+        MultiblockCatalog.publishData(Map.of());
+    }
+
+    @SubscribeEvent
+    public static void onDatapackSync(OnDatapackSyncEvent event) {
+        List<MessageDataMultiblocks.Entry> entries = synced;
+        event.getRelevantPlayers().forEach(player -> send(player, entries));
+    }
+
+    /** Sends every entry in batches; the first batch replaces the client's definitions. */
+    private static void send(ServerPlayer player, List<MessageDataMultiblocks.Entry> entries) {
+        List<MessageDataMultiblocks.Entry> batch = new ArrayList<>();
+        int bytes = 0;
+        boolean first = true;
+        for (MessageDataMultiblocks.Entry entry : entries) {
+            if (!batch.isEmpty() && bytes + entry.structure().length > SYNC_BATCH_BYTES) {
+                MessageDataMultiblocks.sendToClient(player, first, batch);
+                batch = new ArrayList<>();
+                bytes = 0;
+                first = false;
+            }
+            batch.add(entry);
+            bytes += entry.structure().length;
+        }
+        if (first || !batch.isEmpty()) {
+            MessageDataMultiblocks.sendToClient(player, first, batch);
+        }
+    }
+
+    @Override
+    protected Loaded prepare(ResourceManager manager, ProfilerFiller profiler) {
+        Map<ResourceLocation, MultiblockDefinition> definitions = new ConcurrentHashMap<>();
+        Map<ResourceLocation, MessageDataMultiblocks.Entry> entries = new ConcurrentHashMap<>();
+        LISTER.listMatchingResources(manager).entrySet().parallelStream().forEach(file -> {
+            ResourceLocation id = LISTER.fileToId(file.getKey());
+            MultiblockDefinition definition = load(id, file.getValue());
+            if (definition == null) return;
+            definitions.put(id, definition);
+            MessageDataMultiblocks.Entry entry = encode(id, definition);
+            if (entry != null) entries.put(id, entry);
+        });
+        return new Loaded(definitions, List.copyOf(entries.values()));
+    }
+
+    @Override
+    protected void apply(Loaded loaded, ResourceManager manager, ProfilerFiller profiler) {
+        synced = loaded.entries();
+        MultiblockCatalog.publishData(loaded.definitions());
+        UniversalProjector.LOGGER.info("Loaded {} data-driven multiblocks", loaded.definitions().size());
+    }
+
+    @Nullable
+    private static MultiblockDefinition load(ResourceLocation id, Resource resource) {
+        try (Reader reader = resource.openAsReader()) {
+            return compile(id, GsonHelper.convertToJsonObject(JsonParser.parseReader(reader), "multiblock"));
+        } catch (IOException | RuntimeException e) {
+            UniversalProjector.LOGGER.warn("Failed to load data-driven multiblock {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    @Nullable
+    private static MessageDataMultiblocks.Entry encode(ResourceLocation id, MultiblockDefinition definition) {
+        byte[] structure = MbpFormat.toBytes(
+            definition.structureProvider().create(definition.getDefaultVariant(), null));
+        if (structure.length > MessageDataMultiblocks.MAX_STRUCTURE_BYTES) {
+            UniversalProjector.LOGGER.warn("Data-driven multiblock {} is too large to sync to clients", id);
+            return null;
+        }
+        return new MessageDataMultiblocks.Entry(id, definition.displayName(), definition.modId(),
+            definition.category().id(), definition.category().displayName(), structure);
+    }
+
+    // ---- Compiling ----
+
+    private static MultiblockDefinition compile(ResourceLocation id, JsonObject json) {
+        Component name = Component.translatable(GsonHelper.getAsString(json, "name", id.getPath()));
+        String modId = GsonHelper.getAsString(json, "mod", id.getNamespace());
+        MultiblockCategory category = category(GsonHelper.getAsString(json, "category", "general"));
+
+        Map<Character, BlockEntry> mapping = new HashMap<>();
+        for (Map.Entry<String, JsonElement> key : GsonHelper.getAsJsonObject(json, "mapping").entrySet()) {
+            if (key.getKey().length() != 1) {
+                throw new JsonParseException("Mapping key '" + key.getKey() + "' must be a single character");
+            }
+            mapping.put(key.getKey().charAt(0), entry(key.getValue()));
+        }
+
+        JsonArray layers = GsonHelper.getAsJsonArray(json, "pattern");
+        int sizeY = layers.size();
+        int sizeZ = 0;
+        int sizeX = 0;
+        List<List<String>> rows = new ArrayList<>(sizeY);
+        for (JsonElement layer : layers) {
+            List<String> layerRows = new ArrayList<>();
+            for (JsonElement row : GsonHelper.convertToJsonArray(layer, "layer")) {
+                String text = GsonHelper.convertToString(row, "row");
+                layerRows.add(text);
+                sizeX = Math.max(sizeX, text.length());
+            }
+            sizeZ = Math.max(sizeZ, layerRows.size());
+            rows.add(layerRows);
+        }
+        if (sizeX == 0 || sizeY == 0 || sizeZ == 0) throw new JsonParseException("Pattern is empty");
+
+        StructureGrid.Builder grid = StructureGrid.builder(sizeX, sizeY, sizeZ);
+        for (int layer = 0; layer < sizeY; layer++) {
+            int y = sizeY - 1 - layer;
+            List<String> layerRows = rows.get(layer);
+            for (int z = 0; z < layerRows.size(); z++) {
+                String row = layerRows.get(z);
+                for (int x = 0; x < row.length(); x++) {
+                    char c = row.charAt(x);
+                    if (c == ' ') continue;
+                    BlockEntry entry = mapping.get(c);
+                    if (entry == null && c == '_') entry = AIR;
+                    if (entry == null) throw new JsonParseException("Pattern uses unmapped key '" + c + "'");
+                    grid.set(x, y, z, entry);
+                }
+            }
+        }
+
+        MultiblockStructure structure = grid.build().toStructure();
+        return MultiblockDefinition.fixed(name, modId, category, new BlockPos(sizeX, sizeY, sizeZ),
+            (variant, level) -> structure);
+    }
+
+    private static MultiblockCategory category(String text) {
+        ResourceLocation id = ResourceLocation.tryParse(text.contains(":") ? text : "multiblockprojector:" + text);
+        if (id == null) throw new JsonParseException("Invalid category '" + text + "'");
+        for (MultiblockCategory category : CATEGORIES) {
+            if (category.id().equals(id)) return category;
+        }
+        return new MultiblockCategory(id, Component.translatable(id.toLanguageKey("category")));
+    }
+
+    private static BlockEntry entry(JsonElement json) {
+        if (json.isJsonArray()) {
+            List<BlockState> options = states(json.getAsJsonArray());
+            return new BlockGroup(options.get(0).getBlock().getName(), options);
+        }
+        if (!json.isJsonObject()) {
+            return new SingleBlock(state(GsonHelper.convertToString(json, "mapping")));
+        }
+        JsonObject object = json.getAsJsonObject();
+        if (object.has("tag")) {
+            ResourceLocation tag = ResourceLocation.parse(GsonHelper.getAsString(object, "tag"));
+            BlockState fallback = state(GsonHelper.getAsString(object, "fallback"));
+            Component label = object.has("label")
+                ? Component.literal(GsonHelper.getAsString(object, "label"))
+                : Component.literal("#" + tag);
+            return new TagEntry(TagKey.create(Registries.BLOCK, tag), label, fallback);
+        }
+        List<BlockState> options = states(GsonHelper.getAsJsonArray(object, "blocks"));
+        Component label = object.has("label")
+            ? Component.literal(GsonHelper.getAsString(object, "label"))
+            : options.get(0).getBlock().getName();
+        return new BlockGroup(label, options);
+    }
+
+    private static List<BlockState> states(JsonArray json) {
+        if (json.isEmpty()) throw new JsonParseException("Block list is empty");
+        List<BlockState> states = new ArrayList<>(json.size());
+        for (JsonElement element : json) {
+            states.add(state(GsonHelper.convertToString(element, "block")));
+        }
+        return states;
+    }
+
+    private static BlockState state(String text) {
+        try {
+            return BlockStateParser.parseForBlock(BuiltInRegistries.BLOCK.asLookup(), text, false).blockState();
+        } catch (CommandSyntaxException e) {
+            throw new JsonParseException("Invalid block state '" + text + "': " + e.getMessage());
+        }
+    }
+}
@@ -1,70 +1,124 @@
 package com.multiblockprojector.common.registry;
 
 import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.MultiblockDefinition;
 import com.multiblockprojector.api.ProjectorAPI;
 import com.multiblockprojector.common.adapters.BloodMagicMultiblockAdapter;
 import com.multiblockprojector.common.adapters.IEMultiblockAdapter;
 import com.multiblockprojector.common.adapters.MekanismMultiblockAdapter;
+import net.minecraft.Util;
+import net.minecraft.resources.ResourceLocation;
 import net.neoforged.bus.api.EventPriority;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.fml.ModList;
+import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.registries.RegisterEvent;
 
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * Registers multiblock definitions from legacy adapters at LOW priority,
  * so first-party registrations from other mods take precedence.
+ * <p>
+ * The adapters of all loaded mods run concurrently on background threads. They only build
+ * definitions: blocks are resolved after registries freeze, and structures by the providers on
+ * first use. Results are registered on the registration thread in a fixed order, followed by a
+ * timing report.
  */
 public class LegacyAdapterRegistrar {
 
+    /** A definition found by an adapter. */
+    private record Discovered(ResourceLocation id, MultiblockDefinition definition) {}
+
+    /** The adapter for one mod. */
+    private record Adapter(String modId, String name, Supplier<List<Discovered>> discovery) {}
+
+    /** What running an adapter produced, and how long it took. */
+    private record Result(Adapter adapter, List<Discovered> definitions, long nanos, @Nullable Throwable error) {}
+
+    private static final List<Adapter> ADAPTERS = List.of(
+        new Adapter("immersiveengineering", "IE", () -> IEMultiblockAdapter.discover().stream()
+            .map(entry -> new Discovered(entry.id(), entry.definition())).toList()),
+        new Adapter("mekanism", "Mekanism", () -> MekanismMultiblockAdapter.discover().stream()
+            .map(entry -> new Discovered(entry.id(), entry.definition())).toList()),
+        new Adapter("bloodmagic", "Blood Magic", () -> BloodMagicMultiblockAdapter.discover().stream()
+            .map(entry -> new Discovered(entry.id(), entry.definition())).toList())
+    );
+
     public static void init(IEventBus modEventBus) {
         modEventBus.addListener(EventPriority.LOW, LegacyAdapterRegistrar::onRegister);
+        modEventBus.addListener(LegacyAdapterRegistrar::onCommonSetup);
+    }
+
+    /**
+     * Resolves the adapters' block tables once registries are frozen, so structure providers
+     * called later from any thread only read them.
+     */
+    private static void onCommonSetup(FMLCommonSetupEvent event) {
+        if (ModList.get().isLoaded("mekanism")) {
+            MekanismMultiblockAdapter.resolveBlocks();
+        }
+        if (ModList.get().isLoaded("bloodmagic")) {
+            BloodMagicMultiblockAdapter.resolveBlocks();
+        }
     }
 
     private static void onRegister(RegisterEvent event) {
         event.register(ProjectorAPI.MULTIBLOCK_REGISTRY_KEY, helper -> {
             UniversalProjector.LOGGER.info("Registering multiblocks from legacy adapters...");
+            long start = System.nanoTime();
 
-            if (ModList.get().isLoaded("immersiveengineering")) {
-                try {
-                    var registry = MultiblockRegistrySetup.getRegistry();
-                    for (var entry : IEMultiblockAdapter.discover()) {
-                        if (!registry.containsKey(entry.id())) {
-                            helper.register(entry.id(), entry.definition());
-                        }
-                    }
-                    UniversalProjector.LOGGER.info("Registered IE multiblocks from adapter");
-                } catch (Exception e) {
-                    UniversalProjector.LOGGER.error("Failed to load IE multiblocks", e);
+            List<CompletableFuture<Result>> running = new ArrayList<>();
+            for (Adapter adapter : ADAPTERS) {
+                if (ModList.get().isLoaded(adapter.modId())) {
+                    running.add(CompletableFuture.supplyAsync(() -> run(adapter), Util.backgroundExecutor()));
                 }
             }
 
-            if (ModList.get().isLoaded("mekanism")) {
-                try {
-                    var registry = MultiblockRegistrySetup.getRegistry();
-                    for (var entry : MekanismMultiblockAdapter.discover()) {
-                        if (!registry.containsKey(entry.id())) {
-                            helper.register(entry.id(), entry.definition());
-                        }
-                    }
-                    UniversalProjector.LOGGER.info("Registered Mekanism multiblocks from adapter");
-                } catch (Exception e) {
-                    UniversalProjector.LOGGER.error("Failed to load Mekanism multiblocks", e);
+            var registry = MultiblockRegistrySetup.getRegistry();
+            List<Result> results = new ArrayList<>();
+            for (CompletableFuture<Result> future : running) {
+                Result result = future.join();
+                results.add(result);
+                if (result.error() != null) {
+                    UniversalProjector.LOGGER.error("Failed to load {} multiblocks", result.adapter().name(), result.error());
+                    continue;
                 }
-            }
-
-            if (ModList.get().isLoaded("bloodmagic")) {
-                try {
-                    var registry = MultiblockRegistrySetup.getRegistry();
-                    for (var entry : BloodMagicMultiblockAdapter.discover()) {
-                        if (!registry.containsKey(entry.id())) {
-                            helper.register(entry.id(), entry.definition());
-                        }
+                for (Discovered entry : result.definitions()) {
+                    if (!registry.containsKey(entry.id())) {
+                        helper.register(entry.id(), entry.definition());
                     }
-                    UniversalProjector.LOGGER.info("Registered Blood Magic multiblocks from adapter");
-                } catch (Exception e) {
-                    UniversalProjector.LOGGER.error("Failed to load Blood Magic multiblocks", e);
                 }
+                UniversalProjector.LOGGER.info("Registered {} multiblocks from adapter", result.adapter().name());
             }
+
+            logReport(results, System.nanoTime() - start);
         });
     }
+
+    private static Result run(Adapter adapter) {
+        long start = System.nanoTime();
+        try {
+            return new Result(adapter, adapter.discovery().get(), System.nanoTime() - start, null);
+        } catch (Exception | LinkageError e) {
+            return new Result(adapter, List.of(), System.nanoTime() - start, e);
+        }
+    }
+
+    private static void logReport(List<Result> results, long elapsedNanos) {
+        if (results.isEmpty()) return;
+        StringBuilder report = new StringBuilder("Legacy adapter startup report:");
+        long busyNanos = 0;
+        for (Result result : results) {
+            busyNanos += result.nanos();
+            report.append(String.format("%n  %-12s %4d multiblocks %6d ms%s", result.adapter().name(),
+                result.definitions().size(), result.nanos() / 1_000_000, result.error() != null ? " (failed)" : ""));
+        }
+        report.append(String.format("%n  %d ms of discovery in %d ms", busyNanos / 1_000_000, elapsedNanos / 1_000_000));
+        UniversalProjector.LOGGER.info(report.toString());
+    }
 }
@@ -0,0 +1,239 @@
+package com.multiblockprojector.common.registry;
+
+import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.common.registry.MultiblockIndex.TabEntry;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceLocation;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable snapshot of every selectable definition: registered multiblocks, the data-driven
+ * multiblocks compiled by {@link DataMultiblockLoader}, and the schematics published by the
+ * client's {@code SchematicIndex}.
+ * <p>
+ * Snapshots are published atomically, so any thread may call {@link #get()} and work with the
+ * returned catalog without locking; it never changes underneath the caller. Publishing a new
+ * data or schematic set builds a fresh snapshot that reuses the other parts of the current one.
+ */
+public final class MultiblockCatalog {
+
+    private static final AtomicReference<MultiblockCatalog> CURRENT = new AtomicReference<>();
+
+    private static final Comparator<MultiblockDefinition> BY_NAME =
+        Comparator.comparing(d -> d.displayName().getString(), String.CASE_INSENSITIVE_ORDER);
+
+    /**
+     * Definitions addressed by id, shared by every later snapshot until replaced. The registry
+     * part is computed once; the data part is replaced on every datapack reload.
+     */
+    private record DefinitionPart(List<TabEntry> tabs, Object2ObjectOpenHashMap<ResourceLocation, MultiblockDefinition> byId,
+                                  Reference2ObjectOpenHashMap<MultiblockDefinition, ResourceLocation> ids) {}
+
+    private static final DefinitionPart NO_DATA =
+        new DefinitionPart(List.of(), new Object2ObjectOpenHashMap<>(), new Reference2ObjectOpenHashMap<>());
+
+    private final DefinitionPart registry;
+    private final DefinitionPart data;
+    private final List<TabEntry> tabs;
+    private final List<MultiblockDefinition> all;
+    private final Map<String, List<MultiblockDefinition>> byTab;
+    private final Object2ObjectOpenHashMap<ResourceLocation, MultiblockDefinition> schematicsById;
+    private final Reference2ObjectOpenHashMap<MultiblockDefinition, ResourceLocation> ids;
+    private final Set<String> schematicTabs;
+
+    private MultiblockCatalog(DefinitionPart registry, DefinitionPart data, List<TabEntry> tabs, List<MultiblockDefinition> all,
+                              Map<String, List<MultiblockDefinition>> byTab,
+                              Object2ObjectOpenHashMap<ResourceLocation, MultiblockDefinition> schematicsById,
+                              Reference2ObjectOpenHashMap<MultiblockDefinition, ResourceLocation> ids, Set<String> schematicTabs) {
+        this.registry = registry;
+        this.data = data;
+        this.tabs = tabs;
+        this.all = all;
+        this.byTab = byTab;
+        this.schematicsById = schematicsById;
+        this.ids = ids;
+        this.schematicTabs = schematicTabs;
+    }
+
+    /** The current snapshot, built from the registry on first access. */
+    public static MultiblockCatalog get() {
+        MultiblockCatalog catalog = CURRENT.get();
+        if (catalog == null) {
+            MultiblockCatalog built = build(registryPart(), NO_DATA, List.of(), Map.of());
+            catalog = CURRENT.compareAndExchange(null, built);
+            if (catalog == null) catalog = built;
+        }
+        return catalog;
+    }
+
+    /**
+     * Replaces the schematic half of the catalog and returns the new snapshot.
+     *
+     * @param tabs        schematic tabs, in display order
+     * @param definitions schematic definitions by id; iteration order is not significant
+     */
+    public static MultiblockCatalog publishSchematics(List<TabEntry> tabs, Map<ResourceLocation, MultiblockDefinition> definitions) {
+        List<TabEntry> tabsCopy = List.copyOf(tabs);
+        Map<ResourceLocation, MultiblockDefinition> definitionsCopy = Map.copyOf(definitions);
+        return CURRENT.updateAndGet(current -> current != null
+            ? build(current.registry, current.data, tabsCopy, definitionsCopy)
+            : build(registryPart(), NO_DATA, tabsCopy, definitionsCopy));
+    }
+
+    /**
+     * Replaces the data-driven part of the catalog and returns the new snapshot. Definitions
+     * whose id is already registered are skipped, so code registrations take precedence.
+     *
+     * @param definitions data-driven definitions by id; iteration order is not significant
+     */
+    public static MultiblockCatalog publishData(Map<ResourceLocation, MultiblockDefinition> definitions) {
+        return CURRENT.updateAndGet(current -> {
+            DefinitionPart registry = current != null ? current.registry : registryPart();
+            DefinitionPart data = dataPart(registry, definitions);
+            return current != null
+                ? build(registry, data, current.schematicTabs(), current.schematicsById)
+                : build(registry, data, List.of(), Map.of());
+        });
+    }
+
+    // ---- Lookups ----
+
+    /** Every tab: "All", the registry mods, mods only found in data, then the schematic folders. */
+    public List<TabEntry> tabs() {
+        return tabs;
+    }
+
+    /** All definitions, sorted by display name. */
+    public List<MultiblockDefinition> all() {
+        return all;
+    }
+
+    /** Definitions of one tab, or of all tabs for {@link MultiblockIndex#ALL_TAB}, sorted by display name. */
+    public List<MultiblockDefinition> forTab(String tabId) {
+        if (MultiblockIndex.ALL_TAB.equals(tabId)) return all;
+        return byTab.getOrDefault(tabId, List.of());
+    }
+
+    /** Display name of a tab, or "All" for unknown ids. */
+    public String tabDisplayName(String tabId) {
+        for (TabEntry tab : tabs) {
+            if (tab.modId().equals(tabId)) return tab.displayName();
+        }
+        return "All";
+    }
+
+    /** A registered or data-driven multiblock by id. */
+    @Nullable
+    public MultiblockDefinition registered(ResourceLocation id) {
+        MultiblockDefinition definition = registry.byId.get(id);
+        return definition != null ? definition : data.byId.get(id);
+    }
+
+    /** A published schematic by schematic id. */
+    @Nullable
+    public MultiblockDefinition schematic(ResourceLocation id) {
+        return schematicsById.get(id);
+    }
+
+    /** The registry, data or schematic id of a definition from this snapshot; a reference-keyed lookup. */
+    @Nullable
+    public ResourceLocation idOf(MultiblockDefinition definition) {
+        return ids.get(definition);
+    }
+
+    /** Whether the definition is one of this snapshot's schematics. */
+    public boolean isSchematic(MultiblockDefinition definition) {
+        return ids.containsKey(definition) && !registry.ids.containsKey(definition) && !data.ids.containsKey(definition);
+    }
+
+    /** Whether the definition is one of this snapshot's data-driven multiblocks. */
+    public boolean isData(MultiblockDefinition definition) {
+        return data.ids.containsKey(definition) && !registry.ids.containsKey(definition);
+    }
+
+    /** Whether the tab lists schematics rather than registered multiblocks. */
+    public boolean isSchematicTab(String tabId) {
+        return schematicTabs.contains(tabId);
+    }
+
+    // ---- Building ----
+
+    private static DefinitionPart registryPart() {
+        var registry = MultiblockRegistrySetup.getRegistry();
+        var index = MultiblockIndex.get();
+        Object2ObjectOpenHashMap<ResourceLocation, MultiblockDefinition> byId = new Object2ObjectOpenHashMap<>();
+        Reference2ObjectOpenHashMap<MultiblockDefinition, ResourceLocation> ids = new Reference2ObjectOpenHashMap<>();
+        for (MultiblockDefinition definition : index.getAll()) {
+            ResourceLocation id = registry.getKey(definition);
+            if (id == null) continue;
+            byId.put(id, definition);
+            ids.put(definition, id);
+        }
+        return new DefinitionPart(index.getTabs(), byId, ids);
+    }
+
+    /** The data part for a definition set, with tabs for mods the registry has no tab for. */
+    private static DefinitionPart dataPart(DefinitionPart registry, Map<ResourceLocation, MultiblockDefinition> definitions) {
+        Object2ObjectOpenHashMap<ResourceLocation, MultiblockDefinition> byId = new Object2ObjectOpenHashMap<>();
+        Reference2ObjectOpenHashMap<MultiblockDefinition, ResourceLocation> ids = new Reference2ObjectOpenHashMap<>();
+        Set<String> knownTabs = new HashSet<>();
+        registry.tabs.forEach(tab -> knownTabs.add(tab.modId()));
+        List<TabEntry> tabs = new ArrayList<>();
+        definitions.forEach((id, definition) -> {
+            if (registry.byId.containsKey(id)) return;
+            byId.put(id, definition);
+            ids.put(definition, id);
+            if (knownTabs.add(definition.modId())) {
+                tabs.add(new TabEntry(definition.modId(), MultiblockIndex.modDisplayName(definition.modId())));
+            }
+        });
+        tabs.sort(Comparator.comparing(TabEntry::displayName, String.CASE_INSENSITIVE_ORDER));
+        return new DefinitionPart(List.copyOf(tabs), byId, ids);
+    }
+
+    private List<TabEntry> schematicTabs() {
+        return tabs.subList(registry.tabs.size() + data.tabs.size(), tabs.size());
+    }
+
+    private static MultiblockCatalog build(DefinitionPart registry, DefinitionPart data, List<TabEntry> schematicTabs,
+                                           Map<ResourceLocation, MultiblockDefinition> schematics) {
+        List<TabEntry> tabs = new ArrayList<>(registry.tabs);
+        tabs.addAll(data.tabs);
+        tabs.addAll(schematicTabs);
+
+        Reference2ObjectOpenHashMap<MultiblockDefinition, ResourceLocation> ids = new Reference2ObjectOpenHashMap<>(registry.ids);
+        ids.putAll(data.ids);
+        Map<String, List<MultiblockDefinition>> byTab = new HashMap<>();
+        List<MultiblockDefinition> all = new ArrayList<>(ids.size() + schematics.size());
+        for (MultiblockDefinition definition : ids.keySet()) {
+            byTab.computeIfAbsent(definition.modId(), tab -> new ArrayList<>()).add(definition);
+            all.add(definition);
+        }
+        Object2ObjectOpenHashMap<ResourceLocation, MultiblockDefinition> schematicsById = new Object2ObjectOpenHashMap<>(schematics);
+        schematics.forEach((id, definition) -> {
+            ids.put(definition, id);
+            byTab.computeIfAbsent(definition.modId(), tab -> new ArrayList<>()).add(definition);
+            all.add(definition);
+        });
+
+        all.sort(BY_NAME);
+        Map<String, List<MultiblockDefinition>> sortedByTab = new HashMap<>();
+        byTab.forEach((tab, list) -> {
+            list.sort(BY_NAME);
+            sortedByTab.put(tab, List.copyOf(list));
+        });
+
+        return new MultiblockCatalog(registry, data, List.copyOf(tabs), List.copyOf(all), Map.copyOf(sortedByTab),
+            schematicsById, ids, Set.copyOf(schematicTabs.stream().map(TabEntry::modId).toList()));
+    }
+}
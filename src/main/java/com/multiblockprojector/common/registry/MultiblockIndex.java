@@ -19,7 +19,7 @@ public class MultiblockIndex {
     /** Special mod ID for the "All" tab. */
     public static final String ALL_TAB = "__all__";
 
-    private static MultiblockIndex INSTANCE;
+    private static volatile MultiblockIndex INSTANCE;
 
     private final List<TabEntry> tabs;
     private final Map<String, List<MultiblockDefinition>> byMod;
@@ -98,7 +98,7 @@ public class MultiblockIndex {
 
         // Build sorted tab list
         List<TabEntry> modTabs = byMod.keySet().stream()
-            .map(modId -> new TabEntry(modId, getModDisplayName(modId)))
+            .map(modId -> new TabEntry(modId, modDisplayName(modId)))
             .sorted(Comparator.comparing(TabEntry::displayName, String.CASE_INSENSITIVE_ORDER))
             .toList();
 
@@ -114,7 +114,8 @@ public class MultiblockIndex {
         );
     }
 
-    private static String getModDisplayName(String modId) {
+    /** Display name of a mod's tab: the mod's name, "Vanilla" for Minecraft, else the id. */
+    static String modDisplayName(String modId) {
         if ("minecraft".equals(modId)) return "Vanilla";
         return ModList.get().getModContainerById(modId)
             .map(c -> c.getModInfo().getDisplayName())
@@ -0,0 +1,257 @@
+package com.multiblockprojector.common.registry;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.BlockEntry;
+import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.api.MultiblockDefinition.SizeVariant;
+import com.multiblockprojector.api.MultiblockStructure;
+import net.minecraft.Util;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.ModList;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.fml.event.lifecycle.FMLLoadCompleteEvent;
+import net.neoforged.fml.loading.FMLPaths;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-variant facts about registered multiblocks (bounds, block count, palette size, hardness
+ * and materials), so the GUI can show, sort and filter by them without generating structures.
+ * <p>
+ * Computed once on a background thread after loading completes and persisted to
+ * {@code config/multiblockprojector/cache/metadata.nbt}. A persisted definition is reused only
+ * while its mod's version and its variant dimensions are unchanged; the whole file is dropped when
+ * this mod's version changes, since the adapters that build most structures ship with it. Schematics are not covered;
+ * callers fall back to the structure provider when {@link #get} returns null.
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID, value = Dist.CLIENT, bus = EventBusSubscriber.Bus.MOD)
+public final class MultiblockMetadata {
+
+    private static final Path FILE = FMLPaths.CONFIGDIR.get()
+        .resolve("multiblockprojector").resolve("cache").resolve("metadata.nbt");
+    private static final int FORMAT = 1;
+
+    /** Metadata per variant, indexed like {@link MultiblockDefinition#variants()}. */
+    private static final Map<ResourceLocation, VariantMetadata[]> BY_ID = new ConcurrentHashMap<>();
+
+    /**
+     * Facts about one variant's structure.
+     *
+     * @param bounds      extent of the non-air blocks (may be smaller than the variant dimensions)
+     * @param nonAirCount blocks that have to be placed
+     * @param paletteSize distinct block types among them
+     * @param hardnessSum sum of block hardness, each at least 0.1, as used for fabrication cost
+     * @param materials   block counts, in first-seen order
+     */
+    public record VariantMetadata(BlockPos bounds, int nonAirCount, int paletteSize, double hardnessSum,
+                                  Map<Block, Integer> materials) {
+
+        /** Measures a structure, counting each entry by the state it displays first. */
+        public static VariantMetadata of(MultiblockStructure structure) {
+            Map<Block, Integer> materials = new LinkedHashMap<>();
+            Map<BlockEntry, BlockState> displayed = new IdentityHashMap<>();
+            int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE, minZ = Integer.MAX_VALUE;
+            int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE, maxZ = Integer.MIN_VALUE;
+            int count = 0;
+            double hardness = 0;
+            for (var entry : structure.blocks().entrySet()) {
+                BlockState state = displayed.computeIfAbsent(entry.getValue(), e -> e.displayState(0));
+                if (state.isAir()) continue;
+                BlockPos pos = entry.getKey();
+                minX = Math.min(minX, pos.getX());
+                minY = Math.min(minY, pos.getY());
+                minZ = Math.min(minZ, pos.getZ());
+                maxX = Math.max(maxX, pos.getX());
+                maxY = Math.max(maxY, pos.getY());
+                maxZ = Math.max(maxZ, pos.getZ());
+                materials.merge(state.getBlock(), 1, Integer::sum);
+                hardness += Math.max(state.getDestroySpeed(null, BlockPos.ZERO), 0.1f);
+                count++;
+            }
+            BlockPos bounds = count == 0 ? BlockPos.ZERO : new BlockPos(maxX - minX + 1, maxY - minY + 1, maxZ - minZ + 1);
+            return new VariantMetadata(bounds, count, materials.size(), hardness, Collections.unmodifiableMap(materials));
+        }
+    }
+
+    private MultiblockMetadata() {}
+
+    /**
+     * Metadata for a variant of a registered multiblock, or null if the definition is not
+     * registered or its metadata has not been computed yet.
+     */
+    @Nullable
+    public static VariantMetadata get(MultiblockDefinition definition, int variantIndex) {
+        ResourceLocation id = MultiblockCatalog.get().idOf(definition);
+        if (id == null) return null;
+        VariantMetadata[] variants = BY_ID.get(id);
+        if (variants == null || variantIndex < 0 || variantIndex >= variants.length) return null;
+        return variants[variantIndex];
+    }
+
+    @SubscribeEvent
+    public static void onLoadComplete(FMLLoadCompleteEvent event) {
+        Util.backgroundExecutor().execute(MultiblockMetadata::computeAll);
+    }
+
+    // ---- Computing ----
+
+    private static void computeAll() {
+        long start = System.nanoTime();
+        MultiblockCatalog catalog = MultiblockCatalog.get();
+        Map<ResourceLocation, VariantMetadata[]> persisted = load(catalog);
+        BY_ID.putAll(persisted);
+
+        int computed = 0;
+        for (MultiblockDefinition definition : catalog.all()) {
+            if (catalog.isSchematic(definition)) continue;
+            ResourceLocation id = catalog.idOf(definition);
+            if (id == null || BY_ID.containsKey(id)) continue;
+
+            VariantMetadata[] variants = new VariantMetadata[definition.variants().size()];
+            try {
+                for (int i = 0; i < variants.length; i++) {
+                    // Providers are required to be thread-safe and not to touch the level
+                    variants[i] = VariantMetadata.of(definition.structureProvider().create(definition.variants().get(i), null));
+                }
+            } catch (RuntimeException e) {
+                UniversalProjector.LOGGER.warn("Failed to measure multiblock {}", id, e);
+                continue;
+            }
+            BY_ID.put(id, variants);
+            computed++;
+        }
+
+        if (computed > 0) save(catalog);
+        UniversalProjector.LOGGER.debug("Multiblock metadata ready: {} cached, {} computed in {} ms",
+            persisted.size(), computed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static String modVersion(String modId) {
+        return ModList.get().getModContainerById(modId)
+            .map(container -> container.getModInfo().getVersion().toString())
+            .orElse("");
+    }
+
+    // ---- Persistence ----
+
+    private static Map<ResourceLocation, VariantMetadata[]> load(MultiblockCatalog catalog) {
+        Map<ResourceLocation, VariantMetadata[]> result = new HashMap<>();
+        if (!Files.isRegularFile(FILE)) return result;
+        try {
+            CompoundTag root = NbtIo.readCompressed(FILE, NbtAccounter.unlimitedHeap());
+            if (root.getInt("format") != FORMAT
+                    || !root.getString("version").equals(modVersion(UniversalProjector.MODID))) return result;
+            CompoundTag versions = root.getCompound("mods");
+            CompoundTag entries = root.getCompound("entries");
+            for (String key : entries.getAllKeys()) {
+                ResourceLocation id = ResourceLocation.tryParse(key);
+                MultiblockDefinition definition = id != null ? catalog.registered(id) : null;
+                if (definition == null || !versions.getString(definition.modId()).equals(modVersion(definition.modId()))) continue;
+                VariantMetadata[] variants = readVariants(entries.getList(key, Tag.TAG_COMPOUND), definition);
+                if (variants != null) result.put(id, variants);
+            }
+        } catch (IOException | RuntimeException e) {
+            UniversalProjector.LOGGER.warn("Ignoring unreadable multiblock metadata cache {}", FILE, e);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static VariantMetadata[] readVariants(ListTag list, MultiblockDefinition definition) {
+        if (list.size() != definition.variants().size()) return null;
+        VariantMetadata[] variants = new VariantMetadata[list.size()];
+        for (int i = 0; i < variants.length; i++) {
+            CompoundTag tag = list.getCompound(i);
+            SizeVariant variant = definition.variants().get(i);
+            if (!variant.dimensions().equals(readPos(tag, "dimensions"))) return null;
+
+            Map<Block, Integer> materials = new LinkedHashMap<>();
+            CompoundTag materialTag = tag.getCompound("materials");
+            for (String blockKey : materialTag.getAllKeys()) {
+                ResourceLocation blockId = ResourceLocation.tryParse(blockKey);
+                // A block that is gone means the structure changed; measure it again
+                if (blockId == null || !BuiltInRegistries.BLOCK.containsKey(blockId)) return null;
+                materials.put(BuiltInRegistries.BLOCK.get(blockId), materialTag.getInt(blockKey));
+            }
+            variants[i] = new VariantMetadata(readPos(tag, "bounds"), tag.getInt("count"), tag.getInt("palette"),
+                tag.getDouble("hardness"), Collections.unmodifiableMap(materials));
+        }
+        return variants;
+    }
+
+    private static void save(MultiblockCatalog catalog) {
+        CompoundTag root = new CompoundTag();
+        root.putInt("format", FORMAT);
+        root.putString("version", modVersion(UniversalProjector.MODID));
+        CompoundTag versions = new CompoundTag();
+        CompoundTag entries = new CompoundTag();
+        Set<String> mods = new HashSet<>();
+        for (var entry : BY_ID.entrySet()) {
+            MultiblockDefinition definition = catalog.registered(entry.getKey());
+            if (definition == null) continue;
+            if (mods.add(definition.modId())) versions.putString(definition.modId(), modVersion(definition.modId()));
+
+            ListTag list = new ListTag();
+            VariantMetadata[] variants = entry.getValue();
+            for (int i = 0; i < variants.length; i++) {
+                VariantMetadata metadata = variants[i];
+                CompoundTag tag = new CompoundTag();
+                writePos(tag, "dimensions", definition.variants().get(i).dimensions());
+                writePos(tag, "bounds", metadata.bounds());
+                tag.putInt("count", metadata.nonAirCount());
+                tag.putInt("palette", metadata.paletteSize());
+                tag.putDouble("hardness", metadata.hardnessSum());
+                CompoundTag materialTag = new CompoundTag();
+                metadata.materials().forEach((block, count) ->
+                    materialTag.putInt(BuiltInRegistries.BLOCK.getKey(block).toString(), count));
+                tag.put("materials", materialTag);
+                list.add(tag);
+            }
+            entries.put(entry.getKey().toString(), list);
+        }
+        root.put("mods", versions);
+        root.put("entries", entries);
+
+        try {
+            Files.createDirectories(FILE.getParent());
+            Path temp = FILE.resolveSibling(FILE.getFileName() + ".tmp");
+            NbtIo.writeCompressed(root, temp);
+            Files.move(temp, FILE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            UniversalProjector.LOGGER.warn("Failed to write multiblock metadata cache {}", FILE, e);
+        }
+    }
+
+    private static void writePos(CompoundTag tag, String key, BlockPos pos) {
+        tag.putIntArray(key, new int[] { pos.getX(), pos.getY(), pos.getZ() });
+    }
+
+    @Nullable
+    private static BlockPos readPos(CompoundTag tag, String key) {
+        int[] values = tag.getIntArray(key);
+        return values.length == 3 ? new BlockPos(values[0], values[1], values[2]) : null;
+    }
+}
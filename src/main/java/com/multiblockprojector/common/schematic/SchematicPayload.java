@@ -0,0 +1,70 @@
+package com.multiblockprojector.common.schematic;
+
+import com.multiblockprojector.api.MbpFormat;
+import com.multiblockprojector.api.MultiblockStructure;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized, compressed form of a structure used for client→server schematic uploads
+ * and the server's on-disk schematic store: a gzip-wrapped {@link MbpFormat} stream.
+ * <p>
+ * Payloads are deterministic for a given structure, so the SHA-256 of the payload bytes
+ * ({@link #hash(byte[])}) identifies the content and is used as the dedup key.
+ */
+public final class SchematicPayload {
+
+    /** Largest payload accepted from a client or read from disk. */
+    public static final int MAX_PAYLOAD_BYTES = 16 * 1024 * 1024;
+
+    /** Largest bounding box (in cells) a payload may decode to; 128 blocks cubed. */
+    public static final int MAX_VOLUME = 128 * 128 * 128;
+
+    private SchematicPayload() {}
+
+    /** Encodes a structure into a compressed payload. */
+    public static byte[] encode(MultiblockStructure structure) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            MbpFormat.write(structure, gzip);
+        }
+        return out.toByteArray();
+    }
+
+    /** Decodes a payload produced by {@link #encode}. Returns null if it is malformed. */
+    @Nullable
+    public static MultiblockStructure decode(byte[] payload) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return MbpFormat.readGrid(in, MAX_VOLUME).toStructure();
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /** Lower-case hex SHA-256 of the payload bytes. */
+    public static String hash(byte[] payload) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(payload));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    /** Whether a string is a well-formed payload hash (guards file names on the server). */
+    public static boolean isValidHash(@Nullable String hash) {
+        if (hash == null || hash.length() != 64) return false;
+        for (int i = 0; i < hash.length(); i++) {
+            char c = hash.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) return false;
+        }
+        return true;
+    }
+}
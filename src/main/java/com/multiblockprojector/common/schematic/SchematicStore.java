@@ -0,0 +1,303 @@
+package com.multiblockprojector.common.schematic;
+
+import com.multiblockprojector.UniversalProjector;
+import com.multiblockprojector.api.MultiblockCategory;
+import com.multiblockprojector.api.MultiblockDefinition;
+import com.multiblockprojector.api.MultiblockStructure;
+import net.minecraft.Util;
+import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-side content-addressed store of uploaded schematics.
+ * <p>
+ * Schematics are keyed by the hash of their {@link SchematicPayload}, so identical
+ * schematics uploaded by different players are stored once. Payloads are persisted under
+ * {@code <world>/multiblockprojector/schematics/<hash>.bin} and decoded on first use, so a
+ * schematic only needs to be uploaded once per world.
+ * <p>
+ * Uploads arrive in chunks; at most one upload is in flight per player. Each player may start a
+ * few uploads per minute and store a bounded number of new schematics per server run. Completed
+ * payloads are verified and decoded on a background thread. Decoded definitions are kept in a
+ * small LRU and reloaded from disk in the background when evicted, so lookups on the server
+ * thread never read or decode a file; stored files not used for
+ * {@value #UNUSED_DAYS} days are deleted when the server starts.
+ */
+@EventBusSubscriber(modid = UniversalProjector.MODID)
+public class SchematicStore {
+
+    /** Category used for all schematic-based multiblock definitions. */
+    public static final MultiblockCategory SCHEMATIC_CATEGORY = new MultiblockCategory(
+        ResourceLocation.fromNamespaceAndPath("multiblockprojector", "schematic"),
+        Component.literal("Schematic")
+    );
+
+    /** Size of each upload chunk. Well below the custom payload limit. */
+    public static final int CHUNK_SIZE = 32 * 1024;
+
+    /** Uploads a player may start per {@link #RATE_WINDOW_MILLIS}. */
+    private static final int UPLOADS_PER_WINDOW = 4;
+    private static final long RATE_WINDOW_MILLIS = 60_000L;
+    /** New schematics a player may store per server run. */
+    private static final int MAX_STORED_PER_PLAYER = 32;
+    /** Decoded definitions kept in memory. */
+    private static final int MAX_CACHED_DEFINITIONS = 64;
+    /** Stored payloads unused for this many days are deleted on server start. */
+    private static final int UNUSED_DAYS = 30;
+
+    /** Access-ordered LRU of decoded definitions by hash. */
+    private static final Map<String, MultiblockDefinition> DEFINITIONS = Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MultiblockDefinition> eldest) {
+                return size() > MAX_CACHED_DEFINITIONS;
+            }
+        });
+    /** Stored schematics being read back from disk, so each is loaded once at a time. */
+    private static final Map<String, CompletableFuture<Void>> LOADING = new ConcurrentHashMap<>();
+    private static final Map<UUID, Upload> UPLOADS = new HashMap<>();
+    private static final Map<UUID, Quota> QUOTAS = new HashMap<>();
+    @Nullable
+    private static volatile Path storeDir;
+
+    /** An in-progress chunked upload from one player. */
+    private static final class Upload {
+        final String hash;
+        final byte[][] chunks;
+        int received;
+
+        Upload(String hash, int chunkCount) {
+            this.hash = hash;
+            this.chunks = new byte[chunkCount][];
+        }
+    }
+
+    /** Upload allowance of one player. */
+    private static final class Quota {
+        long windowStart;
+        int startedInWindow;
+        int stored;
+    }
+
+    // ---- Lookup ----
+
+    /** Whether the store holds a schematic with the given hash, in memory or on disk. */
+    public static boolean has(String hash) {
+        if (DEFINITIONS.containsKey(hash)) return true;
+        Path file = fileFor(hash);
+        return file != null && Files.isRegularFile(file);
+    }
+
+    /**
+     * Returns the definition for a stored schematic. If it is not in memory, it starts loading
+     * it from disk in the background and returns null, just as for a schematic still uploading.
+     */
+    @Nullable
+    public static MultiblockDefinition get(String hash) {
+        MultiblockDefinition cached = DEFINITIONS.get(hash);
+        if (cached != null) return cached;
+
+        Path file = fileFor(hash);
+        if (file != null) {
+            LOADING.computeIfAbsent(hash, key -> CompletableFuture.runAsync(() -> {
+                try {
+                    load(key, file);
+                } finally {
+                    LOADING.remove(key);
+                }
+            }, Util.ioPool()));
+        }
+        return null;
+    }
+
+    @Nullable
+    private static MultiblockDefinition load(String hash, Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            byte[] payload = Files.readAllBytes(file);
+            if (payload.length > SchematicPayload.MAX_PAYLOAD_BYTES || !hash.equals(SchematicPayload.hash(payload))) {
+                UniversalProjector.LOGGER.warn("Discarding corrupt stored schematic {}", file);
+                Files.deleteIfExists(file);
+                return null;
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return register(hash, payload);
+        } catch (IOException e) {
+            UniversalProjector.LOGGER.warn("Failed to read stored schematic {}", file, e);
+            return null;
+        }
+    }
+
+    // ---- Uploads ----
+
+    /**
+     * Starts (or restarts) an upload for a player. Returns false if the announced size is invalid
+     * or the player is over their upload rate or storage quota.
+     */
+    public static synchronized boolean beginUpload(UUID player, String hash, int length) {
+        if (!SchematicPayload.isValidHash(hash) || length <= 0 || length > SchematicPayload.MAX_PAYLOAD_BYTES) {
+            return false;
+        }
+        Quota quota = QUOTAS.computeIfAbsent(player, id -> new Quota());
+        long now = System.currentTimeMillis();
+        if (now - quota.windowStart >= RATE_WINDOW_MILLIS) {
+            quota.windowStart = now;
+            quota.startedInWindow = 0;
+        }
+        if (quota.startedInWindow >= UPLOADS_PER_WINDOW || quota.stored >= MAX_STORED_PER_PLAYER) {
+            return false;
+        }
+        quota.startedInWindow++;
+        int chunkCount = (length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        UPLOADS.put(player, new Upload(hash, chunkCount));
+        return true;
+    }
+
+    /**
+     * Accepts one chunk of a player's upload.
+     *
+     * @return null while chunks are missing; once the final chunk arrives, a future that verifies,
+     *         decodes and stores the payload on a background thread and completes with the stored
+     *         definition, or exceptionally with an {@link IllegalStateException} if verification fails
+     * @throws IllegalStateException if the chunk does not belong to the player's current upload
+     */
+    @Nullable
+    public static synchronized CompletableFuture<MultiblockDefinition> acceptChunk(UUID player, String hash, int index, byte[] data) {
+        Upload upload = UPLOADS.get(player);
+        if (upload == null || !upload.hash.equals(hash)) {
+            throw new IllegalStateException("No upload in progress for " + hash);
+        }
+        if (index < 0 || index >= upload.chunks.length || data.length > CHUNK_SIZE) {
+            UPLOADS.remove(player);
+            throw new IllegalStateException("Chunk out of range for " + hash);
+        }
+        if (upload.chunks[index] == null) {
+            upload.chunks[index] = data;
+            upload.received++;
+        }
+        if (upload.received < upload.chunks.length) return null;
+
+        UPLOADS.remove(player);
+        int total = 0;
+        for (byte[] chunk : upload.chunks) total += chunk.length;
+        byte[] payload = new byte[total];
+        int offset = 0;
+        for (byte[] chunk : upload.chunks) {
+            System.arraycopy(chunk, 0, payload, offset, chunk.length);
+            offset += chunk.length;
+        }
+
+        return CompletableFuture.supplyAsync(() -> {
+            if (!hash.equals(SchematicPayload.hash(payload))) {
+                throw new IllegalStateException("Hash mismatch for uploaded schematic " + hash);
+            }
+            MultiblockDefinition definition = register(hash, payload);
+            if (definition == null) {
+                throw new IllegalStateException("Uploaded schematic " + hash + " could not be decoded");
+            }
+            persist(hash, payload);
+            synchronized (SchematicStore.class) {
+                QUOTAS.computeIfAbsent(player, id -> new Quota()).stored++;
+            }
+            return definition;
+        }, Util.backgroundExecutor());
+    }
+
+    // ---- Internals ----
+
+    @Nullable
+    private static MultiblockDefinition register(String hash, byte[] payload) {
+        MultiblockStructure structure = SchematicPayload.decode(payload);
+        if (structure == null) return null;
+        MultiblockDefinition definition = MultiblockDefinition.fixed(
+            Component.literal("Schematic " + hash.substring(0, 8)),
+            UniversalProjector.MODID, SCHEMATIC_CATEGORY, structure.size(),
+            (variant, level) -> structure
+        );
+        MultiblockDefinition existing = DEFINITIONS.putIfAbsent(hash, definition);
+        return existing != null ? existing : definition;
+    }
+
+    private static void persist(String hash, byte[] payload) {
+        Path file = fileFor(hash);
+        if (file == null) return;
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(hash + ".tmp");
+            Files.write(temp, payload);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            UniversalProjector.LOGGER.warn("Failed to persist uploaded schematic {}", hash, e);
+        }
+    }
+
+    @Nullable
+    private static Path fileFor(String hash) {
+        Path dir = storeDir;
+        if (dir == null || !SchematicPayload.isValidHash(hash)) return null;
+        return dir.resolve(hash + ".bin");
+    }
+
+    /** Deletes stored payloads that have not been uploaded or loaded for {@link #UNUSED_DAYS} days. */
+    private static void pruneUnused(Path dir) {
+        if (!Files.isDirectory(dir)) return;
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(UNUSED_DAYS);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.bin")) {
+            for (Path file : files) {
+                if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            UniversalProjector.LOGGER.warn("Failed to prune stored schematics in {}", dir, e);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStarting(ServerStartingEvent event) {
+        Path dir = event.getServer().getWorldPath(LevelResource.ROOT)
+            .resolve("multiblockprojector").resolve("schematics");
+        storeDir = dir;
+        Util.ioPool().execute(() -> pruneUnused(dir));
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        storeDir = null;
+        DEFINITIONS.clear();
+        LOADING.clear();
+        synchronized (SchematicStore.class) {
+            UPLOADS.clear();
+            QUOTAS.clear();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        synchronized (SchematicStore.class) {
+            UPLOADS.remove(event.getEntity().getUUID());
+        }
+    }
+}